@@ -0,0 +1,64 @@
+// Ingest + query load test used to compare platform vs virtual thread execution.
+//   k6 run -e BASE_URL=http://localhost:8080 -e RATE=2000 loadtest/k6-ingest.js
+// Run once per mode (spring.threads.virtual.enabled=false / true) and compare
+// http_reqs (throughput) and the p(99) of http_req_duration in the summary.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const RATE = parseInt(__ENV.RATE || '1000');
+const DURATION = __ENV.DURATION || '2m';
+const PUBLISHERS = parseInt(__ENV.PUBLISHERS || '500');
+
+export const options = {
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    scenarios: {
+        ingest: {
+            executor: 'constant-arrival-rate',
+            exec: 'ingest',
+            rate: RATE,
+            timeUnit: '1s',
+            duration: DURATION,
+            preAllocatedVUs: 200,
+            maxVUs: 2000,
+        },
+        // Database-bound reads, so the DB concurrency limit is exercised too
+        query: {
+            executor: 'constant-arrival-rate',
+            exec: 'query',
+            rate: Math.max(1, Math.floor(RATE / 20)),
+            timeUnit: '1s',
+            duration: DURATION,
+            preAllocatedVUs: 50,
+            maxVUs: 500,
+        },
+    },
+};
+
+function publisherId() {
+    return 'vehicle-' + Math.floor(Math.random() * PUBLISHERS);
+}
+
+export function ingest() {
+    const body = JSON.stringify({
+        publisherId: publisherId(),
+        gpsData: {
+            latitude: 18.5 + Math.random() * 0.1,
+            longitude: 73.8 + Math.random() * 0.1,
+            height: 560,
+            timeStamp: new Date().toISOString().replace('Z', ''),
+        },
+    });
+    const res = http.post(`${BASE_URL}/api/gps/putGpsData`, body, {
+        headers: { 'Content-Type': 'application/json' },
+        tags: { endpoint: 'putGpsData' },
+    });
+    check(res, { 'accepted': (r) => r.status === 202 });
+}
+
+export function query() {
+    const res = http.get(`${BASE_URL}/api/gps/query/${publisherId()}?limit=100`, {
+        tags: { endpoint: 'query' },
+    });
+    check(res, { 'answered': (r) => r.status === 200 || r.status === 404 });
+}
@@ -0,0 +1,92 @@
+package com.chinmay.gpsservice.scheduler.partition;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs the real partition DDL against MySQL; Hibernate creates gps_records from the entity as it does in production
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // ALTER TABLE commits implicitly in MySQL
+class GpsRecordPartitionManagerIntegrationTest {
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDate today = LocalDate.now();
+
+    @Test
+    void testConvertRotateAndPrune() {
+        insert(1, today.minusDays(3).atTime(12, 0));
+        insert(2, today.atTime(8, 0));
+        insert(3, today.plusDays(1).atTime(8, 0));
+
+        // 1. Convert the plain table: history, today, 2 days ahead, catch-all
+        GpsRecordPartitionManager manager = new GpsRecordPartitionManager(jdbcTemplate, PartitionInterval.DAILY, 2);
+        manager.ensurePartitioned();
+        assertEquals(List.of("p_history", name(today), name(today.plusDays(1)), name(today.plusDays(2)), TimePartition.CATCH_ALL_NAME),
+                partitionNames(manager));
+        assertEquals(3, count());
+
+        // 2. A one-day range query only touches that day's partition
+        Map<String, Object> plan = jdbcTemplate.queryForMap(
+                "EXPLAIN SELECT * FROM gps_records WHERE publisher_id = 'TRUCK-01' AND event_timestamp >= ? AND event_timestamp < ?",
+                today.atStartOfDay(), today.plusDays(1).atStartOfDay());
+        assertEquals(name(today), plan.get("partitions"));
+
+        // 3. Rotate with a longer horizon and a cutoff at today's start: history is dropped, two days are split off pmax
+        GpsRecordPartitionManager widened = new GpsRecordPartitionManager(jdbcTemplate, PartitionInterval.DAILY, 4);
+        assertEquals(1, widened.maintain(today.atStartOfDay()));
+        assertEquals(List.of(name(today), name(today.plusDays(1)), name(today.plusDays(2)), name(today.plusDays(3)),
+                name(today.plusDays(4)), TimePartition.CATCH_ALL_NAME), partitionNames(widened));
+        assertEquals(2, count(), "The row in the dropped history partition is gone");
+
+        // 4. Nothing left to do on a second run
+        assertEquals(0, widened.maintain(today.atStartOfDay()));
+        assertEquals(6, widened.listPartitions().size());
+    }
+
+    private void insert(long id, LocalDateTime timestamp) {
+        jdbcTemplate.update("INSERT INTO gps_records (id, publisher_id, latitude, longitude, event_timestamp) VALUES (?, 'TRUCK-01', 40.0, -74.0, ?)",
+                id, timestamp);
+    }
+
+    private long count() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM gps_records", Long.class);
+    }
+
+    private static String name(LocalDate start) {
+        return TimePartition.covering(start, start.plusDays(1)).name();
+    }
+
+    private static List<String> partitionNames(GpsRecordPartitionManager manager) {
+        return manager.listPartitions().stream().map(TimePartition::name).toList();
+    }
+}
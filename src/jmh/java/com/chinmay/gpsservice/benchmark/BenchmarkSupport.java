@@ -0,0 +1,16 @@
+package com.chinmay.gpsservice.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.slf4j.LoggerFactory;
+
+final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    // Services log per call at INFO; console output would dominate what we are trying to measure
+    static void quietLogging() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+    }
+}
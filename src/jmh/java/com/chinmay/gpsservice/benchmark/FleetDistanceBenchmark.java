@@ -0,0 +1,114 @@
+package com.chinmay.gpsservice.benchmark;
+
+import com.chinmay.gpsservice.dto.PublisherRoutePoint;
+import com.chinmay.gpsservice.repository.GpsRecordRepository;
+import com.chinmay.gpsservice.service.AnalyticsService.FleetDistanceReportService;
+import com.chinmay.gpsservice.util.RouteDistanceAccumulator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Fleet distance report over thousands of publishers, with the repository cursors replaced by in-memory streams.
+ * sequential folds the same points with one accumulator on one thread, for comparison with the pool.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FleetDistanceBenchmark {
+
+    private static final int BATCH_PUBLISHERS = 500;
+
+    @Param({"1000", "10000"})
+    private int publishers;
+
+    @Param({"500"})
+    private int pointsPerPublisher;
+
+    @Param({"1", "4"})
+    private int parallelism;
+
+    private List<PublisherRoutePoint> points;
+    private FleetDistanceReportService reportService;
+    private final LocalDateTime from = LocalDateTime.of(2026, 7, 13, 0, 0);
+    private final LocalDateTime to = from.plusDays(1);
+
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.quietLogging();
+        SplittableRandom random = new SplittableRandom(42);
+        points = new ArrayList<>(publishers * pointsPerPublisher);
+        for (int p = 0; p < publishers; p++) {
+            String publisherId = String.format("TRUCK-%05d", p);
+            double lat = 40.7128, lon = -74.0060;
+            for (int i = 0; i < pointsPerPublisher; i++) {
+                lat += random.nextDouble(-0.001, 0.001);
+                lon += random.nextDouble(-0.001, 0.001);
+                points.add(new PublisherRoutePoint(publisherId, lat, lon));
+            }
+        }
+
+        // Batches are consecutive slices, as the database would return them in publisher order
+        List<String> publisherIds = points.stream().map(PublisherRoutePoint::publisherId).distinct().toList();
+        GpsRecordRepository repository = Mockito.mock(GpsRecordRepository.class);
+        when(repository.findFleetPublisherIds(any(), any(), any(), any())).thenAnswer(invocation -> {
+            String after = invocation.getArgument(0);
+            int start = after.isEmpty() ? 0 : publisherIds.indexOf(after) + 1;
+            return publisherIds.subList(start, Math.min(start + BATCH_PUBLISHERS, publisherIds.size()));
+        });
+        when(repository.streamFleetRoutePointsFor(any(), any(), any())).thenAnswer(invocation -> {
+            List<String> batch = invocation.getArgument(0);
+            int first = publisherIds.indexOf(batch.get(0)) * pointsPerPublisher;
+            return points.subList(first, first + batch.size() * pointsPerPublisher).stream();
+        });
+        reportService = new FleetDistanceReportService(repository, Mockito.mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry(), parallelism, 65536, BATCH_PUBLISHERS);
+    }
+
+    @TearDown
+    public void tearDown() {
+        reportService.shutdown();
+    }
+
+    @Benchmark
+    public long fleetReport(Blackhole blackhole) {
+        return reportService.streamFleetDistances(List.of(), from, to, blackhole::consume);
+    }
+
+    @Benchmark
+    public long sequential(Blackhole blackhole) {
+        String current = null;
+        RouteDistanceAccumulator accumulator = null;
+        long count = 0;
+        for (PublisherRoutePoint point : points) {
+            if (!point.publisherId().equals(current)) {
+                if (accumulator != null) {
+                    blackhole.consume(accumulator.getTotalDistanceKm());
+                    count++;
+                }
+                current = point.publisherId();
+                accumulator = new RouteDistanceAccumulator();
+            }
+            accumulator.add(point.latitude(), point.longitude());
+        }
+        if (accumulator != null) {
+            blackhole.consume(accumulator.getTotalDistanceKm());
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,46 @@
+package com.chinmay.gpsservice.benchmark;
+
+import com.chinmay.gpsservice.util.HaversineUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one HaversineUtil.calculateDistance call on realistic consecutive-fix inputs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class HaversineBenchmark {
+
+    private static final int POINTS = 1024; // power of two, so the index wraps with a mask
+
+    private double[] latitudes;
+    private double[] longitudes;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        latitudes = new double[POINTS];
+        longitudes = new double[POINTS];
+        double lat = 40.7128, lon = -74.0060;
+        for (int i = 0; i < POINTS; i++) {
+            lat += random.nextDouble(-0.001, 0.001); // a few hundred metres between fixes
+            lon += random.nextDouble(-0.001, 0.001);
+            latitudes[i] = lat;
+            longitudes[i] = lon;
+        }
+    }
+
+    @Benchmark
+    public double calculateDistance() {
+        int i = next++ & (POINTS - 1);
+        int j = (i + 1) & (POINTS - 1);
+        return HaversineUtil.calculateDistance(latitudes[i], longitudes[i], latitudes[j], longitudes[j]);
+    }
+}
@@ -0,0 +1,66 @@
+package com.chinmay.gpsservice.benchmark;
+
+import com.chinmay.gpsservice.util.DistanceMode;
+import com.chinmay.gpsservice.util.HaversineUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole-route distance: the per-pair scalar call against the primitive-array kernels.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class HaversineBulkBenchmark {
+
+    @Param({"1000", "100000"})
+    private int points;
+
+    private double[] latitudes;
+    private double[] longitudes;
+    private double[] segments;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        latitudes = new double[points];
+        longitudes = new double[points];
+        segments = new double[points];
+        double lat = 40.7128, lon = -74.0060;
+        for (int i = 0; i < points; i++) {
+            lat += random.nextDouble(-0.001, 0.001);
+            lon += random.nextDouble(-0.001, 0.001);
+            latitudes[i] = lat;
+            longitudes[i] = lon;
+        }
+    }
+
+    @Benchmark
+    public double scalarPerPair() {
+        double total = 0.0;
+        for (int i = 1; i < points; i++) {
+            total += HaversineUtil.calculateDistance(latitudes[i - 1], longitudes[i - 1], latitudes[i], longitudes[i]);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double bulkHaversine() {
+        return HaversineUtil.totalDistance(latitudes, longitudes, points, DistanceMode.HAVERSINE);
+    }
+
+    @Benchmark
+    public double bulkHaversineWithSegments() {
+        return HaversineUtil.segmentDistances(latitudes, longitudes, points, segments, DistanceMode.HAVERSINE);
+    }
+
+    @Benchmark
+    public double bulkEquirectangular() {
+        return HaversineUtil.totalDistance(latitudes, longitudes, points, DistanceMode.EQUIRECTANGULAR);
+    }
+}
@@ -0,0 +1,70 @@
+package com.chinmay.gpsservice.benchmark;
+
+import com.chinmay.gpsservice.dto.ExtendedGpsInput;
+import com.chinmay.gpsservice.entity.GpsRecord;
+import com.chinmay.gpsservice.service.GpsServiceImpl;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-message CPU cost of the ingest path before the database: JSON decoding as done by the listeners,
+ * and the ExtendedGpsInput -> GpsRecord mapping from GpsServiceImpl.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class IngestDecodeBenchmark {
+
+    private static final String PAYLOAD = "{\"publisherId\":\"TRUCK-01\",\"gpsData\":{\"latitude\":40.7128,"
+            + "\"longitude\":-74.006,\"height\":10.5,\"timeStamp\":\"2026-07-13T10:15:30\"}}";
+
+    private ObjectMapper objectMapper;
+    private GpsServiceImpl gpsService;
+    private byte[] doubleEncodedBody;
+    private ExtendedGpsInput decoded;
+
+    @Setup
+    public void setUp() throws Exception {
+        BenchmarkSupport.quietLogging();
+        objectMapper = Jackson2ObjectMapperBuilder.json().build(); // same defaults Spring Boot applies
+        gpsService = new GpsServiceImpl(null, null, List.of(), null, null); // mapping touches no collaborators
+        // What the producer's Jackson converter puts on the wire: the JSON document as a JSON string literal
+        doubleEncodedBody = objectMapper.writeValueAsString(PAYLOAD).getBytes(StandardCharsets.UTF_8);
+        decoded = objectMapper.readValue(PAYLOAD, ExtendedGpsInput.class);
+    }
+
+    // GpsDataMessageListener: the converter has already unwrapped the string
+    @Benchmark
+    public ExtendedGpsInput decodeSingleListener() throws Exception {
+        return objectMapper.readValue(PAYLOAD, ExtendedGpsInput.class);
+    }
+
+    // GpsDataBatchMessageListener: raw body, unwrapped by hand
+    @Benchmark
+    public ExtendedGpsInput decodeDoubleEncodedBody() throws Exception {
+        JsonNode payload = objectMapper.readTree(doubleEncodedBody);
+        if (payload.isTextual()) {
+            payload = objectMapper.readTree(payload.textValue());
+        }
+        return objectMapper.treeToValue(payload, ExtendedGpsInput.class);
+    }
+
+    @Benchmark
+    public GpsRecord mapToGpsRecord() {
+        return gpsService.mapToGpsRecord(decoded);
+    }
+
+    @Benchmark
+    public GpsRecord decodeAndMap() throws Exception {
+        return gpsService.mapToGpsRecord(objectMapper.readValue(PAYLOAD, ExtendedGpsInput.class));
+    }
+}
@@ -0,0 +1,80 @@
+package com.chinmay.gpsservice.benchmark;
+
+import com.chinmay.gpsservice.dto.RoutePoint;
+import com.chinmay.gpsservice.hotstore.HotTrackStore;
+import com.chinmay.gpsservice.repository.GpsRecordRepository;
+import com.chinmay.gpsservice.service.AnalyticsService.DistanceBucketService;
+import com.chinmay.gpsservice.service.AnalyticsService.GpsAnalyticsServiceImpl;
+import com.chinmay.gpsservice.util.RouteDistanceAccumulator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Route summation in GpsAnalyticsServiceImpl on the raw-point path (no hot store, no distance buckets), with the
+ * repository stream replaced by an in-memory one so only the Java side is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RouteDistanceBenchmark {
+
+    @Param({"1000", "100000"})
+    private int points;
+
+    private List<RoutePoint> route;
+    private GpsAnalyticsServiceImpl analyticsService;
+    private final LocalDateTime from = LocalDateTime.of(2026, 7, 13, 0, 0);
+    private final LocalDateTime to = from.plusDays(1);
+
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.quietLogging();
+        SplittableRandom random = new SplittableRandom(42);
+        route = new ArrayList<>(points);
+        double lat = 40.7128, lon = -74.0060;
+        for (int i = 0; i < points; i++) {
+            lat += random.nextDouble(-0.001, 0.001);
+            lon += random.nextDouble(-0.001, 0.001);
+            route.add(new RoutePoint(lat, lon));
+        }
+
+        GpsRecordRepository repository = Mockito.mock(GpsRecordRepository.class);
+        DistanceBucketService distanceBucketService = Mockito.mock(DistanceBucketService.class);
+        when(distanceBucketService.calculateDistance(anyString(), any(), any())).thenReturn(Optional.empty());
+        when(repository.streamRoutePoints(anyString(), any(), any())).thenAnswer(invocation -> route.stream());
+        HotTrackStore hotTrackStore = Mockito.mock(HotTrackStore.class);
+        when(hotTrackStore.calculateDistance(anyString(), any(), any())).thenReturn(Optional.empty());
+        analyticsService = new GpsAnalyticsServiceImpl(repository, distanceBucketService, hotTrackStore,
+                Mockito.mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), null, 4);
+    }
+
+    @Benchmark
+    public double calculateTotalDistance() {
+        return analyticsService.calculateTotalDistance("TRUCK-01", from, to);
+    }
+
+    @Benchmark
+    public double accumulatorOnly() {
+        RouteDistanceAccumulator accumulator = new RouteDistanceAccumulator();
+        for (RoutePoint point : route) {
+            accumulator.add(point.latitude(), point.longitude());
+        }
+        return accumulator.getTotalDistanceKm();
+    }
+}
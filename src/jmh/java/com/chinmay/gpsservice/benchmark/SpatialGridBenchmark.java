@@ -0,0 +1,98 @@
+package com.chinmay.gpsservice.benchmark;
+
+import com.chinmay.gpsservice.dto.LastKnownPosition;
+import com.chinmay.gpsservice.dto.NearbyPosition;
+import com.chinmay.gpsservice.realtime.SpatialGrid;
+import com.chinmay.gpsservice.util.HaversineUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Radius / bounding-box search over N vehicles spread across the continental US, against a linear Haversine scan.
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Djmh.args="SpatialGridBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SpatialGridBenchmark {
+
+    private static final double MIN_LAT = 25.0, MAX_LAT = 49.0, MIN_LON = -124.0, MAX_LON = -67.0;
+
+    @Param({"10000", "100000", "1000000"})
+    private int vehicles;
+
+    @Param({"0.05"})
+    private double cellSizeDegrees;
+
+    private SpatialGrid grid;
+    private LastKnownPosition[] positions;
+    private double[][] queryPoints;
+    private int next; // non-negative for any realistic run length
+    private LocalDateTime clock;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        clock = LocalDateTime.of(2026, 1, 1, 0, 0);
+        grid = new SpatialGrid(cellSizeDegrees);
+        positions = new LastKnownPosition[vehicles];
+        for (int i = 0; i < vehicles; i++) {
+            positions[i] = new LastKnownPosition("TRUCK-" + i, clock,
+                    random.nextDouble(MIN_LAT, MAX_LAT), random.nextDouble(MIN_LON, MAX_LON), null);
+            grid.update(positions[i]);
+        }
+        queryPoints = new double[1024][];
+        for (int i = 0; i < queryPoints.length; i++) {
+            queryPoints[i] = new double[]{random.nextDouble(MIN_LAT, MAX_LAT), random.nextDouble(MIN_LON, MAX_LON)};
+        }
+    }
+
+    private double[] nextQueryPoint() {
+        return queryPoints[next++ & (queryPoints.length - 1)];
+    }
+
+    @Benchmark
+    public List<NearbyPosition> gridRadius10Km() {
+        double[] point = nextQueryPoint();
+        return grid.findNear(point[0], point[1], 10.0, 1000);
+    }
+
+    @Benchmark
+    public List<LastKnownPosition> gridBoundingBox() {
+        double[] point = nextQueryPoint();
+        return grid.findWithin(point[0], point[1], point[0] + 0.2, point[1] + 0.2, 1000);
+    }
+
+    @Benchmark
+    public void gridMove() {
+        int i = next % vehicles;
+        double step = (next++ / vehicles) % 2 == 0 ? 0.01 : -0.01; // drift back and forth, staying in range
+        LastKnownPosition current = positions[i];
+        clock = clock.plusNanos(1000);
+        positions[i] = new LastKnownPosition(current.publisherId(), clock,
+                current.latitude() + step, current.longitude() + step, null);
+        grid.update(positions[i]);
+    }
+
+    // Baseline: what a radius query costs without an index
+    @Benchmark
+    public List<NearbyPosition> linearScanRadius10Km() {
+        double[] point = nextQueryPoint();
+        List<NearbyPosition> result = new ArrayList<>();
+        for (LastKnownPosition position : positions) {
+            double distanceKm = HaversineUtil.calculateDistance(point[0], point[1], position.latitude(), position.longitude());
+            if (distanceKm <= 10.0) {
+                result.add(new NearbyPosition(position, distanceKm));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,91 @@
+package com.chinmay.gpsservice.benchmark;
+
+import com.chinmay.gpsservice.dto.ExtendedGpsInput;
+import com.chinmay.gpsservice.dto.GpsData;
+import com.chinmay.gpsservice.messaging.GpsBinaryCodec;
+import com.chinmay.gpsservice.messaging.GpsMessageDecoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queue payload cost per message: JSON (as the producer actually sends it, wrapped in a JSON string literal)
+ * against application/x-gps-binary-v1. The encode benchmarks also report the payload size as the secondary
+ * result bytesPerMessage, so it lands in target/jmh-result.json next to the timings.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class WireFormatBenchmark {
+
+    private ObjectMapper objectMapper;
+    private GpsMessageDecoder decoder;
+    private ExtendedGpsInput input;
+    private Message jsonMessage;
+    private Message binaryMessage;
+
+    // Aux counter: JMH publishes public fields of this state as secondary results of the benchmark using it.
+    // EVENTS counters are summed over every thread and measurement iteration of every fork, so each one carries
+    // its share and the sum is the payload size.
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+        public double bytesPerMessage;
+        private double share;
+
+        @Setup(Level.Trial)
+        public void setUp(BenchmarkParams params) {
+            share = 1.0 / ((long) params.getMeasurement().getCount() * Math.max(1, params.getForks()) * params.getThreads());
+        }
+
+        void record(byte[] payload) {
+            bytesPerMessage = payload.length * share;
+        }
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        decoder = new GpsMessageDecoder(objectMapper, new SimpleMeterRegistry());
+        input = new ExtendedGpsInput("TRUCK-01", new GpsData(40.7128f, -74.006f, 10.5f, "2026-07-13T10:15:30"));
+
+        byte[] json = objectMapper.writeValueAsString(objectMapper.writeValueAsString(input)).getBytes(StandardCharsets.UTF_8);
+        byte[] binary = GpsBinaryCodec.encode(input).orElseThrow();
+        jsonMessage = MessageBuilder.withBody(json).setContentType("application/json").build();
+        binaryMessage = MessageBuilder.withBody(binary).setContentType(GpsBinaryCodec.CONTENT_TYPE).build();
+    }
+
+    @Benchmark
+    public byte[] encodeJson(PayloadSize size) throws Exception {
+        byte[] payload = objectMapper.writeValueAsString(objectMapper.writeValueAsString(input)).getBytes(StandardCharsets.UTF_8);
+        size.record(payload);
+        return payload;
+    }
+
+    @Benchmark
+    public byte[] encodeBinary(PayloadSize size) {
+        byte[] payload = GpsBinaryCodec.encode(input).orElseThrow();
+        size.record(payload);
+        return payload;
+    }
+
+    @Benchmark
+    public ExtendedGpsInput decodeJson() throws Exception {
+        return decoder.decode(jsonMessage);
+    }
+
+    @Benchmark
+    public ExtendedGpsInput decodeBinary() throws Exception {
+        return decoder.decode(binaryMessage);
+    }
+}
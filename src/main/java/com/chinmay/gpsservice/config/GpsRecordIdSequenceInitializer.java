@@ -0,0 +1,38 @@
+package com.chinmay.gpsservice.config;
+
+import com.chinmay.gpsservice.entity.GpsRecord;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Migration path from IDENTITY to the pooled gps_records_seq sequence.
+ * Rows written before the switch already own IDs up to MAX(id), but Hibernate creates the sequence table
+ * starting at 1. Before any listener or request can insert, this moves the sequence past the existing IDs.
+ * It is a no-op on a fresh database and on every start after the first one.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@DependsOn("entityManagerFactory") // schema update (which creates gps_records_seq) must have run first
+public class GpsRecordIdSequenceInitializer {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void alignSequenceWithExistingRows() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM gps_records", Long.class);
+        Long nextVal = jdbcTemplate.queryForObject("SELECT next_val FROM " + GpsRecord.ID_SEQUENCE_NAME, Long.class);
+
+        // The pooled optimizer hands out (next_val - allocationSize, next_val], so keep a full block of headroom
+        long requiredNextVal = maxId + GpsRecord.ID_ALLOCATION_SIZE + 1;
+        if (maxId > 0 && nextVal != null && nextVal < requiredNextVal) {
+            jdbcTemplate.update("UPDATE " + GpsRecord.ID_SEQUENCE_NAME + " SET next_val = ?", requiredNextVal);
+            log.info("ID Migration: Moved {} from {} to {} (existing MAX(id) = {}).",
+                    GpsRecord.ID_SEQUENCE_NAME, nextVal, requiredNextVal, maxId);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.chinmay.gpsservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Whether this instance stores every GPS write. In-memory views fed by GpsIngestObserver can only answer for
+ * data they have seen: with sharding (including single-active-consumer failover between nodes), competing
+ * consumers on several instances, or SYNC writes served by other instances, points are committed elsewhere.
+ */
+@Component
+public class IngestTopology {
+
+    private final boolean seesEveryWrite;
+
+    public IngestTopology(@Value("${gps.deployment.single-node:true}") boolean singleNode,
+                          @Value("${gps.sharding.enabled:false}") boolean sharded) {
+        this.seesEveryWrite = singleNode && !sharded;
+    }
+
+    public boolean seesEveryWrite() {
+        return seesEveryWrite;
+    }
+}
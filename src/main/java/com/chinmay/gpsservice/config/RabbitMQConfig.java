@@ -1,8 +1,12 @@
 package com.chinmay.gpsservice.config;
 
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -18,6 +22,11 @@ public class RabbitMQConfig {
     public static final String GPS_DLX_NAME = "gps-data-dlx"; // Dead Letter Exchange
     public static final String GPS_DLQ_ROUTING_KEY = "gps.data.dead";
 
+    // Container factory used by the batch-consuming listener (gps.listener.mode=batch)
+    public static final String BATCH_LISTENER_CONTAINER_FACTORY = "batchRabbitListenerContainerFactory";
+    // Container factory used by the write-behind listener (gps.listener.mode=write-behind)
+    public static final String WRITE_BEHIND_LISTENER_CONTAINER_FACTORY = "writeBehindRabbitListenerContainerFactory";
+
     // Step 3: Define the Queue as a Spring Bean
     @Bean // This annotation tells Spring that anf object will be created and should manage it (bean)
     public Queue gpsDataProcessingQueue() {
@@ -94,4 +103,45 @@ public class RabbitMQConfig {
                 .to(gpsDeadLetterExchange)
                 .with(GPS_DLQ_ROUTING_KEY); // Use the dedicated DLQ routing key
     }
-}
\ No newline at end of file
+
+    /**
+     * Listener container factory for the batch consumer. Each consumer drains up to
+     * {@code gps.listener.batch.size} messages, waiting at most {@code gps.listener.batch.max-wait-ms}
+     * for a batch to fill, and hands them to the listener as one List.
+     * Acks are MANUAL so the listener can ack/nack every delivery tag individually:
+     * a single bad message is nacked (and dead-lettered) without failing the rest of the batch.
+     */
+    @Bean(name = BATCH_LISTENER_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory batchRabbitListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            @Value("${gps.listener.batch.size:500}") int batchSize,
+            @Value("${gps.listener.batch.max-wait-ms:200}") long maxWaitMs) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setBatchReceiveTimeout(maxWaitMs);
+        factory.setPrefetchCount(batchSize); // the broker must be allowed to hand us a full batch
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        return factory;
+    }
+
+    /**
+     * Listener container factory for the write-behind consumer. Acks are MANUAL because they are sent by the
+     * write-behind thread after the flush commits, and the prefetch must cover the messages waiting in the buffer:
+     * the broker stops delivering once {@code gps.write-behind.prefetch} messages per consumer are unacked.
+     */
+    @Bean(name = WRITE_BEHIND_LISTENER_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory writeBehindRabbitListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            @Value("${gps.write-behind.prefetch:1000}") int prefetch) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setPrefetchCount(prefetch);
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        return factory;
+    }
+}
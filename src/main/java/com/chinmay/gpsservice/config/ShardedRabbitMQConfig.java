@@ -0,0 +1,168 @@
+package com.chinmay.gpsservice.config;
+
+import com.chinmay.gpsservice.listener.GpsDataBatchMessageListener;
+import com.chinmay.gpsservice.listener.GpsDataMessageListener;
+import com.chinmay.gpsservice.listener.GpsDataWriteBehindListener;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerEndpoint;
+import org.springframework.amqp.rabbit.listener.api.ChannelAwareBatchMessageListener;
+import org.springframework.amqp.rabbit.listener.api.ChannelAwareMessageListener;
+import org.springframework.amqp.rabbit.support.RabbitExceptionTranslator;
+import org.springframework.amqp.rabbit.annotation.RabbitListenerConfigurer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistrar;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Publisher-sharded topology (gps.sharding.enabled=true). GpsMessagePublisher sends every message to a
+ * consistent-hash exchange with the publisherId as routing key, so all points of one vehicle land in the same
+ * one of gps.sharding.shards queues. Each shard gets its own listener container with a single consumer,
+ * and the queues are single-active-consumer, so a vehicle's points are processed in order even when several
+ * nodes subscribe to the same shard. gps.sharding.consume-shards (e.g. "0-3" or "0,2") picks this node's
+ * shards, which also keeps per-publisher in-memory state (positions, aggregates, hot store) on one node.
+ * Requires the rabbitmq_consistent_hash_exchange plugin (enabled in docker-compose.yml).
+ */
+@Configuration
+@Slf4j
+@ConditionalOnProperty(name = "gps.sharding.enabled", havingValue = "true")
+public class ShardedRabbitMQConfig implements RabbitListenerConfigurer {
+
+    public static final String GPS_SHARDED_EXCHANGE_NAME = "gps-data-sharded-exchange";
+    public static final String GPS_SHARD_QUEUE_PREFIX = "gps-data-shard-";
+    private static final String CONSISTENT_HASH_EXCHANGE_TYPE = "x-consistent-hash";
+    private static final String SHARD_BINDING_WEIGHT = "1"; // equal share of the hash ring per queue
+
+    private final int shardCount;
+    private final SortedSet<Integer> consumedShards;
+    private final String listenerMode;
+    private final ObjectProvider<GpsDataMessageListener> singleListener;
+    private final ObjectProvider<GpsDataBatchMessageListener> batchListener;
+    private final ObjectProvider<GpsDataWriteBehindListener> writeBehindListener;
+    private final SimpleRabbitListenerContainerFactory defaultContainerFactory;
+    private final SimpleRabbitListenerContainerFactory batchContainerFactory;
+    private final SimpleRabbitListenerContainerFactory writeBehindContainerFactory;
+
+    public ShardedRabbitMQConfig(@Value("${gps.sharding.shards:4}") int shardCount,
+                                 @Value("${gps.sharding.consume-shards:}") String consumeShards,
+                                 @Value("${gps.listener.mode:single}") String listenerMode,
+                                 ObjectProvider<GpsDataMessageListener> singleListener,
+                                 ObjectProvider<GpsDataBatchMessageListener> batchListener,
+                                 ObjectProvider<GpsDataWriteBehindListener> writeBehindListener,
+                                 @Qualifier("rabbitListenerContainerFactory") SimpleRabbitListenerContainerFactory defaultContainerFactory,
+                                 @Qualifier(RabbitMQConfig.BATCH_LISTENER_CONTAINER_FACTORY) SimpleRabbitListenerContainerFactory batchContainerFactory,
+                                 @Qualifier(RabbitMQConfig.WRITE_BEHIND_LISTENER_CONTAINER_FACTORY) SimpleRabbitListenerContainerFactory writeBehindContainerFactory) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("gps.sharding.shards must be at least 1.");
+        }
+        this.shardCount = shardCount;
+        this.consumedShards = parseShards(consumeShards, shardCount);
+        this.listenerMode = listenerMode;
+        this.singleListener = singleListener;
+        this.batchListener = batchListener;
+        this.writeBehindListener = writeBehindListener;
+        this.defaultContainerFactory = defaultContainerFactory;
+        this.batchContainerFactory = batchContainerFactory;
+        this.writeBehindContainerFactory = writeBehindContainerFactory;
+    }
+
+    public static String shardQueueName(int shard) {
+        return GPS_SHARD_QUEUE_PREFIX + shard;
+    }
+
+    @Bean
+    public CustomExchange gpsShardedExchange() {
+        return new CustomExchange(GPS_SHARDED_EXCHANGE_NAME, CONSISTENT_HASH_EXCHANGE_TYPE, true, false);
+    }
+
+    // Every node declares all shards, so the ring is identical no matter which node starts first
+    @Bean
+    public Declarables gpsShardQueues(CustomExchange gpsShardedExchange) {
+        List<Declarable> declarables = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            Queue queue = QueueBuilder.durable(shardQueueName(shard))
+                    .withArgument("x-dead-letter-exchange", RabbitMQConfig.GPS_DLX_NAME)
+                    .withArgument("x-dead-letter-routing-key", RabbitMQConfig.GPS_DLQ_ROUTING_KEY)
+                    .singleActiveConsumer()
+                    .build();
+            declarables.add(queue);
+            declarables.add(BindingBuilder.bind(queue).to(gpsShardedExchange).with(SHARD_BINDING_WEIGHT).noargs());
+        }
+        return new Declarables(declarables);
+    }
+
+    // One container per shard with exactly one consumer: parallel across shards, ordered within one
+    @Override
+    public void configureRabbitListeners(RabbitListenerEndpointRegistrar registrar) {
+        boolean batch = "batch".equals(listenerMode);
+        boolean writeBehind = "write-behind".equals(listenerMode);
+        for (int shard : consumedShards) {
+            SimpleRabbitListenerEndpoint endpoint = new SimpleRabbitListenerEndpoint();
+            endpoint.setId("gps-shard-" + shard);
+            endpoint.setQueueNames(shardQueueName(shard));
+            endpoint.setConcurrency("1");
+            if (batch) {
+                GpsDataBatchMessageListener listener = batchListener.getObject();
+                endpoint.setBatchListener(true);
+                endpoint.setMessageListener((ChannelAwareBatchMessageListener) (messages, channel) -> {
+                    try {
+                        listener.handleIncomingGpsBatch(messages, channel);
+                    } catch (IOException e) {
+                        throw RabbitExceptionTranslator.convertRabbitAccessException(e);
+                    }
+                });
+                registrar.registerEndpoint(endpoint, batchContainerFactory);
+            } else if (writeBehind) {
+                GpsDataWriteBehindListener listener = writeBehindListener.getObject();
+                endpoint.setMessageListener((ChannelAwareMessageListener) listener::handleIncomingGpsData);
+                registrar.registerEndpoint(endpoint, writeBehindContainerFactory);
+            } else {
+                GpsDataMessageListener listener = singleListener.getObject();
+                endpoint.setMessageListener(listener::handleIncomingGpsData);
+                registrar.registerEndpoint(endpoint, defaultContainerFactory);
+            }
+        }
+        log.info("Sharding: Consuming shards {} of {} ({} listener).", consumedShards, shardCount,
+                batch || writeBehind ? listenerMode : "single");
+    }
+
+    /**
+     * Parses "0-3,6" style shard lists; blank means every shard.
+     */
+    static SortedSet<Integer> parseShards(String spec, int shardCount) {
+        SortedSet<Integer> shards = new TreeSet<>();
+        if (spec == null || spec.isBlank()) {
+            for (int shard = 0; shard < shardCount; shard++) {
+                shards.add(shard);
+            }
+            return shards;
+        }
+        for (String part : spec.split(",")) {
+            String[] range = part.trim().split("-");
+            try {
+                int first = Integer.parseInt(range[0].trim());
+                int last = range.length > 1 ? Integer.parseInt(range[1].trim()) : first;
+                if (range.length > 2 || first < 0 || last >= shardCount || first > last) {
+                    throw new IllegalArgumentException("Invalid shard range '" + part + "' for " + shardCount + " shards.");
+                }
+                for (int shard = first; shard <= last; shard++) {
+                    shards.add(shard);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid shard range '" + part + "'.", e);
+            }
+        }
+        return shards;
+    }
+}
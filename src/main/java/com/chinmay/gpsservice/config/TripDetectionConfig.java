@@ -0,0 +1,23 @@
+package com.chinmay.gpsservice.config;
+
+import com.chinmay.gpsservice.service.AnalyticsService.TripSegmenter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class TripDetectionConfig {
+
+    // Shared by the range endpoint and the live tracker, so both cut trips the same way
+    @Bean
+    public TripSegmenter.Settings tripSegmenterSettings(@Value("${gps.trips.stop-radius-meters:100}") double stopRadiusMeters,
+                                                        @Value("${gps.trips.min-stop-minutes:5}") long minStopMinutes,
+                                                        @Value("${gps.trips.idle-speed-kmh:3}") double idleSpeedKmh,
+                                                        @Value("${gps.trips.max-speed-kmh:250}") double maxSpeedKmh,
+                                                        @Value("${gps.trips.max-gap-minutes:30}") long maxGapMinutes) {
+        return new TripSegmenter.Settings(stopRadiusMeters / 1000, Duration.ofMinutes(minStopMinutes).toMillis(),
+                idleSpeedKmh, maxSpeedKmh, Duration.ofMinutes(maxGapMinutes).toMillis());
+    }
+}
@@ -0,0 +1,56 @@
+package com.chinmay.gpsservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Virtual-thread execution mode (spring.threads.virtual.enabled=true). Spring Boot itself then runs Tomcat
+ * requests, the @RabbitListener containers (both factories go through the Boot configurer) and @Scheduled
+ * jobs such as DataMaintenanceScheduler on virtual threads. This class adds what Boot does not:
+ * a fail-fast check for the Java 21 runtime it needs (Boot would otherwise silently stay on platform threads),
+ * and a permit limit on the DataSource sized to the Hikari pool.
+ */
+@Configuration
+@Slf4j
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    private static final int REQUIRED_JAVA_VERSION = 21;
+
+    public VirtualThreadsConfig() {
+        int javaVersion = Runtime.version().feature();
+        if (javaVersion < REQUIRED_JAVA_VERSION) {
+            throw new IllegalStateException("spring.threads.virtual.enabled=true needs Java " + REQUIRED_JAVA_VERSION
+                    + "+ at runtime, but this is Java " + javaVersion + ".");
+        }
+        log.info("Execution: Virtual threads enabled for web requests, Rabbit listeners and scheduled jobs.");
+    }
+
+    // static: post-processors are created before regular beans
+    @Bean
+    public static BeanPostProcessor databaseConcurrencyLimiter(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitedDataSource) {
+                    return bean;
+                }
+                int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+                int maxConcurrency = environment.getProperty("gps.execution.db-max-concurrency", Integer.class, poolSize);
+                long acquireTimeoutMs = environment.getProperty("gps.execution.db-acquire-timeout-ms", Long.class, 30000L);
+                if (maxConcurrency > poolSize) {
+                    log.warn("Execution: gps.execution.db-max-concurrency={} exceeds the Hikari pool ({}); "
+                            + "the extra threads will just wait inside the pool.", maxConcurrency, poolSize);
+                }
+                log.info("Execution: Limiting '{}' to {} concurrent connections.", beanName, maxConcurrency);
+                return new ConcurrencyLimitedDataSource(dataSource, maxConcurrency, acquireTimeoutMs);
+            }
+        };
+    }
+}
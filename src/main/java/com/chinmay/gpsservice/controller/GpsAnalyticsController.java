@@ -1,14 +1,26 @@
 package com.chinmay.gpsservice.controller;
 
+import com.chinmay.gpsservice.dto.TripSegmentsResponse;
+import com.chinmay.gpsservice.realtime.LiveTripTracker;
+import com.chinmay.gpsservice.service.AnalyticsService.FleetDistanceReportService;
 import com.chinmay.gpsservice.service.AnalyticsService.GpsAnalyticsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @Slf4j
@@ -16,7 +28,13 @@ import java.time.LocalDateTime;
 @RequiredArgsConstructor
 public class GpsAnalyticsController {
 
+    private static final int MAX_TRACK_POINTS = 100000;
+    private static final int MAX_FLEET_PUBLISHERS = 1000;
+
     private final GpsAnalyticsService gpsAnalyticsService;
+    private final LiveTripTracker liveTripTracker;
+    private final FleetDistanceReportService fleetDistanceReportService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping("/{publisherId}/distance")
     public ResponseEntity<?> getTotalDistance(
@@ -37,4 +55,93 @@ public class GpsAnalyticsController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to calculate distance");
         }
     }
+
+    // Simplified polyline for maps: detail below toleranceMeters is dropped, and at most maxPoints are returned
+    @GetMapping("/{publisherId}/track")
+    public ResponseEntity<?> getSimplifiedTrack(
+            @PathVariable String publisherId,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "0") double toleranceMeters,
+            @RequestParam(defaultValue = "2000") int maxPoints) {
+        if (from.isAfter(to)) {
+            return ResponseEntity.badRequest().body("'from' date cannot be after 'to' date.");
+        }
+        if (toleranceMeters < 0) {
+            return ResponseEntity.badRequest().body("'toleranceMeters' cannot be negative.");
+        }
+        if (maxPoints < 2 || maxPoints > MAX_TRACK_POINTS) {
+            return ResponseEntity.badRequest().body("'maxPoints' must be between 2 and " + MAX_TRACK_POINTS + ".");
+        }
+        try {
+            return ResponseEntity.ok(gpsAnalyticsService.getSimplifiedTrack(publisherId, from, to, toleranceMeters, maxPoints));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Analytics: Error building track for {}: {}", publisherId, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to build track");
+        }
+    }
+
+    // Trips (movement between stops) and stops (dwells) in [from, to)
+    @GetMapping("/{publisherId}/trips")
+    public ResponseEntity<?> getTrips(
+            @PathVariable String publisherId,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (from.isAfter(to)) {
+            return ResponseEntity.badRequest().body("'from' date cannot be after 'to' date.");
+        }
+        try {
+            return ResponseEntity.ok(gpsAnalyticsService.segmentTrips(publisherId, from, to));
+        } catch (Exception e) {
+            log.error("Analytics: Error segmenting trips for {}: {}", publisherId, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to segment trips");
+        }
+    }
+
+    // Recent trips and stops from the live feed, including the one in progress
+    @GetMapping("/{publisherId}/trips/live")
+    public ResponseEntity<TripSegmentsResponse> getLiveTrips(@PathVariable String publisherId) {
+        if (!liveTripTracker.isAvailable()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build(); // only this instance's points; use /trips
+        }
+        return liveTripTracker.get(publisherId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // Distances of many publishers in one request, one NDJSON line per publisher; no publisherIds means the whole fleet
+    @GetMapping(value = "/fleet/distance", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getFleetDistances(
+            @RequestParam(required = false) List<String> publisherIds,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (from.isAfter(to)) {
+            return badRequest("'from' date cannot be after 'to' date.");
+        }
+        List<String> publishers = publisherIds != null ? publisherIds : List.of();
+        if (publishers.size() > MAX_FLEET_PUBLISHERS) {
+            return badRequest("At most " + MAX_FLEET_PUBLISHERS + " publisherIds per request; omit them for the whole fleet.");
+        }
+        log.info("Analytics: Fleet distance report for {} publishers between {} and {}",
+                publishers.isEmpty() ? "all" : publishers.size(), from, to);
+        StreamingResponseBody body = outputStream -> fleetDistanceReportService.streamFleetDistances(publishers, from, to, distance -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(distance));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e); // client went away; aborts the report
+            }
+        });
+        return ResponseEntity.ok(body);
+    }
+
+    // Streaming endpoints are bound to StreamingResponseBody, so errors are written through it as plain text
+    private static ResponseEntity<StreamingResponseBody> badRequest(String message) {
+        return ResponseEntity.badRequest()
+                .contentType(MediaType.TEXT_PLAIN)
+                .body(outputStream -> outputStream.write(message.getBytes(StandardCharsets.UTF_8)));
+    }
 }
@@ -1,51 +1,165 @@
 package com.chinmay.gpsservice.controller;
 
+import com.chinmay.gpsservice.dto.BulkIngestResult;
 import com.chinmay.gpsservice.dto.ExtendedGpsInput;
-import com.chinmay.gpsservice.config.RabbitMQConfig;
+import com.chinmay.gpsservice.dto.IngestionModeStatus;
 import com.chinmay.gpsservice.entity.GpsRecord;
+import com.chinmay.gpsservice.logging.SampledIngestLogger;
+import com.chinmay.gpsservice.messaging.AsyncGpsPublisher;
+import com.chinmay.gpsservice.messaging.WireFormat;
+import com.chinmay.gpsservice.service.GpsBulkIngestionService;
 import com.chinmay.gpsservice.service.GpsService;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.chinmay.gpsservice.service.IngestionMode;
+import com.chinmay.gpsservice.service.IngestionModeRouter;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
 @RestController
 @Slf4j
 @RequestMapping("/api/gps")
 @RequiredArgsConstructor // Automatically creates constructor for 'final' variables
 public class GpsIngestionController {
 
+    // Lets a producer pick the queue encoding per request (JSON or BINARY); defaults to gps.messaging.wire-format
+    public static final String WIRE_FORMAT_HEADER = "X-Gps-Wire-Format";
+
+    // Overrides gps.ingest.mode for one request (SYNC, ASYNC or ADAPTIVE); the 'mode' query parameter works too
+    public static final String INGEST_MODE_HEADER = "X-Gps-Ingest-Mode";
+
     private final GpsService gpsService;
-    private final RabbitTemplate rabbitTemplate;
-    private final ObjectMapper objectMapper;
+    private final AsyncGpsPublisher asyncGpsPublisher;
+    private final GpsBulkIngestionService bulkIngestionService;
+    private final IngestionModeRouter ingestionModeRouter;
+    private final SampledIngestLogger ingestLogger;
 
     @PostMapping("/putGpsData")
-    public ResponseEntity<?> processGpsInput(@Valid @RequestBody ExtendedGpsInput extendedGPSInput) {
-        boolean IS_ASYNC_MODE = true;
-        log.info("Ingestion: Received validated GPS data from publisher '{}'", extendedGPSInput.getPublisherId());
+    public CompletableFuture<ResponseEntity<?>> processGpsInput(@Valid @RequestBody ExtendedGpsInput extendedGPSInput,
+                                                                @RequestHeader(value = WIRE_FORMAT_HEADER, required = false) String wireFormat,
+                                                                @RequestHeader(value = INGEST_MODE_HEADER, required = false) String modeHeader,
+                                                                @RequestParam(value = "mode", required = false) String modeParam) {
+        // Per-request logging is sampled and summarised by SampledIngestLogger
+        String publisherId = extendedGPSInput.getPublisherId();
+
+        String requestedMode = modeHeader != null ? modeHeader : modeParam;
+        IngestionMode mode;
+        try {
+            mode = ingestionModeRouter.resolveMode(requestedMode == null ? null : parseIngestionMode(requestedMode));
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                    .body("Unknown ingestion mode '" + requestedMode + "'; use SYNC, ASYNC or ADAPTIVE."));
+        }
+
+        WireFormat format;
+        try {
+            format = wireFormat == null ? null : parseWireFormat(wireFormat);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                    .body("Unknown " + WIRE_FORMAT_HEADER + " '" + wireFormat + "'; use JSON or BINARY."));
+        }
 
+        if (ingestionModeRouter.route(mode) == IngestionModeRouter.Route.QUEUED) {
+            // The servlet thread is released here; the response is written once the broker confirms (or refuses)
+            return asyncGpsPublisher.publish(extendedGPSInput, format)
+                    .handle((ignored, error) -> asyncPublishResponse(publisherId, error));
+        }
+        ingestionModeRouter.directWriteStarted();
         try {
-            if (IS_ASYNC_MODE) {
-                String messagePayload = objectMapper.writeValueAsString(extendedGPSInput);
-                rabbitTemplate.convertAndSend(RabbitMQConfig.GPS_EXCHANGE_NAME, RabbitMQConfig.GPS_DATA_ROUTING_KEY, messagePayload);
-                log.info("Ingestion (ASYNC): Data for '{}' safely queued to RabbitMQ.", extendedGPSInput.getPublisherId());
-                return ResponseEntity.status(HttpStatus.ACCEPTED).body("GPS data accepted for asynchronous processing.");
-            } else {
-                GpsRecord savedRecord = gpsService.saveGpsData(extendedGPSInput);
-                log.info("Ingestion (SYNC): Data saved. ID: {}", savedRecord.getId());
-                return ResponseEntity.status(HttpStatus.CREATED).body("GPS data saved synchronously. Record ID: " + savedRecord.getId());
-            }
-        } catch (JsonProcessingException e) {
-            log.error("Ingestion: Error converting payload to JSON: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error preparing data for queueing.");
+            GpsRecord savedRecord = gpsService.saveGpsData(extendedGPSInput);
+            ingestLogger.stored(SampledIngestLogger.Stage.HTTP, publisherId);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.CREATED)
+                    .body("GPS data saved synchronously. Record ID: " + savedRecord.getId()));
+        } catch (IllegalArgumentException e) {
+            ingestLogger.failed(SampledIngestLogger.Stage.HTTP, "validation", publisherId, e, null);
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(e.getMessage()));
         } catch (Exception e) {
             log.error("Ingestion: Unexpected system error: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to process GPS data due to an internal error.");
+            ingestLogger.failed(SampledIngestLogger.Stage.HTTP, "error", publisherId, e, null);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Failed to process GPS data due to an internal error."));
+        } finally {
+            ingestionModeRouter.directWriteFinished();
+        }
+    }
+
+    @GetMapping("/ingest/mode")
+    public IngestionModeStatus getIngestionMode() {
+        return new IngestionModeStatus(ingestionModeRouter.getDefaultMode(), ingestionModeRouter.isBrokerAvailable(),
+                ingestionModeRouter.getQueueDepth(), ingestionModeRouter.getDirectInFlight(),
+                ingestionModeRouter.getBrokerFailures(), ingestionModeRouter.getRouteCounts());
+    }
+
+    // Switches the default mode of this instance at runtime (not persisted across restarts)
+    @PutMapping("/ingest/mode")
+    public ResponseEntity<?> setIngestionMode(@RequestParam String mode) {
+        try {
+            ingestionModeRouter.setDefaultMode(parseIngestionMode(mode));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Unknown ingestion mode '" + mode + "'; use SYNC, ASYNC or ADAPTIVE.");
         }
+        return ResponseEntity.ok(getIngestionMode());
+    }
+
+    private ResponseEntity<?> asyncPublishResponse(String publisherId, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause == null) {
+            ingestLogger.stored(SampledIngestLogger.Stage.HTTP, publisherId);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body("GPS data accepted for asynchronous processing.");
+        }
+        if (cause instanceof RejectedExecutionException) {
+            ingestLogger.failed(SampledIngestLogger.Stage.HTTP, "overloaded", publisherId, cause, null);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+                    .body("Ingestion is overloaded; retry shortly.");
+        }
+        ingestionModeRouter.reportBrokerFailure();
+        if (cause instanceof TimeoutException) {
+            ingestLogger.failed(SampledIngestLogger.Stage.HTTP, "confirm_timeout", publisherId, cause, null);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body("The message broker did not confirm the GPS data in time; it may or may not have been queued.");
+        }
+        ingestLogger.failed(SampledIngestLogger.Stage.HTTP, "publish_failed", publisherId, cause, null);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("GPS data could not be queued: " + cause.getMessage());
+    }
+
+    // Many points per request, as a JSON array or as NDJSON (one ExtendedGpsInput per line).
+    // Each item is validated on its own; the response lists the items that were not accepted.
+    @PostMapping(value = "/putGpsData/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<?> processBulkGpsInput(InputStream body,
+                                                 @RequestHeader(value = WIRE_FORMAT_HEADER, required = false) String wireFormat) {
+        WireFormat format;
+        try {
+            format = wireFormat == null ? null : parseWireFormat(wireFormat);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Unknown " + WIRE_FORMAT_HEADER + " '" + wireFormat + "'; use JSON or BINARY.");
+        }
+
+        BulkIngestResult result = bulkIngestionService.ingest(body, format);
+        // A 4xx reads as "nothing happened"; once items were published, an aborted body still answers 200 with the counts
+        if (result.abortedReason() != null && result.accepted() == 0 && result.failed() == 0) {
+            return ResponseEntity.badRequest().body(result);
+        }
+        if (result.failed() > 0 && result.accepted() == 0) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(result);
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    private static WireFormat parseWireFormat(String wireFormat) {
+        return WireFormat.valueOf(wireFormat.trim().toUpperCase());
+    }
+
+    private static IngestionMode parseIngestionMode(String mode) {
+        return IngestionMode.valueOf(mode.trim().toUpperCase());
     }
 }
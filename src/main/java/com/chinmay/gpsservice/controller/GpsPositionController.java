@@ -0,0 +1,100 @@
+package com.chinmay.gpsservice.controller;
+
+import com.chinmay.gpsservice.dto.LastKnownPosition;
+import com.chinmay.gpsservice.dto.NearbyPosition;
+import com.chinmay.gpsservice.realtime.LastKnownPositionStore;
+import com.chinmay.gpsservice.realtime.SpatialPositionIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+// Answers "where is X right now" from memory, or from the database when other instances also store points
+@RestController
+@Slf4j
+@RequestMapping("/api/gps/positions")
+@RequiredArgsConstructor
+public class GpsPositionController {
+
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final int MAX_SEARCH_RESULTS = 10000;
+    private static final double MAX_RADIUS_KM = 1000.0;
+
+    private final LastKnownPositionStore positionStore;
+    private final SpatialPositionIndex spatialIndex;
+
+    @GetMapping("/{publisherId}")
+    public ResponseEntity<LastKnownPosition> getLatestPosition(@PathVariable String publisherId) {
+        return positionStore.get(publisherId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // GET /api/gps/positions?publisherIds=TRUCK-01,TRUCK-02
+    @GetMapping
+    public ResponseEntity<?> getLatestPositions(@RequestParam List<String> publisherIds) {
+        if (publisherIds.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().body("At most " + MAX_BATCH_SIZE + " publisherIds per request.");
+        }
+        Map<String, LastKnownPosition> positions = positionStore.getAll(publisherIds);
+        return ResponseEntity.ok(positions);
+    }
+
+    // GET /api/gps/positions/within?minLat=..&minLon=..&maxLat=..&maxLon=.. (minLon > maxLon wraps the antimeridian)
+    @GetMapping("/within")
+    public ResponseEntity<?> getPositionsWithin(@RequestParam double minLat, @RequestParam double minLon,
+                                                @RequestParam double maxLat, @RequestParam double maxLon,
+                                                @RequestParam(defaultValue = "1000") int limit) {
+        if (!validLatitude(minLat) || !validLatitude(maxLat) || minLat > maxLat
+                || !validLongitude(minLon) || !validLongitude(maxLon)) {
+            return ResponseEntity.badRequest().body("Invalid bounding box.");
+        }
+        if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            return ResponseEntity.badRequest().body("'limit' must be between 1 and " + MAX_SEARCH_RESULTS + ".");
+        }
+        if (!spatialIndex.isAvailable()) {
+            return spatialSearchUnavailable();
+        }
+        List<LastKnownPosition> positions = spatialIndex.findWithin(minLat, minLon, maxLat, maxLon, limit);
+        return ResponseEntity.ok(positions);
+    }
+
+    // GET /api/gps/positions/near?lat=..&lon=..&radiusKm=.. (nearest first)
+    @GetMapping("/near")
+    public ResponseEntity<?> getPositionsNear(@RequestParam double lat, @RequestParam double lon,
+                                              @RequestParam double radiusKm,
+                                              @RequestParam(defaultValue = "1000") int limit) {
+        if (!validLatitude(lat) || !validLongitude(lon)) {
+            return ResponseEntity.badRequest().body("Invalid coordinates.");
+        }
+        if (!(radiusKm > 0) || radiusKm > MAX_RADIUS_KM) {
+            return ResponseEntity.badRequest().body("'radiusKm' must be greater than 0 and at most " + MAX_RADIUS_KM + ".");
+        }
+        if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            return ResponseEntity.badRequest().body("'limit' must be between 1 and " + MAX_SEARCH_RESULTS + ".");
+        }
+        if (!spatialIndex.isAvailable()) {
+            return spatialSearchUnavailable();
+        }
+        List<NearbyPosition> positions = spatialIndex.findNear(lat, lon, radiusKm, limit);
+        return ResponseEntity.ok(positions);
+    }
+
+    // The index only holds this instance's points, so an answer would silently miss publishers stored elsewhere
+    private static ResponseEntity<?> spatialSearchUnavailable() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body("Spatial search needs a single instance that stores every point; it is off on this deployment.");
+    }
+
+    private static boolean validLatitude(double latitude) {
+        return latitude >= -90.0 && latitude <= 90.0;
+    }
+
+    private static boolean validLongitude(double longitude) {
+        return longitude >= -180.0 && longitude <= 180.0;
+    }
+}
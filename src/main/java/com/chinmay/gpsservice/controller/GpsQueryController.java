@@ -1,13 +1,24 @@
 package com.chinmay.gpsservice.controller;
 
-import com.chinmay.gpsservice.entity.GpsRecord;
+import com.chinmay.gpsservice.dto.GpsRecordPage;
+import com.chinmay.gpsservice.dto.TrackPoint;
+import com.chinmay.gpsservice.dto.TrackPointsResponse;
+import com.chinmay.gpsservice.hotstore.HotTrackStore;
 import com.chinmay.gpsservice.service.GpsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @RestController
@@ -16,17 +27,28 @@ import java.util.List;
 @RequiredArgsConstructor
 public class GpsQueryController {
 
+    private static final int MAX_PAGE_SIZE = 5000;
+    private static final int MAX_TRACK_POINTS = 100000;
+
     private final GpsService gpsService;
+    private final ObjectMapper objectMapper;
+    private final HotTrackStore hotTrackStore;
 
     @GetMapping("/all")
-    public ResponseEntity<List<GpsRecord>> getAllGpsData() {
-        log.info("Query: Request to fetch all GPS data.");
+    public ResponseEntity<?> getAllGpsData(@RequestParam(required = false) String cursor,
+                                           @RequestParam(defaultValue = "500") int limit) {
+        log.info("Query: Request to fetch GPS data page (cursor={}, limit={}).", cursor, limit);
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body("'limit' must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
         try {
-            List<GpsRecord> records = gpsService.getAllGpsData();
-            if (records.isEmpty()) {
+            GpsRecordPage page = gpsService.getGpsDataPage(cursor, limit);
+            if (page.getItems().isEmpty() && cursor == null) {
                 return ResponseEntity.noContent().build();
             }
-            return ResponseEntity.ok(records);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             log.error("Query: Error fetching all GPS data: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
@@ -34,17 +56,81 @@ public class GpsQueryController {
     }
 
     @GetMapping("/{publisherId}")
-    public ResponseEntity<?> getGpsDataByPublisherId(@PathVariable String publisherId) {
-        log.info("Query: Request to fetch GPS data for publisherId: {}", publisherId);
+    public ResponseEntity<?> getGpsDataByPublisherId(@PathVariable String publisherId,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(defaultValue = "500") int limit) {
+        log.info("Query: Request to fetch GPS data page for publisherId: {} (cursor={}, limit={})", publisherId, cursor, limit);
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body("'limit' must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
         try {
-            List<GpsRecord> records = gpsService.getGpsDataByPublisherId(publisherId);
-            if (records.isEmpty()) {
+            GpsRecordPage page = gpsService.getGpsDataPageByPublisherId(publisherId, cursor, limit);
+            if (page.getItems().isEmpty() && cursor == null) {
                 return ResponseEntity.notFound().build();
             }
-            return ResponseEntity.ok(records);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             log.error("Query: Error fetching GPS data for publisher '{}': {}", publisherId, e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
         }
     }
+
+    // Points in [from, to), served from the in-memory hot store when it covers the range
+    @GetMapping("/{publisherId}/points")
+    public ResponseEntity<?> getTrackPoints(@PathVariable String publisherId,
+                                            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                            @RequestParam(defaultValue = "10000") int limit) {
+        if (from.isAfter(to)) {
+            return ResponseEntity.badRequest().body("'from' date cannot be after 'to' date.");
+        }
+        if (limit < 1 || limit > MAX_TRACK_POINTS) {
+            return ResponseEntity.badRequest().body("'limit' must be between 1 and " + MAX_TRACK_POINTS + ".");
+        }
+        try {
+            // Read one point past the limit to know whether the range was truncated
+            List<TrackPoint> points = new ArrayList<>();
+            boolean fromMemory = hotTrackStore.forEachPoint(publisherId, from, to, false, (epochMillis, latitude, longitude) -> {
+                if (points.size() <= limit) {
+                    points.add(new TrackPoint(HotTrackStore.fromEpochMillis(epochMillis), latitude, longitude));
+                }
+            });
+            List<TrackPoint> result = fromMemory ? points : gpsService.getTrackPoints(publisherId, from, to, limit + 1);
+            boolean truncated = result.size() > limit;
+            return ResponseEntity.ok(new TrackPointsResponse(publisherId, fromMemory ? "memory" : "database", truncated,
+                    truncated ? result.subList(0, limit) : result));
+        } catch (Exception e) {
+            log.error("Query: Error fetching track points for publisher '{}': {}", publisherId, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+        }
+    }
+
+    // NDJSON exports: one JSON record per line, written as rows come off the database cursor
+    @GetMapping(value = "/all/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllGpsData() {
+        log.info("Query: Request to stream all GPS data.");
+        return ResponseEntity.ok(ndjsonBody(null));
+    }
+
+    @GetMapping(value = "/{publisherId}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamGpsDataByPublisherId(@PathVariable String publisherId) {
+        log.info("Query: Request to stream GPS data for publisherId: {}", publisherId);
+        return ResponseEntity.ok(ndjsonBody(publisherId));
+    }
+
+    private StreamingResponseBody ndjsonBody(String publisherId) {
+        return outputStream -> {
+            long streamed = gpsService.streamGpsData(publisherId, record -> {
+                try {
+                    outputStream.write(objectMapper.writeValueAsBytes(record));
+                    outputStream.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e); // client went away; aborts the cursor
+                }
+            });
+            log.info("Query: Streamed {} GPS records (publisher={}).", streamed, publisherId);
+        };
+    }
 }
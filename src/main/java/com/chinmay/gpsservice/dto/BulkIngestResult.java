@@ -0,0 +1,22 @@
+package com.chinmay.gpsservice.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk upload.
+ * @param received Items read from the body.
+ * @param accepted Items confirmed by the broker.
+ * @param rejected Items that failed parsing or validation and were not published.
+ * @param failed Items the broker nacked, could not route, or did not confirm in time.
+ * @param errors One entry per item that was not accepted.
+ * @param abortedReason Set if the body could not be read to the end; items after the failure point were not seen.
+ */
+public record BulkIngestResult(int received, int accepted, int rejected, int failed,
+                               List<ItemError> errors, String abortedReason) {
+
+    /**
+     * @param index Zero-based position of the item in the request body.
+     */
+    public record ItemError(int index, String publisherId, String error) {
+    }
+}
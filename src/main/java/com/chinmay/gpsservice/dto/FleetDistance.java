@@ -0,0 +1,7 @@
+package com.chinmay.gpsservice.dto;
+
+/**
+ * One line of the fleet distance report.
+ */
+public record FleetDistance(String publisherId, double totalDistanceKm, long points) {
+}
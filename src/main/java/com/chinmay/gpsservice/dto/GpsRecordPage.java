@@ -0,0 +1,20 @@
+package com.chinmay.gpsservice.dto;
+
+import com.chinmay.gpsservice.entity.GpsRecord;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One keyset-paginated slice of GPS records.
+ * Pass nextCursor back as the 'cursor' request parameter to get the following page; it is null on the last page.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GpsRecordPage {
+    private List<GpsRecord> items;
+    private String nextCursor;
+}
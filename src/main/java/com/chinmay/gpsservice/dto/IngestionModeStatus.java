@@ -0,0 +1,17 @@
+package com.chinmay.gpsservice.dto;
+
+import com.chinmay.gpsservice.service.IngestionMode;
+import com.chinmay.gpsservice.service.IngestionModeRouter.Route;
+
+import java.util.Map;
+
+/**
+ * Current ingestion mode, the signals ADAPTIVE decides on, and how many requests took each path per mode.
+ */
+public record IngestionModeStatus(IngestionMode defaultMode,
+                                  boolean brokerAvailable,
+                                  long queueDepth,
+                                  int directWritesInFlight,
+                                  long brokerFailures,
+                                  Map<IngestionMode, Map<Route, Long>> routeCounts) {
+}
@@ -0,0 +1,9 @@
+package com.chinmay.gpsservice.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * The most recent position reported by a publisher.
+ */
+public record LastKnownPosition(String publisherId, LocalDateTime timestamp, double latitude, double longitude, Double height) {
+}
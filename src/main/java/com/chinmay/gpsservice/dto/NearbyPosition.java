@@ -0,0 +1,7 @@
+package com.chinmay.gpsservice.dto;
+
+/**
+ * A publisher's last known position together with its great-circle distance from a query point.
+ */
+public record NearbyPosition(LastKnownPosition position, double distanceKm) {
+}
@@ -0,0 +1,7 @@
+package com.chinmay.gpsservice.dto;
+
+/**
+ * RoutePoint tagged with its publisher, for the fleet-wide cursor that reads many routes in one pass.
+ */
+public record PublisherRoutePoint(String publisherId, double latitude, double longitude) {
+}
@@ -0,0 +1,8 @@
+package com.chinmay.gpsservice.dto;
+
+/**
+ * Minimal read-only projection of a GpsRecord (coordinates only) used by the route analytics.
+ * Built directly by JPQL constructor expressions, so no managed entity is ever created for it.
+ */
+public record RoutePoint(double latitude, double longitude) {
+}
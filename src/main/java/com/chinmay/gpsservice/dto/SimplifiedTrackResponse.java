@@ -0,0 +1,18 @@
+package com.chinmay.gpsservice.dto;
+
+import java.util.List;
+
+/**
+ * A publisher's track in [from, to), simplified for drawing.
+ * @param source "memory" if read from the hot store, "database" otherwise.
+ * @param sourcePoints Raw points in the range.
+ * @param truncated true if the range held more points than the server will simplify; the track ends early.
+ * @param maxErrorMeters Furthest any dropped point lies from the returned polyline.
+ */
+public record SimplifiedTrackResponse(String publisherId,
+                                      String source,
+                                      long sourcePoints,
+                                      boolean truncated,
+                                      double maxErrorMeters,
+                                      List<TrackPoint> points) {
+}
@@ -0,0 +1,16 @@
+package com.chinmay.gpsservice.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A dwell: the publisher stayed within the stop radius for at least the minimum stop duration.
+ * @param latitude Where the dwell started.
+ * @param open true if the publisher had not left yet when the data ended.
+ */
+public record Stop(LocalDateTime start,
+                   LocalDateTime end,
+                   double latitude,
+                   double longitude,
+                   long durationSeconds,
+                   boolean open) {
+}
@@ -0,0 +1,9 @@
+package com.chinmay.gpsservice.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only (timestamp, latitude, longitude) projection of a GpsRecord, built by JPQL constructor expressions.
+ */
+public record TrackPoint(LocalDateTime timestamp, double latitude, double longitude) {
+}
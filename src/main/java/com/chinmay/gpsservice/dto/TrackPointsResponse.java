@@ -0,0 +1,11 @@
+package com.chinmay.gpsservice.dto;
+
+import java.util.List;
+
+/**
+ * Points of one publisher in a time range.
+ * @param source "memory" if answered by the hot store, "database" otherwise.
+ * @param truncated true if the range held more points than were returned.
+ */
+public record TrackPointsResponse(String publisherId, String source, boolean truncated, List<TrackPoint> points) {
+}
@@ -0,0 +1,25 @@
+package com.chinmay.gpsservice.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A stretch of movement between two stops.
+ * @param idleSeconds Time inside the trip spent below the idle speed (traffic, short halts).
+ * @param averageSpeedKmh Distance over the whole duration, idle time included.
+ * @param open true if the data ended before the trip did (live trip, or cut by the query range).
+ */
+public record Trip(LocalDateTime start,
+                   LocalDateTime end,
+                   double startLatitude,
+                   double startLongitude,
+                   double endLatitude,
+                   double endLongitude,
+                   double distanceKm,
+                   long durationSeconds,
+                   long movingSeconds,
+                   long idleSeconds,
+                   double averageSpeedKmh,
+                   double maxSpeedKmh,
+                   int points,
+                   boolean open) {
+}
@@ -0,0 +1,10 @@
+package com.chinmay.gpsservice.dto;
+
+import java.util.List;
+
+/**
+ * Trips and stops of one publisher, in time order.
+ * @param source "memory" if answered by the hot store, "database" otherwise; "live" for the in-memory tracker.
+ */
+public record TripSegmentsResponse(String publisherId, String source, List<Trip> trips, List<Stop> stops) {
+}
@@ -0,0 +1,67 @@
+package com.chinmay.gpsservice.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pre-aggregated route distance of one publisher for one fixed time bucket [bucketStart, bucketStart + bucket size).
+ * A segment (previous point -> point) belongs to the bucket of its END point:
+ *  - internalDistanceKm: segments whose start point is in the same bucket
+ *  - inboundDistanceKm: the single segment coming from the last point before this bucket (at inboundFromTimestamp)
+ * Keeping the inbound segment separate lets a range query decide whether that segment starts inside the range.
+ */
+@Entity
+@Table(name = "gps_distance_buckets", uniqueConstraints = {
+        @UniqueConstraint(name = GpsDistanceBucket.UNIQUE_KEY_NAME, columnNames = {"publisherId", "bucket_start"})
+})
+@Data
+@NoArgsConstructor
+public class GpsDistanceBucket {
+
+    public static final String UNIQUE_KEY_NAME = "uk_bucket_publisher_start";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String publisherId;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(nullable = false)
+    private long pointCount;
+
+    @Column(nullable = false)
+    private double internalDistanceKm;
+
+    @Column(nullable = false)
+    private double inboundDistanceKm;
+
+    private LocalDateTime inboundFromTimestamp;
+
+    @Column(nullable = false)
+    private LocalDateTime firstTimestamp;
+
+    // Last known position inside this bucket, so the next in-order point can be folded in without reading raw rows
+    @Column(nullable = false)
+    private LocalDateTime lastTimestamp;
+
+    @Column(nullable = false)
+    private double lastLatitude;
+
+    @Column(nullable = false)
+    private double lastLongitude;
+
+    @Version
+    private long version;
+
+    public GpsDistanceBucket(String publisherId, LocalDateTime bucketStart) {
+        this.publisherId = publisherId;
+        this.bucketStart = bucketStart;
+    }
+}
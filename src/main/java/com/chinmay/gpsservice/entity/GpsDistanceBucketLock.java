@@ -0,0 +1,27 @@
+package com.chinmay.gpsservice.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One row per publisher, locked (SELECT ... FOR UPDATE) while that publisher's distance buckets are updated.
+ * Bucket maintenance reads raw points and neighbouring buckets before it writes, so @Version on the buckets alone
+ * cannot stop two consumers from each missing the other's point; the row lock makes them take turns instead.
+ */
+@Entity
+@Table(name = GpsDistanceBucketLock.TABLE_NAME)
+@Data
+@NoArgsConstructor
+public class GpsDistanceBucketLock {
+
+    public static final String TABLE_NAME = "gps_distance_bucket_locks";
+
+    @Id
+    @Column(length = 100)
+    private String publisherId;
+
+    public GpsDistanceBucketLock(String publisherId) {
+        this.publisherId = publisherId;
+    }
+}
@@ -15,8 +15,18 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 public class GpsRecord {
+
+    // Number of IDs reserved per round trip to the sequence table (pooled optimizer).
+    // Keep it >= hibernate.jdbc.batch_size so a full insert batch never waits on the sequence.
+    public static final int ID_ALLOCATION_SIZE = 1000;
+    public static final String ID_SEQUENCE_NAME = "gps_records_seq";
+
+    // IDENTITY would force Hibernate to insert row-by-row to read back the generated key,
+    // which silently disables JDBC batching. A pooled sequence hands out IDs in memory instead.
+    // MySQL has no native sequences, so Hibernate backs this with a one-row table of the same name.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "gps_record_id")
+    @SequenceGenerator(name = "gps_record_id", sequenceName = ID_SEQUENCE_NAME, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false, length = 100)
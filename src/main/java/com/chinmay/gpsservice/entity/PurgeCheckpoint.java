@@ -0,0 +1,46 @@
+package com.chinmay.gpsservice.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a chunked retention purge, committed together with every deleted chunk.
+ * If the service dies mid-purge, the next run continues after lastPurgedId instead of rescanning from the start.
+ */
+@Entity
+@Table(name = "gps_purge_checkpoints")
+@Data
+@NoArgsConstructor
+public class PurgeCheckpoint {
+
+    public static final String GPS_RECORDS = "gps_records";
+
+    // One row per purged table
+    @Id
+    @Column(length = 64)
+    private String tableName;
+
+    @Column(nullable = false)
+    private boolean running;
+
+    @Column(nullable = false)
+    private LocalDateTime cutoffTimestamp;
+
+    @Column(nullable = false)
+    private long lastPurgedId;
+
+    @Column(nullable = false)
+    private long rowsDeleted;
+
+    @Column(nullable = false)
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    public PurgeCheckpoint(String tableName) {
+        this.tableName = tableName;
+    }
+}
@@ -0,0 +1,204 @@
+package com.chinmay.gpsservice.hotstore;
+
+import com.chinmay.gpsservice.config.IngestTopology;
+import com.chinmay.gpsservice.dto.LastKnownPosition;
+import com.chinmay.gpsservice.entity.GpsRecord;
+import com.chinmay.gpsservice.realtime.LastKnownPositionStore;
+import com.chinmay.gpsservice.service.GpsIngestObserver;
+import com.chinmay.gpsservice.util.DistanceMode;
+import com.chinmay.gpsservice.util.HaversineUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hot tier for the last few hours of track points, fed by the ingest pipeline.
+ * Points live off-heap in columnar chunks (12 bytes each instead of a ~100+ byte entity), so analytics and
+ * track queries over recent ranges never touch MySQL. Reads that reach back further than a publisher's
+ * coverage return "not covered" and callers fall back to the repository.
+ * Coverage assumes this instance sees every write, so the store stays off unless IngestTopology says it does.
+ */
+@Component
+@Order(1) // before the analytics result cache drops entries, so a re-run query already sees the new points
+@Slf4j
+public class HotTrackStore implements GpsIngestObserver {
+
+    static final double COORDINATE_SCALE = 1e7; // fixed-point degrees, ~1 cm resolution
+
+    // Lower bound for coverage of publishers that have no rows in the database at all
+    private static final LocalDateTime EARLIEST_TIMESTAMP = LocalDateTime.of(1000, 1, 1, 0, 0);
+
+    @FunctionalInterface
+    public interface PointSink {
+        void accept(long epochMillis, double latitude, double longitude);
+    }
+
+    private final LastKnownPositionStore positionStore;
+    private final boolean enabled;
+    private final int retentionHours;
+    private final int chunkPoints;
+    private final long maxBytes;
+
+    private final ConcurrentHashMap<String, PublisherTrack> tracks = new ConcurrentHashMap<>();
+    private final AtomicLong allocatedBytes = new AtomicLong();
+    private volatile boolean ready;
+    // Newest database timestamp per publisher at startup; coverage may only begin after it. Null until start() took them.
+    private volatile Map<String, LocalDateTime> databaseWatermarks;
+
+    public HotTrackStore(LastKnownPositionStore positionStore, IngestTopology topology,
+                         @Value("${gps.hotstore.enabled:true}") boolean enabled,
+                         @Value("${gps.hotstore.retention-hours:6}") int retentionHours,
+                         @Value("${gps.hotstore.chunk-points:4096}") int chunkPoints,
+                         @Value("${gps.hotstore.max-bytes:268435456}") long maxBytes) {
+        if (chunkPoints < 1 || retentionHours < 1) {
+            throw new IllegalArgumentException("gps.hotstore.chunk-points and retention-hours must be positive.");
+        }
+        this.positionStore = positionStore;
+        this.enabled = enabled && topology.seesEveryWrite();
+        if (enabled && !this.enabled) {
+            log.info("HotStore: Disabled; other instances also store points (sharding or gps.deployment.single-node=false).");
+        }
+        this.retentionHours = retentionHours;
+        this.chunkPoints = chunkPoints;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Listeners start consuming before the application is ready. Points seen before this runs are not stored;
+     * the database watermarks taken here (the position store has already seen those points) make sure no
+     * publisher claims coverage for a range the hot tier might be missing.
+     * Points are accepted before the watermarks are taken, so none can slip in between; tracks created in
+     * that window take their watermark from the position store instead.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(2)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        ready = true;
+        Map<String, LocalDateTime> watermarks = new HashMap<>();
+        for (LastKnownPosition position : positionStore.snapshot()) {
+            watermarks.put(position.publisherId(), position.timestamp());
+        }
+        databaseWatermarks = watermarks;
+        log.info("HotStore: Accepting points ({} h retention, {} MB budget).", retentionHours, maxBytes >> 20);
+    }
+
+    @Override
+    public void onRecordsSaved(List<GpsRecord> records) {
+        if (!ready) {
+            return;
+        }
+        for (GpsRecord record : records) {
+            PublisherTrack track = tracks.computeIfAbsent(record.getPublisherId(), this::newTrack);
+            track.append(record.getTimestamp(), record.getLatitude(), record.getLongitude(),
+                    this::allocateChunk, this::releaseChunk);
+        }
+    }
+
+    /**
+     * Streams the publisher's points in [from, to) (or [from, to] when toInclusive) in timestamp order.
+     * @return false, without calling the sink, if the hot tier cannot answer the whole range.
+     */
+    public boolean forEachPoint(String publisherId, LocalDateTime from, LocalDateTime to, boolean toInclusive, PointSink sink) {
+        PublisherTrack track = tracks.get(publisherId);
+        return track != null && track.forEachPoint(from, to, toInclusive, sink);
+    }
+
+    /**
+     * Route distance over [from, to], or empty if the range is not fully held in memory.
+     */
+    public Optional<Double> calculateDistance(String publisherId, LocalDateTime from, LocalDateTime to) {
+        RouteBuffer route = new RouteBuffer();
+        if (!forEachPoint(publisherId, from, to, true, route)) {
+            return Optional.empty();
+        }
+        return Optional.of(HaversineUtil.totalDistance(route.latitudes, route.longitudes, route.count, DistanceMode.HAVERSINE));
+    }
+
+    @Scheduled(fixedDelayString = "${gps.hotstore.sweep-interval-ms:60000}")
+    public void evictExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(retentionHours);
+        int evicted = 0;
+        for (PublisherTrack track : tracks.values()) {
+            evicted += track.evictOlderThan(cutoff, this::releaseChunk);
+        }
+        if (evicted > 0) {
+            log.info("HotStore: Evicted {} chunks older than {}; {} MB off-heap in use.", evicted, cutoff, allocatedBytes.get() >> 20);
+        }
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes.get();
+    }
+
+    public int getPointCount(String publisherId) {
+        PublisherTrack track = tracks.get(publisherId);
+        return track == null ? 0 : track.pointCount();
+    }
+
+    private PublisherTrack newTrack(String publisherId) {
+        Map<String, LocalDateTime> watermarks = databaseWatermarks;
+        LocalDateTime watermark = watermarks != null
+                ? watermarks.get(publisherId)
+                // start() is still taking the watermarks; the position store already holds every dropped point (and this one)
+                : positionStore.get(publisherId).map(LastKnownPosition::timestamp).orElse(null);
+        return new PublisherTrack(watermark == null ? EARLIEST_TIMESTAMP : watermark.plusNanos(1));
+    }
+
+    private TrackChunk allocateChunk() {
+        long chunkBytes = (long) chunkPoints * TrackChunk.BYTES_PER_POINT;
+        if (allocatedBytes.addAndGet(chunkBytes) > maxBytes) {
+            allocatedBytes.addAndGet(-chunkBytes);
+            return null;
+        }
+        return new TrackChunk(chunkPoints);
+    }
+
+    // The direct buffer itself is freed by the GC once the chunk is unreachable
+    private void releaseChunk(TrackChunk chunk) {
+        allocatedBytes.addAndGet(-chunk.byteSize());
+    }
+
+    static long toEpochMillis(LocalDateTime timestamp) {
+        return timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    public static LocalDateTime fromEpochMillis(long epochMillis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochMillis, 1000),
+                (int) Math.floorMod(epochMillis, 1000) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    // Collects coordinates into primitive arrays for the bulk distance kernel
+    private static final class RouteBuffer implements PointSink {
+        private double[] latitudes = new double[256];
+        private double[] longitudes = new double[256];
+        private int count;
+
+        @Override
+        public void accept(long epochMillis, double latitude, double longitude) {
+            if (count == latitudes.length) {
+                latitudes = Arrays.copyOf(latitudes, count * 2);
+                longitudes = Arrays.copyOf(longitudes, count * 2);
+            }
+            latitudes[count] = latitude;
+            longitudes[count] = longitude;
+            count++;
+        }
+    }
+}
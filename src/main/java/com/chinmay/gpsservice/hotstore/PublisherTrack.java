@@ -0,0 +1,135 @@
+package com.chinmay.gpsservice.hotstore;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Recent points of one publisher, plus the coverage watermark that makes reads safe:
+ * every point with timestamp >= coveredFrom that has ever been ingested is in the chunks.
+ * Anything the track cannot hold (late points, sub-millisecond timestamps, evicted chunks,
+ * an exhausted memory budget) pushes coveredFrom past it instead.
+ */
+final class PublisherTrack {
+
+    private final ArrayDeque<TrackChunk> chunks = new ArrayDeque<>();
+    private LocalDateTime coveredFrom;
+    private LocalDateTime lastTimestamp; // newest timestamp seen, stored or not
+
+    PublisherTrack(LocalDateTime coveredFrom) {
+        this.coveredFrom = coveredFrom;
+    }
+
+    /**
+     * @param allocator Returns a new chunk, or null if the memory budget is exhausted.
+     * @param releaser Called with every chunk the track lets go of.
+     */
+    synchronized void append(LocalDateTime timestamp, double latitude, double longitude,
+                             Supplier<TrackChunk> allocator, Consumer<TrackChunk> releaser) {
+        if (lastTimestamp != null && timestamp.isBefore(lastTimestamp)) {
+            raiseCoverage(timestamp); // late point: ranges reaching back to it are no longer complete here
+            return;
+        }
+        lastTimestamp = timestamp;
+        if (timestamp.getNano() % 1_000_000 != 0) {
+            raiseCoverage(timestamp); // chunks store whole milliseconds
+            return;
+        }
+        if (timestamp.isBefore(coveredFrom)) {
+            return;
+        }
+
+        long epochMillis = HotTrackStore.toEpochMillis(timestamp);
+        int latitudeE7 = (int) Math.round(latitude * HotTrackStore.COORDINATE_SCALE);
+        int longitudeE7 = (int) Math.round(longitude * HotTrackStore.COORDINATE_SCALE);
+        TrackChunk tail = chunks.peekLast();
+        if (tail != null && tail.tryAppend(epochMillis, latitudeE7, longitudeE7)) {
+            return;
+        }
+        TrackChunk chunk = allocator.get();
+        if (chunk == null) {
+            releaseAll(releaser);
+            raiseCoverage(timestamp);
+            return;
+        }
+        chunk.tryAppend(epochMillis, latitudeE7, longitudeE7);
+        chunks.addLast(chunk);
+    }
+
+    /**
+     * Streams the stored points in [from, to) or [from, to] in timestamp order.
+     * @return false (without calling the sink) if the track cannot answer the whole range.
+     */
+    synchronized boolean forEachPoint(LocalDateTime from, LocalDateTime to, boolean toInclusive, HotTrackStore.PointSink sink) {
+        if (from.isBefore(coveredFrom)) {
+            return false;
+        }
+        long fromMillis = ceilMillis(from);
+        long toMillisExclusive = toInclusive ? HotTrackStore.toEpochMillis(to) + 1 : ceilMillis(to);
+        for (TrackChunk chunk : chunks) {
+            if (chunk.lastTimestamp() < fromMillis) {
+                continue;
+            }
+            if (chunk.firstTimestamp() >= toMillisExclusive) {
+                break;
+            }
+            for (int i = chunk.lowerBound(fromMillis); i < chunk.size(); i++) {
+                long epochMillis = chunk.timestampAt(i);
+                if (epochMillis >= toMillisExclusive) {
+                    return true;
+                }
+                sink.accept(epochMillis, chunk.latitudeE7At(i) / HotTrackStore.COORDINATE_SCALE,
+                        chunk.longitudeE7At(i) / HotTrackStore.COORDINATE_SCALE);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Drops chunks whose newest point is older than the cutoff or no longer covered.
+     * @return Number of chunks released.
+     */
+    synchronized int evictOlderThan(LocalDateTime cutoff, Consumer<TrackChunk> releaser) {
+        long cutoffMillis = Math.max(HotTrackStore.toEpochMillis(cutoff), ceilMillis(coveredFrom));
+        int evicted = 0;
+        Iterator<TrackChunk> iterator = chunks.iterator();
+        while (iterator.hasNext()) {
+            TrackChunk chunk = iterator.next();
+            if (chunk.lastTimestamp() >= cutoffMillis) {
+                break;
+            }
+            iterator.remove();
+            raiseCoverage(HotTrackStore.fromEpochMillis(chunk.lastTimestamp()));
+            releaser.accept(chunk);
+            evicted++;
+        }
+        return evicted;
+    }
+
+    synchronized int pointCount() {
+        int points = 0;
+        for (TrackChunk chunk : chunks) {
+            points += chunk.size();
+        }
+        return points;
+    }
+
+    private void releaseAll(Consumer<TrackChunk> releaser) {
+        chunks.forEach(releaser);
+        chunks.clear();
+    }
+
+    private void raiseCoverage(LocalDateTime timestamp) {
+        LocalDateTime justAfter = timestamp.plusNanos(1);
+        if (justAfter.isAfter(coveredFrom)) {
+            coveredFrom = justAfter;
+        }
+    }
+
+    private static long ceilMillis(LocalDateTime timestamp) {
+        long millis = HotTrackStore.toEpochMillis(timestamp);
+        return timestamp.getNano() % 1_000_000 == 0 ? millis : millis + 1;
+    }
+}
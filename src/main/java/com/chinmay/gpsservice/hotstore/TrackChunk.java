@@ -0,0 +1,89 @@
+package com.chinmay.gpsservice.hotstore;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Fixed-capacity columnar block of one publisher's points in a direct (off-heap) buffer, 12 bytes per point:
+ * [timestamp deltas: int ms since baseMillis][latitudes: int 1e-7 deg][longitudes: int 1e-7 deg].
+ * Points are appended in timestamp order. Not thread-safe; guarded by the owning PublisherTrack.
+ */
+final class TrackChunk {
+
+    static final int BYTES_PER_POINT = 12;
+
+    private final ByteBuffer buffer;
+    private final int capacity;
+    private long baseMillis;
+    private int count;
+
+    TrackChunk(int capacity) {
+        this.capacity = capacity;
+        this.buffer = ByteBuffer.allocateDirect(capacity * BYTES_PER_POINT);
+    }
+
+    /**
+     * @return false if the chunk is full or the timestamp is too far from the chunk's base to fit an int delta.
+     */
+    boolean tryAppend(long epochMillis, int latitudeE7, int longitudeE7) {
+        if (count == capacity) {
+            return false;
+        }
+        if (count == 0) {
+            baseMillis = epochMillis;
+        }
+        long delta = epochMillis - baseMillis;
+        if (delta > Integer.MAX_VALUE) {
+            return false;
+        }
+        buffer.putInt(count * 4, (int) delta);
+        buffer.putInt((capacity + count) * 4, latitudeE7);
+        buffer.putInt((2 * capacity + count) * 4, longitudeE7);
+        count++;
+        return true;
+    }
+
+    int size() {
+        return count;
+    }
+
+    long timestampAt(int index) {
+        return baseMillis + buffer.getInt(index * 4);
+    }
+
+    int latitudeE7At(int index) {
+        return buffer.getInt((capacity + index) * 4);
+    }
+
+    int longitudeE7At(int index) {
+        return buffer.getInt((2 * capacity + index) * 4);
+    }
+
+    long firstTimestamp() {
+        return baseMillis;
+    }
+
+    long lastTimestamp() {
+        return timestampAt(count - 1);
+    }
+
+    /**
+     * @return Index of the first point with timestamp >= epochMillis, or size() if there is none.
+     */
+    int lowerBound(long epochMillis) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestampAt(mid) < epochMillis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    int byteSize() {
+        return capacity * BYTES_PER_POINT;
+    }
+}
@@ -0,0 +1,103 @@
+package com.chinmay.gpsservice.listener;
+
+import com.chinmay.gpsservice.config.RabbitMQConfig;
+import com.chinmay.gpsservice.dto.ExtendedGpsInput;
+import com.chinmay.gpsservice.entity.GpsRecord;
+import com.chinmay.gpsservice.logging.SampledIngestLogger;
+import com.chinmay.gpsservice.messaging.GpsMessageDecoder;
+import com.chinmay.gpsservice.metrics.GpsMetrics;
+import com.chinmay.gpsservice.service.GpsService;
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Batch-consuming alternative to GpsDataMessageListener (enabled with gps.listener.mode=batch).
+ * Drains up to gps.listener.batch.size messages, maps them one by one, and stores every
+ * valid record in a single transaction with one JDBC batch insert.
+ * Every delivery is acked/nacked individually, so a bad record is dead-lettered to
+ * gps-data-dlq on its own while the rest of the batch is committed.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "gps.listener.mode", havingValue = "batch")
+public class GpsDataBatchMessageListener {
+
+    private final GpsService gpsService;
+    private final GpsMessageDecoder messageDecoder;
+    private final MeterRegistry meterRegistry;
+    private final SampledIngestLogger ingestLogger;
+
+    @RabbitListener(queues = RabbitMQConfig.GPS_DATA_QUEUE_NAME,
+            containerFactory = RabbitMQConfig.BATCH_LISTENER_CONTAINER_FACTORY)
+    public void handleIncomingGpsBatch(List<Message> messages, Channel channel) throws IOException {
+        log.debug("Batch Listener: Received {} messages from queue '{}'.", messages.size(), RabbitMQConfig.GPS_DATA_QUEUE_NAME);
+
+        // 1. Deserialize and map each message on its own. Failures here are rejected straight to the DLQ.
+        List<GpsRecord> records = new ArrayList<>(messages.size());
+        List<Long> deliveryTags = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            long deliveryTag = message.getMessageProperties().getDeliveryTag();
+            try {
+                records.add(toGpsRecord(message));
+                deliveryTags.add(deliveryTag);
+            } catch (Exception e) {
+                GpsMetrics.listenerRejected(meterRegistry, "invalid").increment();
+                ingestLogger.failed(SampledIngestLogger.Stage.BATCH_LISTENER, "invalid", null, e,
+                        () -> GpsMessageDecoder.describe(message));
+                channel.basicNack(deliveryTag, false, false);
+            }
+        }
+
+        if (records.isEmpty()) {
+            return;
+        }
+
+        // 2. Persist the whole batch in one transaction
+        try {
+            gpsService.saveGpsRecords(records);
+            for (long deliveryTag : deliveryTags) {
+                channel.basicAck(deliveryTag, false);
+            }
+            for (GpsRecord record : records) {
+                ingestLogger.stored(SampledIngestLogger.Stage.BATCH_LISTENER, record.getPublisherId());
+            }
+            return;
+        } catch (Exception e) {
+            log.warn("Batch Listener: Batch insert of {} records failed ({}). Retrying records individually.",
+                    records.size(), e.getMessage());
+        }
+
+        // 3. The batch was rolled back (and its ids cleared), so isolate the offending record(s) by saving one at a time
+        for (int i = 0; i < records.size(); i++) {
+            try {
+                gpsService.saveGpsRecords(List.of(records.get(i)));
+                channel.basicAck(deliveryTags.get(i), false);
+                ingestLogger.stored(SampledIngestLogger.Stage.BATCH_LISTENER, records.get(i).getPublisherId());
+            } catch (Exception e) {
+                GpsMetrics.listenerRejected(meterRegistry, "error").increment();
+                ingestLogger.failed(SampledIngestLogger.Stage.BATCH_LISTENER, "error", records.get(i).getPublisherId(), e, null);
+                channel.basicNack(deliveryTags.get(i), false, false);
+            }
+        }
+    }
+
+    private GpsRecord toGpsRecord(Message message) throws IOException {
+        ExtendedGpsInput gpsInput = messageDecoder.decode(message);
+
+        if ("CRASH-TEST".equals(gpsInput.getPublisherId())) {
+            throw new RuntimeException("Simulated Database Timeout Error!");
+        }
+        return gpsService.mapToGpsRecord(gpsInput);
+    }
+}
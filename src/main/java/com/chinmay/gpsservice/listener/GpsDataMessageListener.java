@@ -2,59 +2,68 @@ package com.chinmay.gpsservice.listener; // New package for listeners
 
 import com.chinmay.gpsservice.dto.ExtendedGpsInput;    // Your dto
 import com.chinmay.gpsservice.config.RabbitMQConfig; // Your RabbitMQ constants
+import com.chinmay.gpsservice.logging.SampledIngestLogger;
+import com.chinmay.gpsservice.messaging.GpsMessageDecoder; // JSON or binary, by content type
+import com.chinmay.gpsservice.metrics.GpsMetrics;
 import com.chinmay.gpsservice.service.GpsService;   // Your existing service
-import com.fasterxml.jackson.databind.ObjectMapper;  // For JSON deserialization
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener; // Key annotation
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 @Component // Marks this as a Spring-managed component so @RabbitListener is detected
+@ConditionalOnProperty(name = "gps.listener.mode", havingValue = "single", matchIfMissing = true)
 @Slf4j
 public class GpsDataMessageListener {
 
     private final GpsService gpsService;
-    private final ObjectMapper objectMapper;
+    private final GpsMessageDecoder messageDecoder;
+    private final MeterRegistry meterRegistry;
+    private final SampledIngestLogger ingestLogger;
 
     @Autowired
-    public GpsDataMessageListener(GpsService gpsService, ObjectMapper objectMapper) {
+    public GpsDataMessageListener(GpsService gpsService, GpsMessageDecoder messageDecoder, MeterRegistry meterRegistry,
+                                  SampledIngestLogger ingestLogger) {
         this.gpsService = gpsService;
-        this.objectMapper = objectMapper;
+        this.messageDecoder = messageDecoder;
+        this.meterRegistry = meterRegistry;
+        this.ingestLogger = ingestLogger;
     }
 
     @RabbitListener(queues = RabbitMQConfig.GPS_DATA_QUEUE_NAME)
-    public void handleIncomingGpsData(String messagePayload) { // Receives the message body as a String
-        log.info("Listener: Received message from queue '{}'. Payload='{}'",
-                RabbitMQConfig.GPS_DATA_QUEUE_NAME, messagePayload);
-
+    public void handleIncomingGpsData(Message message) { // Raw message, so the body can be decoded by content type
+        // Per-message logging goes through the sampled ingest logger; the payload is rendered only for logged failures
+        log.debug("Listener: Received message from queue '{}'.", RabbitMQConfig.GPS_DATA_QUEUE_NAME);
+        String publisherId = null;
         try {
-            ExtendedGpsInput gpsInput = objectMapper.readValue(messagePayload, ExtendedGpsInput.class);
+            ExtendedGpsInput gpsInput = messageDecoder.decode(message);
+            publisherId = gpsInput.getPublisherId();
 
-            if (gpsInput.getPublisherId().equals("CRASH-TEST")) {
+            if (publisherId.equals("CRASH-TEST")) {
                 throw new RuntimeException("Simulated Database Timeout Error!");
             }
 
-            log.info("Listener: Successfully deserialized message for publisher '{}'. Attempting to save data.",
-                    gpsInput.getPublisherId());
-
             gpsService.saveGpsData(gpsInput); // This will go through your service's validation and DB save
-
-            log.info("Listener: Successfully processed and saved GPS data from queue for publisher '{}'.",
-                    gpsInput.getPublisherId());
+            ingestLogger.stored(SampledIngestLogger.Stage.LISTENER, publisherId);
 
         } catch (IllegalArgumentException e) {
-            log.error("Listener: Validation error while processing GPS data from queue. Message Payload='{}'. Error: {}",
-                    messagePayload, e.getMessage(), e);
+            reject("validation", publisherId, e, message);
             throw new AmqpRejectAndDontRequeueException("Validation failed: " + e.getMessage()); // Example for DLQ
         } catch (com.fasterxml.jackson.core.JsonProcessingException e) {
-            log.error("Listener: Error deserializing message from queue (malformed JSON). Message Payload='{}'. Error: {}",
-                    messagePayload, e.getMessage(), e);
+            reject("malformed", publisherId, e, message);
             throw new AmqpRejectAndDontRequeueException("Malformed JSON message", e);
         } catch (Exception e) {
-            log.error("Listener: Unexpected error processing GPS data message from queue. Message Payload='{}'. Error: {}",
-                    messagePayload, e.getMessage(), e);
+            reject("error", publisherId, e, message);
             throw new AmqpRejectAndDontRequeueException("Unexpected system error", e);
         }
     }
-}
\ No newline at end of file
+
+    private void reject(String reason, String publisherId, Exception e, Message message) {
+        GpsMetrics.listenerRejected(meterRegistry, reason).increment();
+        ingestLogger.failed(SampledIngestLogger.Stage.LISTENER, reason, publisherId, e, () -> GpsMessageDecoder.describe(message));
+    }
+}
@@ -0,0 +1,84 @@
+package com.chinmay.gpsservice.listener;
+
+import com.chinmay.gpsservice.config.RabbitMQConfig;
+import com.chinmay.gpsservice.dto.ExtendedGpsInput;
+import com.chinmay.gpsservice.entity.GpsRecord;
+import com.chinmay.gpsservice.logging.SampledIngestLogger;
+import com.chinmay.gpsservice.messaging.GpsMessageDecoder;
+import com.chinmay.gpsservice.metrics.GpsMetrics;
+import com.chinmay.gpsservice.service.GpsService;
+import com.chinmay.gpsservice.service.GpsWriteBehindWriter;
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Write-behind alternative to GpsDataMessageListener (enabled with gps.listener.mode=write-behind).
+ * Maps each message and hands it to GpsWriteBehindWriter without waiting for the database; the delivery is acked
+ * by the writer thread once the flush holding it has committed. Bad messages are dead-lettered right away, and
+ * messages the buffer cannot take (full for too long, or shutting down) go back to the queue.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "gps.listener.mode", havingValue = "write-behind")
+public class GpsDataWriteBehindListener {
+
+    private final GpsService gpsService;
+    private final GpsMessageDecoder messageDecoder;
+    private final GpsWriteBehindWriter writer;
+    private final MeterRegistry meterRegistry;
+    private final SampledIngestLogger ingestLogger;
+
+    @RabbitListener(queues = RabbitMQConfig.GPS_DATA_QUEUE_NAME,
+            containerFactory = RabbitMQConfig.WRITE_BEHIND_LISTENER_CONTAINER_FACTORY)
+    public void handleIncomingGpsData(Message message, Channel channel) throws IOException {
+        long deliveryTag = message.getMessageProperties().getDeliveryTag();
+        GpsRecord record;
+        try {
+            record = toGpsRecord(message);
+        } catch (Exception e) {
+            GpsMetrics.listenerRejected(meterRegistry, "invalid").increment();
+            ingestLogger.failed(SampledIngestLogger.Stage.WRITE_BEHIND, "invalid", null, e, () -> GpsMessageDecoder.describe(message));
+            channel.basicNack(deliveryTag, false, false);
+            return;
+        }
+
+        String publisherId = record.getPublisherId();
+        boolean queued = writer.submit(record, failure -> {
+            try {
+                if (failure == null) {
+                    channel.basicAck(deliveryTag, false);
+                    ingestLogger.stored(SampledIngestLogger.Stage.WRITE_BEHIND, publisherId);
+                } else {
+                    GpsMetrics.listenerRejected(meterRegistry, "error").increment();
+                    ingestLogger.failed(SampledIngestLogger.Stage.WRITE_BEHIND, "error", publisherId, failure, null);
+                    channel.basicNack(deliveryTag, false, false);
+                }
+            } catch (IOException e) {
+                // Channel gone (e.g. connection lost): the broker redelivers the message
+                log.warn("Write-Behind Listener: Could not settle delivery {}: {}", deliveryTag, e.getMessage());
+            }
+        });
+        if (!queued) {
+            GpsMetrics.listenerRejected(meterRegistry, "buffer_full").increment();
+            channel.basicNack(deliveryTag, false, true);
+        }
+    }
+
+    private GpsRecord toGpsRecord(Message message) throws IOException {
+        ExtendedGpsInput gpsInput = messageDecoder.decode(message);
+
+        if ("CRASH-TEST".equals(gpsInput.getPublisherId())) {
+            throw new RuntimeException("Simulated Database Timeout Error!");
+        }
+        return gpsService.mapToGpsRecord(gpsInput);
+    }
+}
@@ -1,17 +1,24 @@
 package com.chinmay.gpsservice.listener; // Or your listener package
 
 import com.chinmay.gpsservice.config.RabbitMQConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.core.Message; // Import this to get headers
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
 import java.util.Map;
 
 @Component
 @Slf4j
+@RequiredArgsConstructor
 public class GpsDeadLetterQueueListener {
 
+    private final MeterRegistry meterRegistry;
+
     @RabbitListener(queues = RabbitMQConfig.GPS_DLQ_NAME)
     public void handleDeadLetter(Message failedMessage) { // Receive the raw message to inspect headers
         String messageBody = new String(failedMessage.getBody());
@@ -25,10 +32,26 @@ public class GpsDeadLetterQueueListener {
             // The x-death header is an array of objects, each describing a dead-lettering event.
             // It can tell you the original queue, exchange, reason, and count.
         }
+        countDeadLetter(failedMessage.getMessageProperties().getXDeathHeader());
 
         // TODO: Implement strategy for these failed messages:
         // 1. Log for manual inspection/debugging.
         // 2. Send an alert (e.g. email, Slack).
         // 3. Store them in a separate "failed messages" database table for later analysis.
     }
+
+    // gps.dlq.messages, by the broker's reason (rejected, expired, maxlen, delivery_limit) and source queue
+    private void countDeadLetter(List<Map<String, ?>> xDeath) {
+        Map<String, ?> latest = xDeath == null || xDeath.isEmpty() ? Map.of() : xDeath.get(0); // most recent first
+        Counter.builder("gps.dlq.messages")
+                .description("Dead-lettered GPS messages")
+                .tag("reason", tagValue(latest.get("reason")))
+                .tag("queue", tagValue(latest.get("queue")))
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static String tagValue(Object value) {
+        return value == null ? "unknown" : value.toString();
+    }
 }
@@ -0,0 +1,152 @@
+package com.chinmay.gpsservice.logging;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Logging for the per-message ingest path, where a log line per point would cost more than storing it.
+ * <ul>
+ *   <li>Every event is only counted; a periodic summary line per stage reports the counts and top failure reasons.</li>
+ *   <li>A stored point is logged at most once per publisher per gps.logging.ingest.sample-interval-ms.</li>
+ *   <li>Failures are always counted, but logged (with their payload) at most
+ *       gps.logging.ingest.max-failures-per-second times per second; the summary reports how many were suppressed.</li>
+ * </ul>
+ * Lines are key=value so they can be parsed, and payloads are only rendered for lines actually written.
+ */
+@Component
+@Slf4j
+public class SampledIngestLogger {
+
+    public enum Stage {HTTP, LISTENER, BATCH_LISTENER, WRITE_BEHIND}
+
+    private static final int MAX_REASONS = 20; // distinct failure reasons tracked per summary window
+
+    private final LongSupplier clock;
+    private final long sampleIntervalMs;
+    private final int maxFailuresPerSecond;
+
+    private final Map<Stage, StageCounts> counts = new EnumMap<>(Stage.class);
+    private final ConcurrentHashMap<String, Long> lastSampled = new ConcurrentHashMap<>();
+    private final AtomicLong failureWindowStart = new AtomicLong();
+    private final AtomicLong failuresInWindow = new AtomicLong();
+    private final LongAdder suppressedFailures = new LongAdder();
+
+    private static final class StageCounts {
+        final LongAdder stored = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final ConcurrentHashMap<String, LongAdder> failureReasons = new ConcurrentHashMap<>();
+    }
+
+    @Autowired
+    public SampledIngestLogger(@Value("${gps.logging.ingest.sample-interval-ms:60000}") long sampleIntervalMs,
+                               @Value("${gps.logging.ingest.max-failures-per-second:10}") int maxFailuresPerSecond) {
+        this(sampleIntervalMs, maxFailuresPerSecond, System::currentTimeMillis);
+    }
+
+    SampledIngestLogger(long sampleIntervalMs, int maxFailuresPerSecond, LongSupplier clock) {
+        this.sampleIntervalMs = sampleIntervalMs;
+        this.maxFailuresPerSecond = maxFailuresPerSecond;
+        this.clock = clock;
+        for (Stage stage : Stage.values()) {
+            counts.put(stage, new StageCounts());
+        }
+    }
+
+    /**
+     * A point from publisherId was stored (or, for HTTP, accepted).
+     */
+    public void stored(Stage stage, String publisherId) {
+        counts.get(stage).stored.increment();
+        if (!log.isInfoEnabled() || publisherId == null) {
+            return;
+        }
+        long now = clock.getAsLong();
+        Long previous = lastSampled.get(publisherId);
+        if (previous != null && now - previous < sampleIntervalMs) {
+            return;
+        }
+        // Only one thread wins the slot for this window
+        boolean won = previous == null
+                ? lastSampled.putIfAbsent(publisherId, now) == null
+                : lastSampled.replace(publisherId, previous, now);
+        if (won) {
+            log.info("ingest.sample stage={} publisherId={}", stage, publisherId);
+        }
+    }
+
+    /**
+     * A point could not be stored.
+     * @param reason Short, low-cardinality reason (e.g. "validation", "malformed"); used to group failures.
+     * @param payload Rendered only if this failure is actually logged.
+     */
+    public void failed(Stage stage, String reason, String publisherId, Throwable error, Supplier<String> payload) {
+        StageCounts stageCounts = counts.get(stage);
+        stageCounts.failed.increment();
+        // Counted inside compute, so logSummary's remove never races an increment into a removed counter
+        stageCounts.failureReasons.compute(reason, (key, count) -> {
+            if (count == null) {
+                if (stageCounts.failureReasons.size() >= MAX_REASONS) {
+                    return null;
+                }
+                count = new LongAdder();
+            }
+            count.increment();
+            return count;
+        });
+
+        if (!tryAcquireFailureSlot()) {
+            suppressedFailures.increment();
+            return;
+        }
+        log.warn("ingest.failure stage={} reason={} publisherId={} error=\"{}\" payload={}",
+                stage, reason, publisherId, error != null ? error.getMessage() : null,
+                payload != null ? payload.get() : null, log.isDebugEnabled() ? error : null);
+    }
+
+    // At most maxFailuresPerSecond per wall-clock second
+    private boolean tryAcquireFailureSlot() {
+        long second = clock.getAsLong() / 1000;
+        long windowStart = failureWindowStart.get();
+        if (second != windowStart && failureWindowStart.compareAndSet(windowStart, second)) {
+            failuresInWindow.set(0);
+        }
+        return failuresInWindow.incrementAndGet() <= maxFailuresPerSecond;
+    }
+
+    @Scheduled(fixedDelayString = "${gps.logging.ingest.summary-interval-ms:60000}")
+    public void logSummary() {
+        for (Map.Entry<Stage, StageCounts> entry : counts.entrySet()) {
+            StageCounts stageCounts = entry.getValue();
+            long stored = stageCounts.stored.sumThenReset();
+            long failed = stageCounts.failed.sumThenReset();
+            if (stored == 0 && failed == 0) {
+                continue;
+            }
+            StringBuilder reasons = new StringBuilder();
+            for (String reason : stageCounts.failureReasons.keySet()) {
+                LongAdder count = stageCounts.failureReasons.remove(reason);
+                long reasonTotal = count == null ? 0 : count.sumThenReset();
+                if (reasonTotal > 0) {
+                    reasons.append(reasons.isEmpty() ? "" : ",").append(reason).append(':').append(reasonTotal);
+                }
+            }
+            log.info("ingest.summary stage={} stored={} failed={} reasons=[{}]", entry.getKey(), stored, failed, reasons);
+        }
+        long suppressed = suppressedFailures.sumThenReset();
+        if (suppressed > 0) {
+            log.warn("ingest.summary suppressedFailureLogs={}", suppressed);
+        }
+        lastSampled.clear(); // keeps the sampling map bounded by the publishers active in one window
+    }
+}
@@ -0,0 +1,94 @@
+package com.chinmay.gpsservice.messaging;
+
+import com.chinmay.gpsservice.dto.ExtendedGpsInput;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking front of GpsMessagePublisher for the request path. Messages are handed to a small publisher pool,
+ * and the returned future completes only once the broker has confirmed the message, so the servlet thread is
+ * released immediately but the client still learns whether the point was accepted.
+ * At most gps.ingest.async.max-outstanding messages may be queued or awaiting a confirm; beyond that
+ * publish() fails fast with RejectedExecutionException instead of buffering without bound. A message holds its
+ * slot until it has left the pool's queue and its confirm has settled (or timed out), so the limit covers both.
+ */
+@Component
+@Slf4j
+public class AsyncGpsPublisher {
+
+    private final GpsMessagePublisher gpsMessagePublisher;
+    private final ExecutorService publisherPool;
+    private final Semaphore outstanding;
+    private final int maxOutstanding;
+    private final long confirmTimeoutMs;
+
+    public AsyncGpsPublisher(GpsMessagePublisher gpsMessagePublisher,
+                             @Value("${gps.ingest.async.publisher-threads:2}") int publisherThreads,
+                             @Value("${gps.ingest.async.max-outstanding:10000}") int maxOutstanding,
+                             @Value("${gps.ingest.async.confirm-timeout-ms:5000}") long confirmTimeoutMs) {
+        this.gpsMessagePublisher = gpsMessagePublisher;
+        // The queue can never hold more than the permits allow; its bound only backs up the semaphore
+        this.publisherPool = new ThreadPoolExecutor(publisherThreads, publisherThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxOutstanding), runnable -> {
+            Thread thread = new Thread(runnable, "gps-publisher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.outstanding = new Semaphore(maxOutstanding);
+        this.maxOutstanding = maxOutstanding;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+    }
+
+    /**
+     * @param wireFormat null for the configured default.
+     * @return Completes when the broker confirms the message. Completes exceptionally with
+     * RejectedExecutionException if the outbound buffer is full, TimeoutException if no confirm arrives within
+     * gps.ingest.async.confirm-timeout-ms of sending (the message may still be delivered), or AmqpException on a nack.
+     */
+    public CompletableFuture<Void> publish(ExtendedGpsInput gpsInput, WireFormat wireFormat) {
+        if (!outstanding.tryAcquire()) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException(
+                    "Outbound buffer full (" + maxOutstanding + " messages awaiting the broker)."));
+        }
+        CompletableFuture<Void> confirmed;
+        try {
+            confirmed = CompletableFuture
+                    .supplyAsync(() -> {
+                        try {
+                            return gpsMessagePublisher.publishConfirmed(gpsInput, wireFormat);
+                        } catch (Exception e) {
+                            throw new IllegalStateException("Could not publish GPS message: " + e.getMessage(), e);
+                        }
+                    }, publisherPool)
+                    // The confirm clock starts once the message is sent, so the permit is not released while it is still queued
+                    .thenCompose(confirm -> confirm.orTimeout(confirmTimeoutMs, TimeUnit.MILLISECONDS));
+        } catch (RejectedExecutionException e) { // pool shut down (or queue full, which the permits rule out)
+            outstanding.release();
+            return CompletableFuture.failedFuture(e);
+        }
+        confirmed.whenComplete((ignored, error) -> outstanding.release());
+        return confirmed;
+    }
+
+    public int getOutstanding() {
+        return maxOutstanding - outstanding.availablePermits();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        publisherPool.shutdown();
+        if (!publisherPool.awaitTermination(confirmTimeoutMs, TimeUnit.MILLISECONDS)) {
+            log.warn("Async Publisher: {} messages still unpublished at shutdown.", getOutstanding());
+        }
+    }
+}
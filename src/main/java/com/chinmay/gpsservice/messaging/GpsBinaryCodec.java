@@ -0,0 +1,125 @@
+package com.chinmay.gpsservice.messaging;
+
+import com.chinmay.gpsservice.dto.ExtendedGpsInput;
+import com.chinmay.gpsservice.dto.GpsData;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+
+/**
+ * Compact binary encoding of ExtendedGpsInput (content type application/x-gps-binary-v1), ~30 bytes per message:
+ * <pre>
+ * byte    version (1)
+ * byte    flags (bit 0: height present)
+ * varint  publisherId length, then UTF-8 bytes
+ * float32 latitude, float32 longitude, [float32 height]   (the same precision as the Float fields of GpsData)
+ * varlong zigzag epoch seconds of the timestamp (read as UTC), varint nanos
+ * </pre>
+ */
+public final class GpsBinaryCodec {
+
+    public static final String CONTENT_TYPE = "application/x-gps-binary-v1";
+
+    private static final byte VERSION = 1;
+    private static final int FLAG_HEIGHT = 1;
+
+    private GpsBinaryCodec() {
+    }
+
+    /**
+     * @return The encoded message, or empty if it cannot be represented (missing fields, or a timestamp that
+     * does not parse as an ISO local date-time); such messages are sent as JSON so the listener reports them as usual.
+     */
+    public static Optional<byte[]> encode(ExtendedGpsInput gpsInput) {
+        GpsData data = gpsInput.getGpsData();
+        if (gpsInput.getPublisherId() == null || data == null || data.getLatitude() == null
+                || data.getLongitude() == null || data.getTimeStamp() == null) {
+            return Optional.empty();
+        }
+        LocalDateTime timestamp;
+        try {
+            timestamp = LocalDateTime.parse(data.getTimeStamp());
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+
+        byte[] publisherId = gpsInput.getPublisherId().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(2 + 5 + publisherId.length + 12 + 10 + 5);
+        buffer.put(VERSION);
+        buffer.put((byte) (data.getHeight() != null ? FLAG_HEIGHT : 0));
+        putVarLong(buffer, publisherId.length);
+        buffer.put(publisherId);
+        buffer.putFloat(data.getLatitude());
+        buffer.putFloat(data.getLongitude());
+        if (data.getHeight() != null) {
+            buffer.putFloat(data.getHeight());
+        }
+        long epochSecond = timestamp.toEpochSecond(ZoneOffset.UTC);
+        putVarLong(buffer, (epochSecond << 1) ^ (epochSecond >> 63));
+        putVarLong(buffer, timestamp.getNano());
+
+        byte[] encoded = new byte[buffer.position()];
+        buffer.flip().get(encoded);
+        return Optional.of(encoded);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the bytes are not a valid v1 message.
+     */
+    public static ExtendedGpsInput decode(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try {
+            byte version = buffer.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported binary GPS message version " + version + ".");
+            }
+            int flags = buffer.get();
+            long publisherIdLength = getVarLong(buffer);
+            if (publisherIdLength > buffer.remaining()) {
+                throw new IllegalArgumentException("Truncated binary GPS message.");
+            }
+            String publisherId = new String(bytes, buffer.position(), (int) publisherIdLength, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + (int) publisherIdLength);
+            float latitude = buffer.getFloat();
+            float longitude = buffer.getFloat();
+            Float height = (flags & FLAG_HEIGHT) != 0 ? buffer.getFloat() : null;
+            long zigzag = getVarLong(buffer);
+            long epochSecond = (zigzag >>> 1) ^ -(zigzag & 1);
+            long nanos = getVarLong(buffer);
+            if (nanos >= 1_000_000_000L || buffer.hasRemaining()) {
+                throw new IllegalArgumentException("Malformed binary GPS message.");
+            }
+            LocalDateTime timestamp = LocalDateTime.ofEpochSecond(epochSecond, (int) nanos, ZoneOffset.UTC);
+            return new ExtendedGpsInput(publisherId, new GpsData(latitude, longitude, height, timestamp.toString()));
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated binary GPS message.", e);
+        } catch (java.time.DateTimeException e) {
+            throw new IllegalArgumentException("Malformed binary GPS message timestamp.", e);
+        }
+    }
+
+    private static void putVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static long getVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in binary GPS message.");
+    }
+}
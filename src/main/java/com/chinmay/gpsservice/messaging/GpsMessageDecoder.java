@@ -0,0 +1,79 @@
+package com.chinmay.gpsservice.messaging;
+
+import com.chinmay.gpsservice.dto.ExtendedGpsInput;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.amqp.core.Message;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turns a queued message into ExtendedGpsInput, dispatching on its content type: GpsBinaryCodec messages,
+ * or JSON. JSON bodies are usually the document wrapped in a JSON string literal (the producer hands the
+ * Jackson converter an already-serialized String), so a textual root is unwrapped first.
+ * Decode time is recorded per format as gps.message.decode.
+ */
+@Component
+public class GpsMessageDecoder {
+
+    private final ObjectMapper objectMapper;
+    private final Timer jsonDecodeTimer;
+    private final Timer binaryDecodeTimer;
+
+    public GpsMessageDecoder(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.jsonDecodeTimer = decodeTimer(meterRegistry, WireFormat.JSON);
+        this.binaryDecodeTimer = decodeTimer(meterRegistry, WireFormat.BINARY);
+    }
+
+    private static Timer decodeTimer(MeterRegistry meterRegistry, WireFormat format) {
+        return Timer.builder("gps.message.decode")
+                .description("Time to turn a queued message into ExtendedGpsInput")
+                .tag("format", format.name().toLowerCase())
+                .register(meterRegistry);
+    }
+
+    /**
+     * @throws IOException for malformed JSON.
+     * @throws IllegalArgumentException for a malformed binary message.
+     */
+    public ExtendedGpsInput decode(Message message) throws IOException {
+        long startNanos = System.nanoTime();
+        if (isBinary(message)) {
+            try {
+                return GpsBinaryCodec.decode(message.getBody());
+            } finally {
+                binaryDecodeTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        try {
+            return decodeJson(message);
+        } finally {
+            jsonDecodeTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private ExtendedGpsInput decodeJson(Message message) throws IOException {
+        JsonNode payload = objectMapper.readTree(message.getBody());
+        if (payload.isTextual()) {
+            payload = objectMapper.readTree(payload.textValue());
+        }
+        return objectMapper.treeToValue(payload, ExtendedGpsInput.class);
+    }
+
+    // For logs: JSON bodies verbatim, binary ones only by size
+    public static String describe(Message message) {
+        return isBinary(message)
+                ? "<binary, " + message.getBody().length + " bytes>"
+                : new String(message.getBody(), StandardCharsets.UTF_8);
+    }
+
+    private static boolean isBinary(Message message) {
+        return GpsBinaryCodec.CONTENT_TYPE.equals(message.getMessageProperties().getContentType());
+    }
+}
@@ -0,0 +1,98 @@
+package com.chinmay.gpsservice.messaging;
+
+import com.chinmay.gpsservice.config.RabbitMQConfig;
+import com.chinmay.gpsservice.config.ShardedRabbitMQConfig;
+import com.chinmay.gpsservice.dto.ExtendedGpsInput;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Single place that decides where an ingested GPS message goes and how it is encoded: the legacy topic exchange,
+ * or (with gps.sharding.enabled) the consistent-hash exchange keyed on publisherId so one vehicle always maps to
+ * one shard; JSON, or the compact binary format (gps.messaging.wire-format, or per request).
+ * Every publish waits for a broker confirm; its latency up to the confirm is recorded as gps.publish, tagged with the outcome.
+ */
+@Component
+public class GpsMessagePublisher {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean shardingEnabled;
+    private final WireFormat defaultWireFormat;
+    private final MeterRegistry meterRegistry;
+
+    public GpsMessagePublisher(RabbitTemplate rabbitTemplate, ObjectMapper objectMapper,
+                               @Value("${gps.sharding.enabled:false}") boolean shardingEnabled,
+                               @Value("${gps.messaging.wire-format:JSON}") WireFormat defaultWireFormat,
+                               MeterRegistry meterRegistry) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.objectMapper = objectMapper;
+        this.shardingEnabled = shardingEnabled;
+        this.defaultWireFormat = defaultWireFormat;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Publishes with a publisher confirm (spring.rabbitmq.publisher-confirm-type=correlated).
+     * Many of these can be in flight at once; the broker confirms them asynchronously.
+     * @return Completes when the broker has taken responsibility for the message, or exceptionally with an
+     * AmqpException if it nacked it or could not route it (spring.rabbitmq.template.mandatory=true).
+     * @param wireFormat null for the configured default.
+     */
+    public CompletableFuture<Void> publishConfirmed(ExtendedGpsInput gpsInput, WireFormat wireFormat) throws JsonProcessingException {
+        CorrelationData correlationData = new CorrelationData();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            send(gpsInput, wireFormat != null ? wireFormat : defaultWireFormat, correlationData);
+        } catch (JsonProcessingException | RuntimeException e) {
+            sample.stop(publishTimer("error"));
+            throw e;
+        }
+        return correlationData.getFuture().thenApply(confirm -> {
+            if (!confirm.isAck()) {
+                sample.stop(publishTimer("nack"));
+                throw new AmqpException("Broker rejected the message: " + confirm.getReason());
+            }
+            if (correlationData.getReturned() != null) { // returns arrive before the confirm
+                sample.stop(publishTimer("returned"));
+                throw new AmqpException("Message was unroutable: " + correlationData.getReturned().getReplyText());
+            }
+            sample.stop(publishTimer("ack"));
+            return null;
+        });
+    }
+
+    private Timer publishTimer(String outcome) {
+        return Timer.builder("gps.publish")
+                .description("Time from handing a GPS message to RabbitMQ until the broker confirms it")
+                .tag("exchange", shardingEnabled ? "sharded" : "default")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private void send(ExtendedGpsInput gpsInput, WireFormat wireFormat, CorrelationData correlationData) throws JsonProcessingException {
+        String exchange = shardingEnabled ? ShardedRabbitMQConfig.GPS_SHARDED_EXCHANGE_NAME : RabbitMQConfig.GPS_EXCHANGE_NAME;
+        String routingKey = shardingEnabled ? gpsInput.getPublisherId() : RabbitMQConfig.GPS_DATA_ROUTING_KEY;
+
+        Optional<byte[]> binary = wireFormat == WireFormat.BINARY ? GpsBinaryCodec.encode(gpsInput) : Optional.empty();
+        if (binary.isPresent()) {
+            rabbitTemplate.send(exchange, routingKey, MessageBuilder.withBody(binary.get())
+                    .setContentType(GpsBinaryCodec.CONTENT_TYPE)
+                    .build(), correlationData);
+            return;
+        }
+        String messagePayload = objectMapper.writeValueAsString(gpsInput);
+        rabbitTemplate.convertAndSend(exchange, routingKey, messagePayload, correlationData);
+    }
+}
@@ -0,0 +1,11 @@
+package com.chinmay.gpsservice.messaging;
+
+/**
+ * Encoding of GPS messages on the queue.
+ */
+public enum WireFormat {
+    /** ExtendedGpsInput as JSON (the original format). */
+    JSON,
+    /** GpsBinaryCodec; falls back to JSON for messages it cannot represent. */
+    BINARY
+}
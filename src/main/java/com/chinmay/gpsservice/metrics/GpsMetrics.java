@@ -0,0 +1,21 @@
+package com.chinmay.gpsservice.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Meters recorded from more than one class. Meters owned by a single class are registered there.
+ */
+public final class GpsMetrics {
+
+    private GpsMetrics() {
+    }
+
+    // Messages the ingest listeners sent to the dead letter queue, by why
+    public static Counter listenerRejected(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("gps.listener.rejected")
+                .description("Messages rejected to the dead letter queue by the ingest listeners")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
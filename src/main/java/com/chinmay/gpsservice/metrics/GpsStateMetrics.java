@@ -0,0 +1,64 @@
+package com.chinmay.gpsservice.metrics;
+
+import com.chinmay.gpsservice.hotstore.HotTrackStore;
+import com.chinmay.gpsservice.messaging.AsyncGpsPublisher;
+import com.chinmay.gpsservice.scheduler.ChunkedRetentionPurger;
+import com.chinmay.gpsservice.service.IngestionMode;
+import com.chinmay.gpsservice.service.IngestionModeRouter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gauges over state the components already keep (buffers, queue depth, purge progress), read on scrape,
+ * so none of them pay anything on their hot paths.
+ */
+@Component
+@RequiredArgsConstructor
+public class GpsStateMetrics implements MeterBinder {
+
+    private final AsyncGpsPublisher asyncGpsPublisher;
+    private final IngestionModeRouter ingestionModeRouter;
+    private final HotTrackStore hotTrackStore;
+    private final ChunkedRetentionPurger retentionPurger;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("gps.publish.async.outstanding", asyncGpsPublisher, AsyncGpsPublisher::getOutstanding)
+                .description("Points queued for or awaiting a broker confirm")
+                .register(registry);
+
+        Gauge.builder("gps.ingest.queue.depth", ingestionModeRouter, IngestionModeRouter::getQueueDepth)
+                .description("Ready messages in the ingest queue(s), as last probed")
+                .register(registry);
+        Gauge.builder("gps.ingest.broker.available", ingestionModeRouter, router -> router.isBrokerAvailable() ? 1 : 0)
+                .register(registry);
+        Gauge.builder("gps.ingest.direct.in.flight", ingestionModeRouter, IngestionModeRouter::getDirectInFlight)
+                .register(registry);
+        for (IngestionMode mode : IngestionMode.values()) {
+            for (IngestionModeRouter.Route route : IngestionModeRouter.Route.values()) {
+                FunctionCounter.builder("gps.ingest.route", ingestionModeRouter, router -> router.getRouteCount(mode, route))
+                        .description("putGpsData requests by requested mode and the path taken")
+                        .tag("mode", mode.name().toLowerCase())
+                        .tag("route", route.name().toLowerCase())
+                        .register(registry);
+            }
+        }
+
+        Gauge.builder("gps.hotstore.allocated", hotTrackStore, HotTrackStore::getAllocatedBytes)
+                .baseUnit("bytes")
+                .description("Off-heap memory held by the hot track store")
+                .register(registry);
+
+        Gauge.builder("gps.retention.purge.running", retentionPurger, purger -> purger.getProgress().running() ? 1 : 0)
+                .register(registry);
+        Gauge.builder("gps.retention.purge.progress.rows", retentionPurger, purger -> purger.getProgress().rowsDeleted())
+                .description("Rows deleted by the current (or last) purge run")
+                .register(registry);
+        Gauge.builder("gps.retention.purge.rows.per.second", retentionPurger, purger -> purger.getProgress().rowsPerSecond())
+                .register(registry);
+    }
+}
@@ -0,0 +1,57 @@
+package com.chinmay.gpsservice.metrics;
+
+import com.chinmay.gpsservice.entity.GpsRecord;
+import com.chinmay.gpsservice.service.GpsIngestObserver;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end ingest lag: from the device timestamp of a point to the commit of its row, whichever path
+ * (listener, batch listener, direct write) stored it. Device timestamps are local time, like the rest of the
+ * service. Points stamped in the future (device clock ahead) count as zero lag.
+ */
+@Component
+public class IngestLagObserver implements GpsIngestObserver {
+
+    private final Clock clock;
+    private final Timer lagTimer;
+    private final Counter recordsCounter;
+
+    @Autowired
+    public IngestLagObserver(MeterRegistry meterRegistry) {
+        this(meterRegistry, Clock.systemDefaultZone());
+    }
+
+    IngestLagObserver(MeterRegistry meterRegistry, Clock clock) {
+        this.clock = clock;
+        this.lagTimer = Timer.builder("gps.ingest.lag")
+                .description("Device timestamp to committed row")
+                .register(meterRegistry);
+        this.recordsCounter = Counter.builder("gps.ingest.records")
+                .description("GPS records committed")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void onRecordsSaved(List<GpsRecord> records) {
+        ZoneId zone = clock.getZone();
+        long nowMillis = clock.millis();
+        for (GpsRecord record : records) {
+            LocalDateTime timestamp = record.getTimestamp();
+            if (timestamp != null) {
+                long lagMillis = nowMillis - timestamp.atZone(zone).toInstant().toEpochMilli();
+                lagTimer.record(Math.max(lagMillis, 0), TimeUnit.MILLISECONDS);
+            }
+        }
+        recordsCounter.increment(records.size());
+    }
+}
@@ -0,0 +1,120 @@
+package com.chinmay.gpsservice.realtime;
+
+import com.chinmay.gpsservice.config.IngestTopology;
+import com.chinmay.gpsservice.dto.LastKnownPosition;
+import com.chinmay.gpsservice.entity.GpsRecord;
+import com.chinmay.gpsservice.repository.GpsRecordRepository;
+import com.chinmay.gpsservice.service.GpsIngestObserver;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory "where is publisher X right now" view, fed by the ingest pipeline and warmed up from the database at startup.
+ * Updates are out-of-order safe: a position only replaces the stored one if its timestamp is newer.
+ * <p>
+ * The view is only complete if this instance sees every write. Otherwise (IngestTopology) nothing is kept in
+ * memory, and get/getAll read the latest rows from the database instead.
+ */
+@Component
+@Order(0) // first ingest observer, so stores that read its snapshot never miss a point it has seen
+@Slf4j
+public class LastKnownPositionStore implements GpsIngestObserver {
+
+    private final GpsRecordRepository repository;
+    private final boolean inMemory;
+    private final ConcurrentHashMap<String, LastKnownPosition> positions = new ConcurrentHashMap<>();
+
+    public LastKnownPositionStore(GpsRecordRepository repository, IngestTopology topology) {
+        this.repository = repository;
+        this.inMemory = topology.seesEveryWrite();
+        if (!inMemory) {
+            log.info("Positions: Reading from the database; other instances also store points.");
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0) // before anything that warms up from this store
+    public void warmUp() {
+        if (!inMemory) {
+            return;
+        }
+        long startNanos = System.nanoTime();
+        List<LastKnownPosition> latest = repository.findLatestPositions();
+        latest.forEach(this::update);
+        log.info("Positions: Warmed up {} publishers in {} ms.", positions.size(), (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    @Override
+    public void onRecordsSaved(List<GpsRecord> records) {
+        if (!inMemory) {
+            return;
+        }
+        for (GpsRecord record : records) {
+            update(new LastKnownPosition(record.getPublisherId(), record.getTimestamp(),
+                    record.getLatitude(), record.getLongitude(), record.getHeight()));
+        }
+    }
+
+    /**
+     * Stores the position unless a newer one is already known for that publisher.
+     * @return true if the stored position changed.
+     */
+    public boolean update(LastKnownPosition position) {
+        LastKnownPosition stored = positions.merge(position.publisherId(), position,
+                (current, candidate) -> candidate.timestamp().isAfter(current.timestamp()) ? candidate : current);
+        return stored == position;
+    }
+
+    public Optional<LastKnownPosition> get(String publisherId) {
+        if (!inMemory) {
+            return Optional.ofNullable(getAll(List.of(publisherId)).get(publisherId));
+        }
+        return Optional.ofNullable(positions.get(publisherId));
+    }
+
+    /**
+     * @return The known positions of the requested publishers, in request order; unknown publishers are omitted.
+     */
+    public Map<String, LastKnownPosition> getAll(Collection<String> publisherIds) {
+        Map<String, LastKnownPosition> known = positions;
+        if (!inMemory) {
+            known = new HashMap<>();
+            if (!publisherIds.isEmpty()) {
+                for (LastKnownPosition position : repository.findLatestPositionsFor(publisherIds)) {
+                    known.putIfAbsent(position.publisherId(), position); // ties: first wins, as in warm-up
+                }
+            }
+        }
+        Map<String, LastKnownPosition> result = new LinkedHashMap<>();
+        for (String publisherId : publisherIds) {
+            LastKnownPosition position = known.get(publisherId);
+            if (position != null) {
+                result.put(publisherId, position);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return A weakly consistent view of every known position; empty when this instance does not see every write.
+     */
+    public Collection<LastKnownPosition> snapshot() {
+        return Collections.unmodifiableCollection(positions.values());
+    }
+
+    public int size() {
+        return positions.size();
+    }
+}
@@ -0,0 +1,168 @@
+package com.chinmay.gpsservice.realtime;
+
+import com.chinmay.gpsservice.config.IngestTopology;
+import com.chinmay.gpsservice.dto.Stop;
+import com.chinmay.gpsservice.dto.Trip;
+import com.chinmay.gpsservice.dto.TripSegmentsResponse;
+import com.chinmay.gpsservice.entity.GpsRecord;
+import com.chinmay.gpsservice.service.AnalyticsService.TripSegmenter;
+import com.chinmay.gpsservice.service.GpsIngestObserver;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Incremental trip segmentation of the live feed: every saved point is pushed through its publisher's segmenter,
+ * which keeps only O(1) state plus the last few finished trips and stops.
+ * Starts empty after a restart; the range endpoint answers for history. Publishers that sent nothing for
+ * gps.trips.live.idle-hours are dropped. Only available when this instance sees every write (IngestTopology).
+ */
+@Component
+@Slf4j
+public class LiveTripTracker implements GpsIngestObserver {
+
+    private final TripSegmenter.Settings settings;
+    private final int recentLimit;
+    private final long idleMillis;
+    private final boolean available;
+    private final ConcurrentHashMap<String, PublisherTrips> publishers = new ConcurrentHashMap<>();
+
+    public LiveTripTracker(TripSegmenter.Settings settings, IngestTopology topology,
+                           @Value("${gps.trips.live.recent-trips:10}") int recentLimit,
+                           @Value("${gps.trips.live.idle-hours:24}") int idleHours) {
+        if (idleHours < 1) {
+            throw new IllegalArgumentException("gps.trips.live.idle-hours must be positive.");
+        }
+        this.settings = settings;
+        this.recentLimit = recentLimit;
+        this.idleMillis = idleHours * 3_600_000L;
+        this.available = topology.seesEveryWrite();
+        if (!available) {
+            log.info("LiveTrips: Disabled; other instances also store points (sharding or gps.deployment.single-node=false).");
+        }
+    }
+
+    @Override
+    public void onRecordsSaved(List<GpsRecord> records) {
+        if (!available) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        // Batches can mix publishers and arrive unordered; the segmenter drops points older than its last one
+        Map<String, List<GpsRecord>> byPublisher = records.stream()
+                .collect(Collectors.groupingBy(GpsRecord::getPublisherId));
+        byPublisher.forEach((publisherId, points) -> {
+            points.sort(Comparator.comparing(GpsRecord::getTimestamp));
+            while (true) {
+                PublisherTrips trips = publishers.computeIfAbsent(publisherId, id -> new PublisherTrips());
+                synchronized (trips) {
+                    if (trips.evicted) {
+                        continue; // the sweep removed it meanwhile; start a fresh one
+                    }
+                    for (GpsRecord point : points) {
+                        trips.segmenter.add(point.getTimestamp().toInstant(ZoneOffset.UTC).toEpochMilli(),
+                                point.getLatitude(), point.getLongitude());
+                    }
+                    trips.lastSeenMillis = now;
+                    break;
+                }
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${gps.trips.live.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        int evicted = evictIdleSince(System.currentTimeMillis() - idleMillis);
+        if (evicted > 0) {
+            log.info("LiveTrips: Dropped {} publishers idle for {} h; {} tracked.", evicted, idleMillis / 3_600_000L, publishers.size());
+        }
+    }
+
+    // Drops the publishers whose last point was ingested before cutoffMillis
+    int evictIdleSince(long cutoffMillis) {
+        int evicted = 0;
+        for (Map.Entry<String, PublisherTrips> entry : publishers.entrySet()) {
+            PublisherTrips trips = entry.getValue();
+            synchronized (trips) {
+                if (trips.lastSeenMillis < cutoffMillis && publishers.remove(entry.getKey(), trips)) {
+                    trips.evicted = true;
+                    evicted++;
+                }
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * @return Whether live trips cover every publisher; false when other instances also store points.
+     */
+    public boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * @return The last finished trips and stops of the publisher, followed by the one in progress (open=true).
+     */
+    public Optional<TripSegmentsResponse> get(String publisherId) {
+        PublisherTrips trips = publishers.get(publisherId);
+        if (trips == null) {
+            return Optional.empty();
+        }
+        synchronized (trips) {
+            List<Trip> tripList = new ArrayList<>(trips.trips);
+            List<Stop> stopList = new ArrayList<>(trips.stops);
+            trips.segmenter.reportOpen(new TripSegmenter.Listener() {
+                @Override
+                public void onTrip(Trip trip) {
+                    tripList.add(trip);
+                }
+
+                @Override
+                public void onStop(Stop stop) {
+                    stopList.add(stop);
+                }
+            });
+            return Optional.of(new TripSegmentsResponse(publisherId, "live", tripList, stopList));
+        }
+    }
+
+    public int getTrackedPublishers() {
+        return publishers.size();
+    }
+
+    // Guarded by its own monitor
+    private final class PublisherTrips implements TripSegmenter.Listener {
+        final ArrayDeque<Trip> trips = new ArrayDeque<>();
+        final ArrayDeque<Stop> stops = new ArrayDeque<>();
+        final TripSegmenter segmenter = new TripSegmenter(settings, this);
+        long lastSeenMillis;
+        boolean evicted;
+
+        @Override
+        public void onTrip(Trip trip) {
+            trips.addLast(trip);
+            if (trips.size() > recentLimit) {
+                trips.removeFirst();
+            }
+        }
+
+        @Override
+        public void onStop(Stop stop) {
+            stops.addLast(stop);
+            if (stops.size() > recentLimit) {
+                stops.removeFirst();
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.chinmay.gpsservice.realtime;
+
+import com.chinmay.gpsservice.dto.LastKnownPosition;
+import com.chinmay.gpsservice.dto.NearbyPosition;
+import com.chinmay.gpsservice.util.HaversineUtil;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Thread-safe uniform lat/lon grid over the current position of every publisher.
+ * Queries only visit the cells overlapping the search area, and HaversineUtil is used only to filter
+ * the candidates found there. Moves are out-of-order safe: an older position never replaces a newer one.
+ */
+public class SpatialGrid {
+
+    private static final double KM_PER_DEGREE_LAT = 111.32;
+
+    private final double cellSizeDegrees;
+    private final long columns;
+
+    // publisherId -> current cell and position; the per-key compute() serialises moves of one publisher
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    // cell key -> publishers in that cell (empty cells are removed)
+    private final ConcurrentHashMap<Long, Set<String>> cells = new ConcurrentHashMap<>();
+
+    private record Entry(long cell, LastKnownPosition position) {
+    }
+
+    public SpatialGrid(double cellSizeDegrees) {
+        if (cellSizeDegrees <= 0 || cellSizeDegrees > 10) {
+            throw new IllegalArgumentException("Cell size must be in (0, 10] degrees, got " + cellSizeDegrees);
+        }
+        this.cellSizeDegrees = cellSizeDegrees;
+        this.columns = (long) Math.ceil(360.0 / cellSizeDegrees) + 1;
+    }
+
+    public void update(LastKnownPosition position) {
+        entries.compute(position.publisherId(), (publisherId, current) -> {
+            if (current != null && !position.timestamp().isAfter(current.position().timestamp())) {
+                return current;
+            }
+            long cell = cellOf(position.latitude(), position.longitude());
+            if (current == null || current.cell() != cell) {
+                if (current != null) {
+                    cells.computeIfPresent(current.cell(), (key, members) -> {
+                        members.remove(publisherId);
+                        return members.isEmpty() ? null : members;
+                    });
+                }
+                cells.compute(cell, (key, members) -> {
+                    Set<String> updated = members != null ? members : ConcurrentHashMap.newKeySet();
+                    updated.add(publisherId);
+                    return updated;
+                });
+            }
+            return new Entry(cell, position);
+        });
+    }
+
+    /**
+     * Positions inside the box. A box with minLongitude > maxLongitude wraps across the antimeridian.
+     */
+    public List<LastKnownPosition> findWithin(double minLatitude, double minLongitude,
+                                              double maxLatitude, double maxLongitude, int limit) {
+        List<LastKnownPosition> result = new ArrayList<>();
+        forEachCandidate(minLatitude, minLongitude, maxLatitude, maxLongitude, position -> {
+            if (result.size() < limit && insideBox(position, minLatitude, minLongitude, maxLatitude, maxLongitude)) {
+                result.add(position);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Positions within radiusKm of the point, nearest first.
+     */
+    public List<NearbyPosition> findNear(double latitude, double longitude, double radiusKm, int limit) {
+        double deltaLat = radiusKm / KM_PER_DEGREE_LAT;
+        double minLat = Math.max(-90.0, latitude - deltaLat);
+        double maxLat = Math.min(90.0, latitude + deltaLat);
+
+        // Longitude degrees shrink with cos(latitude); near the poles the circle spans every longitude
+        double cosLat = Math.cos(Math.toRadians(Math.max(Math.abs(minLat), Math.abs(maxLat))));
+        double deltaLon = cosLat > 1e-6 ? radiusKm / (KM_PER_DEGREE_LAT * cosLat) : 180.0;
+        double minLon = -180.0;
+        double maxLon = 180.0;
+        if (deltaLon < 180.0) {
+            minLon = wrapLongitude(longitude - deltaLon);
+            maxLon = wrapLongitude(longitude + deltaLon);
+        }
+
+        List<NearbyPosition> result = new ArrayList<>();
+        forEachCandidate(minLat, minLon, maxLat, maxLon, position -> {
+            double distanceKm = HaversineUtil.calculateDistance(latitude, longitude, position.latitude(), position.longitude());
+            if (distanceKm <= radiusKm) {
+                result.add(new NearbyPosition(position, distanceKm));
+            }
+        });
+        result.sort(Comparator.comparingDouble(NearbyPosition::distanceKm));
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void forEachCandidate(double minLat, double minLon, double maxLat, double maxLon,
+                                  Consumer<LastKnownPosition> consumer) {
+        if (minLon > maxLon) { // crosses the antimeridian: search both sides
+            forEachCandidate(minLat, minLon, maxLat, 180.0, consumer);
+            forEachCandidate(minLat, -180.0, maxLat, maxLon, consumer);
+            return;
+        }
+        long minRow = row(minLat);
+        long maxRow = row(maxLat);
+        long minCol = column(minLon);
+        long maxCol = column(maxLon);
+
+        // A huge box covers more cells than exist: walking the occupied cells is cheaper then
+        long cellsInBox = (maxRow - minRow + 1) * (maxCol - minCol + 1);
+        if (cellsInBox > cells.size()) {
+            cells.forEach((cell, members) -> {
+                long r = cell / columns;
+                long c = cell % columns;
+                if (r >= minRow && r <= maxRow && c >= minCol && c <= maxCol) {
+                    emit(members, consumer);
+                }
+            });
+            return;
+        }
+        for (long r = minRow; r <= maxRow; r++) {
+            for (long c = minCol; c <= maxCol; c++) {
+                Set<String> members = cells.get(r * columns + c);
+                if (members != null) {
+                    emit(members, consumer);
+                }
+            }
+        }
+    }
+
+    private void emit(Set<String> members, Consumer<LastKnownPosition> consumer) {
+        for (String publisherId : members) {
+            Entry entry = entries.get(publisherId);
+            if (entry != null) {
+                consumer.accept(entry.position());
+            }
+        }
+    }
+
+    private long cellOf(double latitude, double longitude) {
+        return row(latitude) * columns + column(longitude);
+    }
+
+    private long row(double latitude) {
+        return (long) Math.floor((latitude + 90.0) / cellSizeDegrees);
+    }
+
+    private long column(double longitude) {
+        return (long) Math.floor((longitude + 180.0) / cellSizeDegrees);
+    }
+
+    private static boolean insideBox(LastKnownPosition position, double minLat, double minLon, double maxLat, double maxLon) {
+        if (position.latitude() < minLat || position.latitude() > maxLat) {
+            return false;
+        }
+        if (minLon <= maxLon) {
+            return position.longitude() >= minLon && position.longitude() <= maxLon;
+        }
+        return position.longitude() >= minLon || position.longitude() <= maxLon;
+    }
+
+    private static double wrapLongitude(double longitude) {
+        if (longitude < -180.0) {
+            return longitude + 360.0;
+        }
+        if (longitude > 180.0) {
+            return longitude - 360.0;
+        }
+        return longitude;
+    }
+}
@@ -0,0 +1,77 @@
+package com.chinmay.gpsservice.realtime;
+
+import com.chinmay.gpsservice.config.IngestTopology;
+import com.chinmay.gpsservice.dto.LastKnownPosition;
+import com.chinmay.gpsservice.dto.NearbyPosition;
+import com.chinmay.gpsservice.entity.GpsRecord;
+import com.chinmay.gpsservice.service.GpsIngestObserver;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Spatial index over the current position of every publisher, kept up to date by the ingest pipeline.
+ * Warms up from the LastKnownPositionStore once that has loaded the latest positions from the database.
+ * Only available when this instance sees every write (IngestTopology); otherwise searches would silently miss
+ * the publishers stored elsewhere.
+ */
+@Component
+@Slf4j
+public class SpatialPositionIndex implements GpsIngestObserver {
+
+    private final LastKnownPositionStore positionStore;
+    private final SpatialGrid grid;
+    private final boolean available;
+
+    public SpatialPositionIndex(LastKnownPositionStore positionStore, IngestTopology topology,
+                                @Value("${gps.spatial.cell-size-degrees:0.05}") double cellSizeDegrees) {
+        this.positionStore = positionStore;
+        this.grid = new SpatialGrid(cellSizeDegrees);
+        this.available = topology.seesEveryWrite();
+        if (!available) {
+            log.info("Spatial: Disabled; other instances also store points (sharding or gps.deployment.single-node=false).");
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(1)
+    public void warmUp() {
+        if (!available) {
+            return;
+        }
+        positionStore.snapshot().forEach(grid::update);
+        log.info("Spatial: Indexed {} publishers.", grid.size());
+    }
+
+    @Override
+    public void onRecordsSaved(List<GpsRecord> records) {
+        if (!available) {
+            return;
+        }
+        for (GpsRecord record : records) {
+            grid.update(new LastKnownPosition(record.getPublisherId(), record.getTimestamp(),
+                    record.getLatitude(), record.getLongitude(), record.getHeight()));
+        }
+    }
+
+    /**
+     * @return Whether searches cover every publisher; false when other instances also store points.
+     */
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public List<LastKnownPosition> findWithin(double minLatitude, double minLongitude,
+                                              double maxLatitude, double maxLongitude, int limit) {
+        return grid.findWithin(minLatitude, minLongitude, maxLatitude, maxLongitude, limit);
+    }
+
+    public List<NearbyPosition> findNear(double latitude, double longitude, double radiusKm, int limit) {
+        return grid.findNear(latitude, longitude, radiusKm, limit);
+    }
+}
@@ -0,0 +1,21 @@
+package com.chinmay.gpsservice.repository;
+
+import com.chinmay.gpsservice.entity.GpsDistanceBucketLock;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface GpsDistanceBucketLockRepository extends JpaRepository<GpsDistanceBucketLock, String> {
+
+    // One statement, rows locked in key order, so two batches sharing publishers cannot deadlock on these rows
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM GpsDistanceBucketLock l WHERE l.publisherId IN :publisherIds ORDER BY l.publisherId")
+    List<GpsDistanceBucketLock> lockAll(@Param("publisherIds") Collection<String> publisherIds);
+}
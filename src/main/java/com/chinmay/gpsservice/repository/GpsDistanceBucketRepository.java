@@ -0,0 +1,36 @@
+package com.chinmay.gpsservice.repository;
+
+import com.chinmay.gpsservice.entity.GpsDistanceBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface GpsDistanceBucketRepository extends JpaRepository<GpsDistanceBucket, Long> {
+
+    Optional<GpsDistanceBucket> findFirstByPublisherIdOrderByBucketStartDesc(String publisherId);
+
+    Optional<GpsDistanceBucket> findByPublisherIdAndBucketStart(String publisherId, LocalDateTime bucketStart);
+
+    // Buckets starting in [from, to), oldest first
+    @Query("SELECT b FROM GpsDistanceBucket b WHERE b.publisherId = :publisherId " +
+            "AND b.bucketStart >= :from AND b.bucketStart < :to ORDER BY b.bucketStart ASC")
+    List<GpsDistanceBucket> findBucketsInRange(@Param("publisherId") String publisherId,
+                                              @Param("from") LocalDateTime from,
+                                              @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("DELETE FROM GpsDistanceBucket b WHERE b.publisherId = :publisherId")
+    int deleteByPublisherId(@Param("publisherId") String publisherId);
+
+    // Buckets whose last point is older than the retention cutoff
+    @Modifying
+    @Query("DELETE FROM GpsDistanceBucket b WHERE b.lastTimestamp < :cutoffTimestamp")
+    int deleteBucketsOlderThan(@Param("cutoffTimestamp") LocalDateTime cutoffTimestamp);
+}
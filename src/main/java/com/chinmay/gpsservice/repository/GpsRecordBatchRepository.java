@@ -0,0 +1,20 @@
+package com.chinmay.gpsservice.repository;
+
+import com.chinmay.gpsservice.entity.GpsRecord;
+
+import java.util.List;
+
+/**
+ * Custom Spring Data fragment for bulk writes that bypass the JPA persistence context.
+ * GpsRecordRepository extends this, so callers keep using a single repository bean.
+ */
+public interface GpsRecordBatchRepository {
+
+    /**
+     * Inserts all records as JDBC batches (rewritten into multi-row INSERTs by the MySQL driver).
+     * Must be called inside a transaction. The records are detached afterwards, with their IDs set.
+     * @param records The records to insert.
+     * @return The number of records inserted.
+     */
+    int batchInsert(List<GpsRecord> records);
+}
@@ -0,0 +1,34 @@
+package com.chinmay.gpsservice.repository;
+
+import com.chinmay.gpsservice.entity.GpsRecord;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.List;
+
+// Spring Data picks this up as the implementation of GpsRecordBatchRepository because of the "Impl" suffix
+public class GpsRecordBatchRepositoryImpl implements GpsRecordBatchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:1000}")
+    private int jdbcBatchSize;
+
+    @Override
+    public int batchInsert(List<GpsRecord> records) {
+        // IDs come from the pooled sequence, so Hibernate can queue the INSERTs and send them as JDBC batches.
+        // Flushing and clearing every jdbcBatchSize rows keeps the persistence context from growing with the batch.
+        for (int i = 0; i < records.size(); i++) {
+            entityManager.persist(records.get(i));
+            if ((i + 1) % jdbcBatchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return records.size();
+    }
+}
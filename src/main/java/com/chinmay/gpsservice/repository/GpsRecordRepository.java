@@ -1,22 +1,36 @@
 package com.chinmay.gpsservice.repository;
 
+import com.chinmay.gpsservice.dto.LastKnownPosition;
+import com.chinmay.gpsservice.dto.PublisherRoutePoint;
+import com.chinmay.gpsservice.dto.RoutePoint;
+import com.chinmay.gpsservice.dto.TrackPoint;
 import com.chinmay.gpsservice.entity.GpsRecord; // << IMPORT YOUR ENTITY HERE
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository; // Optional, but good practice
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository // Marks this as a Spring Data repository bean. Spring Boot can often find it without this, but it's good for clarity
 
-public interface GpsRecordRepository extends JpaRepository<GpsRecord, Long> {
+public interface GpsRecordRepository extends JpaRepository<GpsRecord, Long>, GpsRecordBatchRepository {
     // 1. JpaRepository<EntityType, IdType>:
     //    - GpsRecord: This tells Spring Data JPA that this repository works with GpsRecord entities.
     //    - Long: This is the data type of the primary key (@Id field) in your GpsRecord entity.
 
+    // 2. Rows fetched per round trip by the streaming (cursor) queries below.
+    String ROUTE_FETCH_SIZE = "1000";
+
     // 3. You can define custom query methods by following naming conventions.
     //    Spring Data JPA will parse the method name and generate the query.
     //    For example, to find all GPS records for a specific publisherId:
@@ -28,6 +42,102 @@ public interface GpsRecordRepository extends JpaRepository<GpsRecord, Long> {
 
     List<GpsRecord> findByPublisherId(String publisherId);
 
+    // Forward-only cursor over the route's coordinates, in timestamp order.
+    // Only (latitude, longitude) pairs are selected and rows are fetched ROUTE_FETCH_SIZE at a time
+    // (needs useCursorFetch=true on the MySQL URL), so memory stays constant however long the window is.
+    // The Stream must be consumed inside a transaction and closed (try-with-resources).
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ROUTE_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.chinmay.gpsservice.dto.RoutePoint(gr.latitude, gr.longitude) FROM GpsRecord gr " +
+            "WHERE gr.publisherId = :publisherId AND gr.timestamp BETWEEN :from AND :to ORDER BY gr.timestamp ASC")
+    Stream<RoutePoint> streamRoutePoints(@Param("publisherId") String publisherId,
+                                         @Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to);
+
+    // Same cursor settings as above, but with timestamps and a half-open window [from, to)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ROUTE_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.chinmay.gpsservice.dto.TrackPoint(gr.timestamp, gr.latitude, gr.longitude) FROM GpsRecord gr " +
+            "WHERE gr.publisherId = :publisherId AND gr.timestamp >= :from AND gr.timestamp < :to ORDER BY gr.timestamp ASC")
+    Stream<TrackPoint> streamTrackPoints(@Param("publisherId") String publisherId,
+                                         @Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to);
+
+    // Keyset over the publishers with points in [from, to], in publisher order: the fleet report's next batch
+    @Query("SELECT DISTINCT gr.publisherId FROM GpsRecord gr " +
+            "WHERE gr.publisherId > :after AND gr.timestamp BETWEEN :from AND :to ORDER BY gr.publisherId ASC")
+    List<String> findFleetPublisherIds(@Param("after") String after,
+                                       @Param("from") LocalDateTime from,
+                                       @Param("to") LocalDateTime to,
+                                       Limit limit);
+
+    // A batch of routes in one cursor, grouped by publisher and in timestamp order within each (fleet report).
+    // ORDER BY matches idx_publisher_timestamp, so MySQL walks the index instead of sorting.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ROUTE_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.chinmay.gpsservice.dto.PublisherRoutePoint(gr.publisherId, gr.latitude, gr.longitude) FROM GpsRecord gr " +
+            "WHERE gr.publisherId IN :publisherIds AND gr.timestamp BETWEEN :from AND :to ORDER BY gr.publisherId ASC, gr.timestamp ASC")
+    Stream<PublisherRoutePoint> streamFleetRoutePointsFor(@Param("publisherIds") Collection<String> publisherIds,
+                                                          @Param("from") LocalDateTime from,
+                                                          @Param("to") LocalDateTime to);
+
+    // Neighbours of a timestamp, used to repair aggregates when a point arrives out of order
+    Optional<GpsRecord> findFirstByPublisherIdAndTimestampLessThanOrderByTimestampDesc(String publisherId, LocalDateTime timestamp);
+
+    Optional<GpsRecord> findFirstByPublisherIdAndTimestampGreaterThanOrderByTimestampAsc(String publisherId, LocalDateTime timestamp);
+
+    // Keyset pagination over the whole table: the page after a given ID, in ID order
+    List<GpsRecord> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Keyset pagination for one publisher on (timestamp, id), served by idx_publisher_timestamp
+    List<GpsRecord> findByPublisherIdOrderByTimestampAscIdAsc(String publisherId, Limit limit);
+
+    @Query("SELECT gr FROM GpsRecord gr WHERE gr.publisherId = :publisherId " +
+            "AND (gr.timestamp > :afterTimestamp OR (gr.timestamp = :afterTimestamp AND gr.id > :afterId)) " +
+            "ORDER BY gr.timestamp ASC, gr.id ASC")
+    List<GpsRecord> findPublisherPageAfter(@Param("publisherId") String publisherId,
+                                           @Param("afterTimestamp") LocalDateTime afterTimestamp,
+                                           @Param("afterId") Long afterId,
+                                           Limit limit);
+
+    // Cursor streams for NDJSON export. The constructor expression yields detached GpsRecords,
+    // so the persistence context does not grow with the result.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ROUTE_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.chinmay.gpsservice.entity.GpsRecord(gr.id, gr.publisherId, gr.latitude, gr.longitude, gr.height, gr.timestamp) " +
+            "FROM GpsRecord gr ORDER BY gr.id ASC")
+    Stream<GpsRecord> streamAll();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ROUTE_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.chinmay.gpsservice.entity.GpsRecord(gr.id, gr.publisherId, gr.latitude, gr.longitude, gr.height, gr.timestamp) " +
+            "FROM GpsRecord gr WHERE gr.publisherId = :publisherId ORDER BY gr.timestamp ASC, gr.id ASC")
+    Stream<GpsRecord> streamByPublisherId(@Param("publisherId") String publisherId);
+
+    // Latest point of every publisher (startup warm-up of the last-known-position store).
+    // The inner GROUP BY is answered from idx_publisher_timestamp; ties on the max timestamp return several rows.
+    @Query("SELECT new com.chinmay.gpsservice.dto.LastKnownPosition(gr.publisherId, gr.timestamp, gr.latitude, gr.longitude, gr.height) " +
+            "FROM GpsRecord gr WHERE (gr.publisherId, gr.timestamp) IN " +
+            "(SELECT latest.publisherId, MAX(latest.timestamp) FROM GpsRecord latest GROUP BY latest.publisherId)")
+    List<LastKnownPosition> findLatestPositions();
+
+    // Same, for the given publishers only (position reads when other instances also store points)
+    @Query("SELECT new com.chinmay.gpsservice.dto.LastKnownPosition(gr.publisherId, gr.timestamp, gr.latitude, gr.longitude, gr.height) " +
+            "FROM GpsRecord gr WHERE (gr.publisherId, gr.timestamp) IN " +
+            "(SELECT latest.publisherId, MAX(latest.timestamp) FROM GpsRecord latest " +
+            "WHERE latest.publisherId IN :publisherIds GROUP BY latest.publisherId)")
+    List<LastKnownPosition> findLatestPositionsFor(@Param("publisherIds") Collection<String> publisherIds);
+
     // Another example: find by latitude
     // List<GpsRecord> findByLatitude(Double latitude);
     @Modifying
@@ -0,0 +1,9 @@
+package com.chinmay.gpsservice.repository;
+
+import com.chinmay.gpsservice.entity.PurgeCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PurgeCheckpointRepository extends JpaRepository<PurgeCheckpoint, String> {
+}
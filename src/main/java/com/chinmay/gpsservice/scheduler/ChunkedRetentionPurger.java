@@ -0,0 +1,152 @@
+package com.chinmay.gpsservice.scheduler;
+
+import com.chinmay.gpsservice.entity.PurgeCheckpoint;
+import com.chinmay.gpsservice.repository.PurgeCheckpointRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Deletes expired gps_records in bounded chunks instead of one table-wide DELETE.
+ * Each chunk walks the primary key forward (so survivors are only ever read as IDs, never loaded),
+ * deletes one ID range in its own short transaction, and commits a PurgeCheckpoint with it.
+ * Chunks are throttled by a fixed pause and an optional rows/sec ceiling to keep lock time and undo log small.
+ */
+@Component
+@Slf4j
+public class ChunkedRetentionPurger {
+
+    // Next chunk of expired IDs after the checkpoint, walking the primary key
+    private static final String SELECT_EXPIRED_IDS_SQL =
+            "SELECT id FROM gps_records WHERE id > ? AND event_timestamp < ? ORDER BY id LIMIT ?";
+    private static final String DELETE_RANGE_SQL =
+            "DELETE FROM gps_records WHERE id >= ? AND id <= ? AND event_timestamp < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PurgeCheckpointRepository checkpointRepository;
+    private final Counter purgedRowsCounter;
+
+    @Value("${gps.retention.purge.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${gps.retention.purge.pause-ms:100}")
+    private long pauseMs;
+
+    // 0 disables the rate limit
+    @Value("${gps.retention.purge.max-rows-per-second:20000}")
+    private long maxRowsPerSecond;
+
+    private volatile PurgeProgress progress = PurgeProgress.idle();
+
+    public ChunkedRetentionPurger(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                  PurgeCheckpointRepository checkpointRepository, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.checkpointRepository = checkpointRepository;
+        this.purgedRowsCounter = Counter.builder("gps.retention.purge.rows")
+                .description("Expired GPS records deleted by the chunked purge")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Deletes every gps_records row older than the cutoff, resuming an interrupted run if one is checkpointed.
+     * @return The final progress of this run.
+     */
+    public PurgeProgress purgeOlderThan(LocalDateTime cutoffTimestamp) {
+        PurgeCheckpoint checkpoint = checkpointRepository.findById(PurgeCheckpoint.GPS_RECORDS)
+                .orElseGet(() -> new PurgeCheckpoint(PurgeCheckpoint.GPS_RECORDS));
+        if (checkpoint.isRunning()) {
+            log.info("Purge: Resuming interrupted purge after id {} ({} rows already deleted).",
+                    checkpoint.getLastPurgedId(), checkpoint.getRowsDeleted());
+        } else {
+            checkpoint.setLastPurgedId(0L);
+            checkpoint.setRowsDeleted(0L);
+            checkpoint.setStartedAt(LocalDateTime.now());
+            checkpoint.setFinishedAt(null);
+        }
+        // IDs below the checkpoint were already swept; rows there that expire later are caught by the next run
+        checkpoint.setRunning(true);
+        checkpoint.setCutoffTimestamp(cutoffTimestamp);
+        checkpoint = checkpointRepository.save(checkpoint);
+
+        long startNanos = System.nanoTime();
+        long rowsAtStart = checkpoint.getRowsDeleted();
+        int chunks = 0;
+        while (true) {
+            long chunkStartNanos = System.nanoTime();
+            List<Long> ids = jdbcTemplate.queryForList(SELECT_EXPIRED_IDS_SQL, Long.class,
+                    checkpoint.getLastPurgedId(), cutoffTimestamp, chunkSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            long lowId = ids.get(0);
+            long highId = ids.get(ids.size() - 1);
+            PurgeCheckpoint current = checkpoint;
+            long rowsBeforeChunk = checkpoint.getRowsDeleted();
+            checkpoint = transactionTemplate.execute(status -> {
+                int deleted = jdbcTemplate.update(DELETE_RANGE_SQL, lowId, highId, cutoffTimestamp);
+                current.setLastPurgedId(highId);
+                current.setRowsDeleted(current.getRowsDeleted() + deleted);
+                return checkpointRepository.save(current);
+            });
+            chunks++;
+            purgedRowsCounter.increment(checkpoint.getRowsDeleted() - rowsBeforeChunk);
+
+            double elapsedSeconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+            double rowsPerSecond = (checkpoint.getRowsDeleted() - rowsAtStart) / Math.max(elapsedSeconds, 1e-9);
+            progress = new PurgeProgress(true, cutoffTimestamp, chunks, checkpoint.getRowsDeleted(),
+                    highId, rowsPerSecond, checkpoint.getStartedAt(), null);
+            log.info("Purge: Chunk {} deleted ids [{}, {}] - total {} rows, {} rows/sec.",
+                    chunks, lowId, highId, checkpoint.getRowsDeleted(), Math.round(rowsPerSecond));
+
+            if (!throttle(ids.size(), chunkStartNanos)) {
+                log.warn("Purge: Interrupted after chunk {}; the checkpoint will resume it on the next run.", chunks);
+                return progress;
+            }
+        }
+
+        checkpoint.setRunning(false);
+        checkpoint.setFinishedAt(LocalDateTime.now());
+        checkpoint = checkpointRepository.save(checkpoint);
+
+        double elapsedSeconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+        progress = new PurgeProgress(false, cutoffTimestamp, chunks, checkpoint.getRowsDeleted(), checkpoint.getLastPurgedId(),
+                (checkpoint.getRowsDeleted() - rowsAtStart) / Math.max(elapsedSeconds, 1e-9),
+                checkpoint.getStartedAt(), checkpoint.getFinishedAt());
+        log.info("Purge: Finished. Deleted {} rows in {} chunks ({} s).", checkpoint.getRowsDeleted(), chunks, elapsedSeconds);
+        return progress;
+    }
+
+    public PurgeProgress getProgress() {
+        return progress;
+    }
+
+    // Sleeps for the fixed pause, or longer if that is what the rows/sec ceiling requires. Returns false if interrupted.
+    private boolean throttle(int chunkRows, long chunkStartNanos) {
+        long sleepMs = pauseMs;
+        if (maxRowsPerSecond > 0) {
+            long minChunkMs = chunkRows * 1000L / maxRowsPerSecond;
+            long spentMs = (System.nanoTime() - chunkStartNanos) / 1_000_000;
+            sleepMs = Math.max(sleepMs, minChunkMs - spentMs);
+        }
+        if (sleepMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(sleepMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.chinmay.gpsservice.scheduler;
 
-import com.chinmay.gpsservice.entity.GpsRecord;
-import com.chinmay.gpsservice.service.GpsService;
+import com.chinmay.gpsservice.scheduler.partition.GpsRecordPartitionManager;
+import com.chinmay.gpsservice.service.AnalyticsService.DistanceBucketService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value; // For injecting properties
@@ -9,13 +11,16 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.Optional;
 
 @Component
 @Slf4j
 public class DataMaintenanceScheduler {
 
-    private final GpsService gpsService;
+    private final ChunkedRetentionPurger retentionPurger;
+    private final DistanceBucketService distanceBucketService;
+    private final Optional<GpsRecordPartitionManager> partitionManager; // present when gps.partitioning.enabled=true
+    private final MeterRegistry meterRegistry;
 
     // Inject the retention period from application.properties
     // If the property is not found, it defaults to 90 days.
@@ -23,8 +28,12 @@ public class DataMaintenanceScheduler {
     private int dataRetentionDays;
 
     @Autowired
-    public DataMaintenanceScheduler(GpsService gpsService) {
-        this.gpsService = gpsService;
+    public DataMaintenanceScheduler(ChunkedRetentionPurger retentionPurger, DistanceBucketService distanceBucketService,
+                                    Optional<GpsRecordPartitionManager> partitionManager, MeterRegistry meterRegistry) {
+        this.retentionPurger = retentionPurger;
+        this.distanceBucketService = distanceBucketService;
+        this.partitionManager = partitionManager;
+        this.meterRegistry = meterRegistry;
     }
 
     /**
@@ -32,31 +41,37 @@ public class DataMaintenanceScheduler {
      * in this case: "0 0 2 * * ?" means at 2:00:00 AM every day.
      */
 
-    @Scheduled(cron = "0 0 2 * * ?")// Runs every 60 seconds FOR TESTING
+    @Scheduled(cron = "0 0 2 * * ?")
     public void cleanupOldGpsData() {
         LocalDateTime currentTime = LocalDateTime.now();
         LocalDateTime cutoffTime = currentTime.minusDays(dataRetentionDays);
 
         log.info("Scheduled Task: Initiating cleanup of GPS data older than {} ({} days retention). Current time: {}",
                 cutoffTime, dataRetentionDays, currentTime);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failed";
         try {
-            int deletedCount = gpsService.deleteOldGpsRecords(cutoffTime);
-
-            log.info("VISUAL CHECK (Post-Cleanup): Fetching all remaining GPS data at {}", LocalDateTime.now());
-            List<GpsRecord> remainingRecords = gpsService.getAllGpsData();
-            if (remainingRecords.isEmpty()) {
-                log.info("VISUAL CHECK (Post-Cleanup): No GPS records found in the database.");
+            if (partitionManager.isPresent()) {
+                // Partitioned table: retention is DROP PARTITION (rows are kept until their whole partition expires)
+                int droppedPartitions = partitionManager.get().maintain(cutoffTime);
+                log.info("Scheduled Task: Dropped {} expired partitions.", droppedPartitions);
+                meterRegistry.counter("gps.retention.partitions.dropped").increment(droppedPartitions);
             } else {
-                log.info("VISUAL CHECK (Post-Cleanup): --- Remaining GPS Records (Count: {}) ---", remainingRecords.size());
-                remainingRecords.forEach(record ->
-                        log.info("VISUAL CHECK (Post-Cleanup): ID: {}, Publisher: {}, Timestamp: {}",
-                                record.getId(), record.getPublisherId(), record.getTimestamp())
-                );
-                log.info("VISUAL CHECK (Post-Cleanup): --- End of Remaining GPS Records ---");
+                // Chunked, throttled and checkpointed: never one huge DELETE, never loads surviving rows
+                PurgeProgress result = retentionPurger.purgeOlderThan(cutoffTime);
+                log.info("Scheduled Task: Deleted {} GPS records in {} chunks.", result.rowsDeleted(), result.chunksCompleted());
             }
-
+            int deletedBuckets = distanceBucketService.purgeOlderThan(cutoffTime);
+            log.info("Scheduled Task: Cleanup done. Deleted {} distance buckets.", deletedBuckets);
+            outcome = "completed";
         } catch (Exception e) {
             log.error("Scheduled Task: An error occurred during old GPS data cleanup: {}", e.getMessage(), e);
+        } finally {
+            sample.stop(Timer.builder("gps.retention.purge")
+                    .description("Duration of the nightly retention cleanup")
+                    .tag("strategy", partitionManager.isPresent() ? "partitions" : "chunked")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
         }
     }
-}
\ No newline at end of file
+}
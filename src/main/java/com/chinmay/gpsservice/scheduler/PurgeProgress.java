@@ -0,0 +1,20 @@
+package com.chinmay.gpsservice.scheduler;
+
+import java.time.LocalDateTime;
+
+/**
+ * Snapshot of the current (or last) retention purge, published after every chunk.
+ */
+public record PurgeProgress(boolean running,
+                            LocalDateTime cutoffTimestamp,
+                            int chunksCompleted,
+                            long rowsDeleted,
+                            long lastPurgedId,
+                            double rowsPerSecond,
+                            LocalDateTime startedAt,
+                            LocalDateTime finishedAt) {
+
+    public static PurgeProgress idle() {
+        return new PurgeProgress(false, null, 0, 0, 0, 0.0, null, null);
+    }
+}
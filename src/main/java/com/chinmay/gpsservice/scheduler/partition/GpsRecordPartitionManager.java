@@ -0,0 +1,106 @@
+package com.chinmay.gpsservice.scheduler.partition;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps gps_records RANGE COLUMNS-partitioned on event_timestamp (MySQL).
+ * On startup it converts an unpartitioned table; DataMaintenanceScheduler then calls maintain() daily to
+ * pre-create future partitions and drop expired ones, so retention is a metadata operation and time-range
+ * queries only touch the partitions they need.
+ *
+ * MySQL requires the partition column in every unique key, so the primary key becomes (id, event_timestamp).
+ * IDs stay unique on their own because they come from gps_records_seq.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "gps.partitioning.enabled", havingValue = "true")
+@DependsOn("entityManagerFactory") // schema update must have created gps_records first
+public class GpsRecordPartitionManager {
+
+    private static final String TABLE = "gps_records";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PartitionPlanner planner;
+
+    public GpsRecordPartitionManager(JdbcTemplate jdbcTemplate,
+                                     @Value("${gps.partitioning.interval:DAILY}") PartitionInterval interval,
+                                     @Value("${gps.partitioning.precreate:7}") int precreateCount) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.planner = new PartitionPlanner(interval, precreateCount);
+    }
+
+    @PostConstruct
+    public void ensurePartitioned() {
+        if (!listPartitions().isEmpty()) {
+            return;
+        }
+        log.warn("Partitioning: {} is not partitioned yet. Converting it now (this rebuilds the table).", TABLE);
+        List<TimePartition> layout = planner.initialLayout(LocalDate.now());
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PRIMARY KEY, ADD PRIMARY KEY (id, event_timestamp)");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " PARTITION BY RANGE COLUMNS(event_timestamp) (" + definitions(layout) + ")");
+        log.info("Partitioning: Converted {} into {} partitions.", TABLE, layout.size());
+    }
+
+    /**
+     * Pre-creates upcoming partitions and drops every partition entirely older than the cutoff.
+     * @return The number of partitions dropped.
+     */
+    public int maintain(LocalDateTime cutoffTimestamp) {
+        PartitionPlan plan = planner.plan(listPartitions(), LocalDate.now(), cutoffTimestamp);
+
+        if (!plan.toCreate().isEmpty()) {
+            // Split the new ranges off the catch-all; cheap because no rows should live there yet
+            List<TimePartition> reorganized = new ArrayList<>(plan.toCreate());
+            reorganized.add(TimePartition.catchAll());
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + TimePartition.CATCH_ALL_NAME
+                    + " INTO (" + definitions(reorganized) + ")");
+            log.info("Partitioning: Created partitions {}.", names(plan.toCreate()));
+        }
+        if (!plan.toDrop().isEmpty()) {
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PARTITION " + names(plan.toDrop()));
+            log.info("Partitioning: Dropped expired partitions {}.", names(plan.toDrop()));
+        }
+        return plan.toDrop().size();
+    }
+
+    List<TimePartition> listPartitions() {
+        return jdbcTemplate.query(
+                "SELECT PARTITION_NAME, PARTITION_DESCRIPTION FROM information_schema.PARTITIONS " +
+                        "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL " +
+                        "ORDER BY PARTITION_ORDINAL_POSITION",
+                (rs, rowNum) -> new TimePartition(rs.getString(1), parseUpperBound(rs.getString(2))),
+                TABLE);
+    }
+
+    // PARTITION_DESCRIPTION is either MAXVALUE or a quoted literal such as '2026-10-18 00:00:00'
+    private static LocalDate parseUpperBound(String description) {
+        if (description == null || description.equalsIgnoreCase("MAXVALUE")) {
+            return null;
+        }
+        return LocalDate.parse(description.replace("'", "").substring(0, 10));
+    }
+
+    private static String definitions(List<TimePartition> partitions) {
+        return partitions.stream()
+                .map(p -> p.isCatchAll()
+                        ? "PARTITION " + p.name() + " VALUES LESS THAN (MAXVALUE)"
+                        : "PARTITION " + p.name() + " VALUES LESS THAN ('" + p.upperBound() + " 00:00:00')")
+                .collect(Collectors.joining(", "));
+    }
+
+    private static String names(List<TimePartition> partitions) {
+        return partitions.stream().map(TimePartition::name).collect(Collectors.joining(", "));
+    }
+}
@@ -0,0 +1,39 @@
+package com.chinmay.gpsservice.scheduler.partition;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Width of one gps_records range partition. Weekly partitions start on Monday.
+ */
+public enum PartitionInterval {
+    DAILY {
+        @Override
+        public LocalDate floor(LocalDate date) {
+            return date;
+        }
+
+        @Override
+        public LocalDate next(LocalDate partitionStart) {
+            return partitionStart.plusDays(1);
+        }
+    },
+    WEEKLY {
+        @Override
+        public LocalDate floor(LocalDate date) {
+            return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        }
+
+        @Override
+        public LocalDate next(LocalDate partitionStart) {
+            return partitionStart.plusWeeks(1);
+        }
+    };
+
+    /** Start of the partition containing the given date. */
+    public abstract LocalDate floor(LocalDate date);
+
+    /** Start of the partition after the one starting at partitionStart. */
+    public abstract LocalDate next(LocalDate partitionStart);
+}
@@ -0,0 +1,13 @@
+package com.chinmay.gpsservice.scheduler.partition;
+
+import java.util.List;
+
+/**
+ * Partitions to split off the catch-all partition (oldest first) and expired partitions to drop.
+ */
+public record PartitionPlan(List<TimePartition> toCreate, List<TimePartition> toDrop) {
+
+    public boolean isEmpty() {
+        return toCreate.isEmpty() && toDrop.isEmpty();
+    }
+}
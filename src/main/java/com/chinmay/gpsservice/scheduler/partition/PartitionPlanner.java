@@ -0,0 +1,72 @@
+package com.chinmay.gpsservice.scheduler.partition;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pure planning logic for gps_records partition maintenance, kept free of SQL so it can be unit tested.
+ */
+public class PartitionPlanner {
+
+    private final PartitionInterval interval;
+    private final int precreateCount;
+
+    public PartitionPlanner(PartitionInterval interval, int precreateCount) {
+        this.interval = interval;
+        this.precreateCount = precreateCount;
+    }
+
+    /**
+     * Initial layout when converting an unpartitioned table: everything before the current partition goes into
+     * one history partition, followed by the current and pre-created future partitions and the catch-all.
+     */
+    public List<TimePartition> initialLayout(LocalDate today) {
+        LocalDate currentStart = interval.floor(today);
+        List<TimePartition> layout = new ArrayList<>();
+        layout.add(new TimePartition("p_history", currentStart));
+        layout.addAll(futurePartitions(currentStart, today));
+        layout.add(TimePartition.catchAll());
+        return layout;
+    }
+
+    /**
+     * @param existing The table's partitions in order (the last one is the catch-all).
+     * @param today Current date; partitions are pre-created up to precreateCount intervals ahead of it.
+     * @param cutoff Retention cutoff; a partition is dropped once its whole range is older than the cutoff.
+     */
+    public PartitionPlan plan(List<TimePartition> existing, LocalDate today, LocalDateTime cutoff) {
+        List<TimePartition> toDrop = new ArrayList<>();
+        LocalDate lastUpperBound = null;
+        for (TimePartition partition : existing) {
+            if (partition.isCatchAll()) {
+                continue;
+            }
+            if (!partition.upperBound().atStartOfDay().isAfter(cutoff)) {
+                toDrop.add(partition);
+            }
+            lastUpperBound = partition.upperBound();
+        }
+
+        // New partitions continue from the last bounded one, so the range never has gaps
+        LocalDate nextStart = lastUpperBound != null ? lastUpperBound : interval.floor(today);
+        List<TimePartition> toCreate = futurePartitions(nextStart, today);
+        return new PartitionPlan(toCreate, toDrop);
+    }
+
+    private List<TimePartition> futurePartitions(LocalDate fromStart, LocalDate today) {
+        LocalDate horizon = interval.floor(today);
+        for (int i = 0; i < precreateCount; i++) {
+            horizon = interval.next(horizon);
+        }
+        List<TimePartition> partitions = new ArrayList<>();
+        LocalDate start = fromStart;
+        while (!start.isAfter(horizon)) {
+            LocalDate end = interval.next(start);
+            partitions.add(TimePartition.covering(start, end));
+            start = end;
+        }
+        return partitions;
+    }
+}
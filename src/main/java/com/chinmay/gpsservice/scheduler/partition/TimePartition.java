@@ -0,0 +1,27 @@
+package com.chinmay.gpsservice.scheduler.partition;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * One range partition of gps_records: holds rows with event_timestamp < upperBound
+ * (and >= the previous partition's bound). A null upperBound is the MAXVALUE catch-all partition.
+ */
+public record TimePartition(String name, LocalDate upperBound) {
+
+    public static final String CATCH_ALL_NAME = "pmax";
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    /** The partition covering [start, upperBound) is named after its start day, e.g. p20261017. */
+    public static TimePartition covering(LocalDate start, LocalDate upperBound) {
+        return new TimePartition("p" + start.format(NAME_FORMAT), upperBound);
+    }
+
+    public static TimePartition catchAll() {
+        return new TimePartition(CATCH_ALL_NAME, null);
+    }
+
+    public boolean isCatchAll() {
+        return upperBound == null;
+    }
+}
@@ -0,0 +1,194 @@
+package com.chinmay.gpsservice.service.AnalyticsService;
+
+import com.chinmay.gpsservice.config.IngestTopology;
+import com.chinmay.gpsservice.dto.SimplifiedTrackResponse;
+import com.chinmay.gpsservice.dto.TripSegmentsResponse;
+import com.chinmay.gpsservice.entity.GpsRecord;
+import com.chinmay.gpsservice.service.GpsIngestObserver;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Result cache in front of GpsAnalyticsServiceImpl, for dashboards that ask for the same windows again and again.
+ * <p>
+ * Entries are weighed by their approximate size and evicted by Caffeine (W-TinyLFU) once gps.analytics.cache.max-megabytes
+ * is reached. When points are ingested, only the entries of that publisher whose window contains one of the new
+ * timestamps are dropped; a per-publisher key index keeps that from scanning the whole cache.
+ * A result computed while points of its publisher were being ingested is not kept (version guard), so a slow query
+ * can never put a pre-ingest answer back after its invalidation. The TTL is a safety net for deletes (retention purge).
+ * <p>
+ * Invalidation only sees points stored by this instance. When other instances store points too (IngestTopology),
+ * cached windows could go stale for up to the TTL, so every call is passed straight to the delegate instead.
+ */
+@Service
+@Primary
+@Order(Ordered.LOWEST_PRECEDENCE) // last ingest observer, so the stores queries read from are updated before entries are dropped
+@ConditionalOnProperty(name = "gps.analytics.cache.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class CachingGpsAnalyticsService implements GpsAnalyticsService, GpsIngestObserver {
+
+    private enum Kind {DISTANCE, TRACK, TRIPS}
+
+    // toleranceMeters and maxPoints only matter for TRACK
+    record Key(Kind kind, String publisherId, LocalDateTime from, LocalDateTime to, double toleranceMeters, int maxPoints) {
+    }
+
+    private final GpsAnalyticsServiceImpl delegate;
+    private final boolean caching;
+    private final Cache<Key, Object> cache;
+    // Keys currently cached per publisher; lets ingest find the affected windows without scanning the cache
+    private final ConcurrentHashMap<String, Set<Key>> keysByPublisher = new ConcurrentHashMap<>();
+    // Bumped on every ingest of a publisher, before its entries are dropped
+    private final ConcurrentHashMap<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final Counter invalidations;
+
+    public CachingGpsAnalyticsService(GpsAnalyticsServiceImpl delegate, IngestTopology topology, MeterRegistry meterRegistry,
+                                      @Value("${gps.analytics.cache.max-megabytes:64}") long maxMegabytes,
+                                      @Value("${gps.analytics.cache.ttl-minutes:10}") long ttlMinutes) {
+        this.delegate = delegate;
+        this.caching = topology.seesEveryWrite();
+        if (!caching) {
+            log.info("Analytics Cache: Disabled; other instances also store points (sharding or gps.deployment.single-node=false).");
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxMegabytes * 1024 * 1024)
+                .weigher((Key key, Object value) -> weigh(value))
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .evictionListener((Key key, Object value, RemovalCause cause) -> unindex(key))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gps.analytics");
+        this.invalidations = Counter.builder("gps.analytics.cache.invalidations")
+                .description("Cached analytics results dropped because a point was ingested inside their window")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public double calculateTotalDistance(String publisherId, LocalDateTime from, LocalDateTime to) {
+        return get(new Key(Kind.DISTANCE, publisherId, from, to, 0, 0),
+                () -> delegate.calculateTotalDistance(publisherId, from, to));
+    }
+
+    @Override
+    public SimplifiedTrackResponse getSimplifiedTrack(String publisherId, LocalDateTime from, LocalDateTime to,
+                                                      double toleranceMeters, int maxPoints) {
+        return get(new Key(Kind.TRACK, publisherId, from, to, toleranceMeters, maxPoints),
+                () -> delegate.getSimplifiedTrack(publisherId, from, to, toleranceMeters, maxPoints));
+    }
+
+    @Override
+    public TripSegmentsResponse segmentTrips(String publisherId, LocalDateTime from, LocalDateTime to) {
+        return get(new Key(Kind.TRIPS, publisherId, from, to, 0, 0),
+                () -> delegate.segmentTrips(publisherId, from, to));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(Key key, Supplier<T> loader) {
+        if (!caching) {
+            return loader.get();
+        }
+        Object cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return (T) cached;
+        }
+        AtomicLong version = versions.computeIfAbsent(key.publisherId(), id -> new AtomicLong());
+        long before = version.get();
+        T value = loader.get();
+        if (value == null || version.get() != before) {
+            return value; // points arrived meanwhile; the answer may predate them
+        }
+        // Indexed before it becomes visible, and re-checked after: an ingest either sees the key in the index
+        // or bumped the version before the check below
+        keysByPublisher.computeIfAbsent(key.publisherId(), id -> ConcurrentHashMap.newKeySet()).add(key);
+        cache.put(key, value);
+        if (version.get() != before) {
+            cache.invalidate(key);
+            unindex(key);
+        }
+        return value;
+    }
+
+    @Override
+    public void onRecordsSaved(List<GpsRecord> records) {
+        if (!caching) {
+            return;
+        }
+        Map<String, List<GpsRecord>> byPublisher = records.stream()
+                .collect(Collectors.groupingBy(GpsRecord::getPublisherId));
+        byPublisher.forEach((publisherId, saved) -> {
+            versions.computeIfAbsent(publisherId, id -> new AtomicLong()).incrementAndGet();
+            Set<Key> keys = keysByPublisher.get(publisherId);
+            if (keys == null || keys.isEmpty()) {
+                return;
+            }
+            LocalDateTime[] timestamps = saved.stream().map(GpsRecord::getTimestamp).sorted().toArray(LocalDateTime[]::new);
+            List<Key> stale = new ArrayList<>();
+            for (Key key : keys) {
+                if (containsAny(timestamps, key.from(), key.to())) {
+                    stale.add(key);
+                }
+            }
+            if (!stale.isEmpty()) {
+                cache.invalidateAll(stale);
+                stale.forEach(this::unindex);
+                invalidations.increment(stale.size());
+                log.debug("Analytics Cache: Dropped {} entries of {} after ingest.", stale.size(), publisherId);
+            }
+        });
+    }
+
+    // Whether any of the sorted timestamps lies in [from, to]; inclusive, so it covers both BETWEEN and half-open queries
+    static boolean containsAny(LocalDateTime[] sortedTimestamps, LocalDateTime from, LocalDateTime to) {
+        int index = Arrays.binarySearch(sortedTimestamps, from);
+        if (index >= 0) {
+            return true;
+        }
+        int insertion = -index - 1;
+        return insertion < sortedTimestamps.length && !sortedTimestamps[insertion].isAfter(to);
+    }
+
+    private void unindex(Key key) {
+        Set<Key> keys = keysByPublisher.get(key.publisherId());
+        if (keys != null) {
+            keys.remove(key);
+        }
+    }
+
+    // Rough retained size in bytes, including the key
+    private static int weigh(Object value) {
+        int size = 128;
+        if (value instanceof SimplifiedTrackResponse track) {
+            size += 96 * track.points().size();
+        } else if (value instanceof TripSegmentsResponse trips) {
+            size += 160 * (trips.trips().size() + trips.stops().size());
+        }
+        return size;
+    }
+
+    public long getEstimatedSize() {
+        return cache.estimatedSize();
+    }
+}
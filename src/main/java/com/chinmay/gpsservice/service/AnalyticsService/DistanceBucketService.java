@@ -0,0 +1,336 @@
+package com.chinmay.gpsservice.service.AnalyticsService;
+
+import com.chinmay.gpsservice.dto.RoutePoint;
+import com.chinmay.gpsservice.dto.TrackPoint;
+import com.chinmay.gpsservice.entity.GpsDistanceBucket;
+import com.chinmay.gpsservice.entity.GpsDistanceBucketLock;
+import com.chinmay.gpsservice.entity.GpsRecord;
+import com.chinmay.gpsservice.repository.GpsDistanceBucketLockRepository;
+import com.chinmay.gpsservice.repository.GpsDistanceBucketRepository;
+import com.chinmay.gpsservice.repository.GpsRecordRepository;
+import com.chinmay.gpsservice.util.HaversineUtil;
+import com.chinmay.gpsservice.util.RouteDistanceAccumulator;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Maintains per-publisher distance buckets (see GpsDistanceBucket) at ingest time and answers
+ * distance queries from them: whole buckets inside the range are summed, and only the two partial
+ * edge buckets are computed from raw points.
+ */
+@Service
+@Slf4j
+public class DistanceBucketService {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    // Bounds of MySQL's DATETIME range, used to stream a publisher's whole history
+    private static final LocalDateTime EARLIEST_TIMESTAMP = LocalDateTime.of(1000, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST_TIMESTAMP = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private final GpsDistanceBucketRepository bucketRepository;
+    private final GpsRecordRepository gpsRecordRepository;
+    private final GpsDistanceBucketLockRepository lockRepository;
+
+    @Value("${gps.analytics.aggregates.enabled:true}")
+    private boolean enabled;
+
+    @Value("${gps.analytics.aggregates.bucket-minutes:60}")
+    private int bucketMinutes;
+
+    public DistanceBucketService(GpsDistanceBucketRepository bucketRepository, GpsRecordRepository gpsRecordRepository,
+                                 GpsDistanceBucketLockRepository lockRepository) {
+        this.bucketRepository = bucketRepository;
+        this.gpsRecordRepository = gpsRecordRepository;
+        this.lockRepository = lockRepository;
+    }
+
+    @PostConstruct
+    void validateBucketSize() {
+        if (bucketMinutes <= 0 || MINUTES_PER_DAY % bucketMinutes != 0) {
+            throw new IllegalStateException("gps.analytics.aggregates.bucket-minutes must divide a day evenly, got " + bucketMinutes);
+        }
+    }
+
+    /**
+     * Folds a freshly persisted point into its publisher's buckets. Must run in the ingest transaction.
+     */
+    @Transactional
+    public void recordPoint(GpsRecord point) {
+        recordPoints(List.of(point));
+    }
+
+    /**
+     * Folds freshly persisted points into their publishers' buckets. Must run in the ingest transaction.
+     * In-order points are appended in O(1); out-of-order points repair the (at most two) affected buckets.
+     * Concurrent callers storing points of the same publisher wait for each other (see GpsDistanceBucketLock).
+     */
+    @Transactional
+    public void recordPoints(List<GpsRecord> points) {
+        if (!enabled || points.isEmpty()) {
+            return;
+        }
+        Map<String, List<GpsRecord>> byPublisher = points.stream()
+                .collect(Collectors.groupingBy(GpsRecord::getPublisherId));
+        // Before any bucket or raw point is read, so those reads already include the previous holder's commit
+        lockPublishers(byPublisher.keySet());
+
+        byPublisher.forEach((publisherId, publisherPoints) -> {
+            publisherPoints.sort(Comparator.comparing(GpsRecord::getTimestamp));
+            GpsDistanceBucket latest = bucketRepository.findFirstByPublisherIdOrderByBucketStartDesc(publisherId).orElse(null);
+
+            for (GpsRecord point : publisherPoints) {
+                if (latest != null && point.getTimestamp().isAfter(latest.getLastTimestamp())) {
+                    latest = appendInOrder(latest, point);
+                } else {
+                    repairAround(point);
+                    latest = bucketRepository.findFirstByPublisherIdOrderByBucketStartDesc(publisherId).orElse(null);
+                }
+            }
+        });
+    }
+
+    /**
+     * Answers a distance query from the buckets.
+     * @return The distance, or empty when aggregates are disabled or no whole bucket lies inside the range
+     *         (the caller should then compute from raw points).
+     */
+    @Transactional(readOnly = true)
+    public Optional<Double> calculateDistance(String publisherId, LocalDateTime from, LocalDateTime to) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        // Whole buckets are the ones fully inside [from, to]: [spanStart, spanEnd)
+        LocalDateTime spanStart = bucketStartOf(from);
+        if (spanStart.isBefore(from)) {
+            spanStart = spanStart.plusMinutes(bucketMinutes);
+        }
+        LocalDateTime spanEnd = bucketStartOf(to);
+        if (!spanStart.isBefore(spanEnd)) {
+            return Optional.empty();
+        }
+
+        List<GpsDistanceBucket> buckets = bucketRepository.findBucketsInRange(publisherId, spanStart, spanEnd);
+        if (buckets.isEmpty()) {
+            return Optional.empty();
+        }
+
+        // 1. Left edge: segments with both ends in [from, spanStart)
+        double totalDistanceKm = 0.0;
+        if (from.isBefore(spanStart)) {
+            RouteDistanceAccumulator leftEdge = new RouteDistanceAccumulator();
+            try (Stream<TrackPoint> points = gpsRecordRepository.streamTrackPoints(publisherId, from, spanStart)) {
+                points.forEach(point -> leftEdge.add(point.latitude(), point.longitude()));
+            }
+            totalDistanceKm += leftEdge.getTotalDistanceKm();
+        }
+
+        // 2. Whole buckets. An inbound segment counts only if it starts inside the range.
+        for (GpsDistanceBucket bucket : buckets) {
+            totalDistanceKm += bucket.getInternalDistanceKm();
+            if (bucket.getInboundFromTimestamp() != null && !bucket.getInboundFromTimestamp().isBefore(from)) {
+                totalDistanceKm += bucket.getInboundDistanceKm();
+            }
+        }
+
+        // 3. Right edge: from the last point of the span through to 'to' (includes the segment leaving the span)
+        RouteDistanceAccumulator rightEdge = new RouteDistanceAccumulator();
+        LocalDateTime lastSpanTimestamp = buckets.get(buckets.size() - 1).getLastTimestamp();
+        try (Stream<RoutePoint> points = gpsRecordRepository.streamRoutePoints(publisherId, lastSpanTimestamp, to)) {
+            points.forEach(point -> rightEdge.add(point.latitude(), point.longitude()));
+        }
+        totalDistanceKm += rightEdge.getTotalDistanceKm();
+
+        log.info("Aggregates: Distance for {} answered from {} buckets plus edges: {} km", publisherId, buckets.size(), totalDistanceKm);
+        return Optional.of(totalDistanceKm);
+    }
+
+    /**
+     * Drops and recomputes every bucket of a publisher from raw points.
+     * Needed after rows are written without going through GpsService (e.g. the data seeder).
+     */
+    @Transactional
+    public void rebuild(String publisherId) {
+        if (!enabled) {
+            return;
+        }
+        lockPublishers(List.of(publisherId));
+        bucketRepository.deleteByPublisherId(publisherId);
+
+        AtomicInteger savedCount = new AtomicInteger();
+        BucketBuilder builder = new BucketBuilder(publisherId, null, bucket -> {
+            bucketRepository.save(bucket);
+            savedCount.incrementAndGet();
+        });
+        try (Stream<TrackPoint> points = gpsRecordRepository.streamTrackPoints(publisherId, EARLIEST_TIMESTAMP, LATEST_TIMESTAMP)) {
+            points.forEach(builder::add);
+        }
+        if (builder.current != null) {
+            bucketRepository.save(builder.current);
+            savedCount.incrementAndGet();
+        }
+        log.info("Aggregates: Rebuilt {} distance buckets for publisher {}", savedCount.get(), publisherId);
+    }
+
+    /**
+     * Drops buckets whose points are all older than the retention cutoff.
+     * A bucket straddling the cutoff is kept; it can never be a whole bucket of a range starting after the cutoff.
+     * @return The number of buckets deleted.
+     */
+    @Transactional
+    public int purgeOlderThan(LocalDateTime cutoffTimestamp) {
+        return bucketRepository.deleteBucketsOlderThan(cutoffTimestamp);
+    }
+
+    // A publisher seen for the first time gets its lock row here; if two callers race to create it,
+    // one fails on the primary key and its transaction is retried by GpsService
+    private void lockPublishers(Collection<String> publisherIds) {
+        Set<String> missing = new TreeSet<>(publisherIds);
+        lockRepository.lockAll(publisherIds).forEach(lock -> missing.remove(lock.getPublisherId()));
+        if (!missing.isEmpty()) {
+            lockRepository.saveAllAndFlush(missing.stream().map(GpsDistanceBucketLock::new).toList());
+        }
+    }
+
+    LocalDateTime bucketStartOf(LocalDateTime timestamp) {
+        LocalDateTime minute = timestamp.truncatedTo(ChronoUnit.MINUTES);
+        int minuteOfDay = minute.getHour() * 60 + minute.getMinute();
+        return minute.minusMinutes(minuteOfDay % bucketMinutes);
+    }
+
+    private GpsDistanceBucket appendInOrder(GpsDistanceBucket latest, GpsRecord point) {
+        double segmentKm = HaversineUtil.calculateDistance(
+                latest.getLastLatitude(), latest.getLastLongitude(), point.getLatitude(), point.getLongitude());
+        LocalDateTime bucketStart = bucketStartOf(point.getTimestamp());
+
+        GpsDistanceBucket bucket = latest;
+        if (bucketStart.equals(latest.getBucketStart())) {
+            bucket.setInternalDistanceKm(bucket.getInternalDistanceKm() + segmentKm);
+        } else {
+            bucket = new GpsDistanceBucket(point.getPublisherId(), bucketStart);
+            bucket.setInboundDistanceKm(segmentKm);
+            bucket.setInboundFromTimestamp(latest.getLastTimestamp());
+            bucket.setFirstTimestamp(point.getTimestamp());
+        }
+        bucket.setPointCount(bucket.getPointCount() + 1);
+        bucket.setLastTimestamp(point.getTimestamp());
+        bucket.setLastLatitude(point.getLatitude());
+        bucket.setLastLongitude(point.getLongitude());
+        return bucketRepository.save(bucket);
+    }
+
+    // A late point splits the segment (prev -> next) into (prev -> point) and (point -> next).
+    // The first lives in the point's bucket, the second in next's bucket, so only those two are recomputed.
+    private void repairAround(GpsRecord point) {
+        TreeSet<LocalDateTime> affected = new TreeSet<>();
+        affected.add(bucketStartOf(point.getTimestamp()));
+        gpsRecordRepository.findFirstByPublisherIdAndTimestampGreaterThanOrderByTimestampAsc(point.getPublisherId(), point.getTimestamp())
+                .ifPresent(next -> affected.add(bucketStartOf(next.getTimestamp())));
+
+        for (LocalDateTime bucketStart : affected) {
+            recomputeBucket(point.getPublisherId(), bucketStart);
+        }
+    }
+
+    private void recomputeBucket(String publisherId, LocalDateTime bucketStart) {
+        GpsRecord previous = gpsRecordRepository
+                .findFirstByPublisherIdAndTimestampLessThanOrderByTimestampDesc(publisherId, bucketStart)
+                .orElse(null);
+
+        BucketBuilder builder = new BucketBuilder(publisherId, previous, completed -> {
+            // Cannot happen: every streamed point falls into this one bucket
+        });
+        try (Stream<TrackPoint> points = gpsRecordRepository.streamTrackPoints(publisherId, bucketStart, bucketStart.plusMinutes(bucketMinutes))) {
+            points.forEach(builder::add);
+        }
+
+        Optional<GpsDistanceBucket> existing = bucketRepository.findByPublisherIdAndBucketStart(publisherId, bucketStart);
+        GpsDistanceBucket rebuilt = builder.current;
+        if (rebuilt == null) {
+            existing.ifPresent(bucketRepository::delete);
+            return;
+        }
+        // Copy onto the managed row (if any) so the unique key and version stay intact
+        GpsDistanceBucket target = existing.orElseGet(() -> new GpsDistanceBucket(publisherId, bucketStart));
+        target.setPointCount(rebuilt.getPointCount());
+        target.setInternalDistanceKm(rebuilt.getInternalDistanceKm());
+        target.setInboundDistanceKm(rebuilt.getInboundDistanceKm());
+        target.setInboundFromTimestamp(rebuilt.getInboundFromTimestamp());
+        target.setFirstTimestamp(rebuilt.getFirstTimestamp());
+        target.setLastTimestamp(rebuilt.getLastTimestamp());
+        target.setLastLatitude(rebuilt.getLastLatitude());
+        target.setLastLongitude(rebuilt.getLastLongitude());
+        bucketRepository.save(target);
+    }
+
+    /**
+     * Builds buckets from an ordered stream of points, starting after an optional previous point.
+     * Every bucket the stream moves past is handed to the sink; the last one stays in 'current'.
+     */
+    private class BucketBuilder {
+        private final String publisherId;
+        private final Consumer<GpsDistanceBucket> completedBucketSink;
+        private GpsDistanceBucket current;
+        private LocalDateTime prevTimestamp;
+        private double prevLat;
+        private double prevLong;
+        private boolean hasPrev;
+
+        BucketBuilder(String publisherId, GpsRecord previous, Consumer<GpsDistanceBucket> completedBucketSink) {
+            this.publisherId = publisherId;
+            this.completedBucketSink = completedBucketSink;
+            if (previous != null) {
+                prevTimestamp = previous.getTimestamp();
+                prevLat = previous.getLatitude();
+                prevLong = previous.getLongitude();
+                hasPrev = true;
+            }
+        }
+
+        void add(TrackPoint point) {
+            LocalDateTime bucketStart = bucketStartOf(point.timestamp());
+            double segmentKm = hasPrev
+                    ? HaversineUtil.calculateDistance(prevLat, prevLong, point.latitude(), point.longitude())
+                    : 0.0;
+
+            if (current != null && current.getBucketStart().equals(bucketStart)) {
+                current.setInternalDistanceKm(current.getInternalDistanceKm() + segmentKm);
+            } else {
+                if (current != null) {
+                    completedBucketSink.accept(current);
+                }
+                current = new GpsDistanceBucket(publisherId, bucketStart);
+                current.setFirstTimestamp(point.timestamp());
+                if (hasPrev) {
+                    current.setInboundDistanceKm(segmentKm);
+                    current.setInboundFromTimestamp(prevTimestamp);
+                }
+            }
+            current.setPointCount(current.getPointCount() + 1);
+            current.setLastTimestamp(point.timestamp());
+            current.setLastLatitude(point.latitude());
+            current.setLastLongitude(point.longitude());
+
+            prevTimestamp = point.timestamp();
+            prevLat = point.latitude();
+            prevLong = point.longitude();
+            hasPrev = true;
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.chinmay.gpsservice.service.AnalyticsService;
+
+import com.chinmay.gpsservice.dto.FleetDistance;
+import com.chinmay.gpsservice.dto.PublisherRoutePoint;
+import com.chinmay.gpsservice.repository.GpsRecordRepository;
+import com.chinmay.gpsservice.util.RouteDistanceAccumulator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Route distances of many publishers in one pass.
+ * <p>
+ * Publishers are read in batches of batchPublishers, each in its own short read-only transaction: one cursor reads
+ * the batch's routes, grouped by publisher and time-ordered within each. The reading thread cuts the points into
+ * chunks of at most chunkPoints (a new publisher always starts a new chunk) and sums them on a dedicated
+ * ForkJoinPool, splitting long chunks further. At most 4 chunks per pool thread are in flight, so memory stays
+ * bounded. A batch's results are handed to the sink only after its transaction has ended, so a slow client never
+ * holds a pooled connection; the report is therefore not one snapshot, and points stored meanwhile may show up
+ * in later batches.
+ */
+@Service
+@Slf4j
+public class FleetDistanceReportService {
+
+    // Chunks longer than this are split in halves on the pool
+    static final int SPLIT_POINTS = 8192;
+    private static final int INITIAL_CHUNK_CAPACITY = 256;
+
+    private final GpsRecordRepository repository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ForkJoinPool pool;
+    private final int chunkPoints;
+    private final int batchPublishers;
+    private final int maxInFlightChunks;
+    private final MeterRegistry meterRegistry;
+
+    public FleetDistanceReportService(GpsRecordRepository repository, PlatformTransactionManager transactionManager,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${gps.analytics.fleet.parallelism:0}") int parallelism,
+                                      @Value("${gps.analytics.fleet.chunk-points:65536}") int chunkPoints,
+                                      @Value("${gps.analytics.fleet.batch-publishers:500}") int batchPublishers) {
+        if (chunkPoints < 2) {
+            throw new IllegalArgumentException("gps.analytics.fleet.chunk-points must be at least 2.");
+        }
+        if (batchPublishers < 1) {
+            throw new IllegalArgumentException("gps.analytics.fleet.batch-publishers must be at least 1.");
+        }
+        this.repository = repository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        // Own pool, so a large report never competes with parallel streams on the common pool
+        this.pool = new ForkJoinPool(threads, pool -> {
+            var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("gps-fleet-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+        this.chunkPoints = chunkPoints;
+        this.batchPublishers = batchPublishers;
+        this.maxInFlightChunks = threads * 4;
+    }
+
+    /**
+     * Total distance per publisher in [from, to] (same bounds as GpsAnalyticsService.calculateTotalDistance).
+     * Publishers without points in the range are not reported.
+     * @param publisherIds Empty for every publisher.
+     * @param sink Called on the calling thread, in publisher ID order, outside any transaction.
+     * @return Number of publishers reported.
+     */
+    public long streamFleetDistances(Collection<String> publisherIds, LocalDateTime from, LocalDateTime to,
+                                     Consumer<FleetDistance> sink) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<String> requested = publisherIds.stream().distinct().sorted().toList();
+        long publishers = 0;
+        long points = 0;
+        try {
+            String after = "";
+            int offset = 0;
+            while (true) {
+                String previous = after;
+                int start = offset;
+                List<FleetDistance> results = new ArrayList<>();
+                Report report = new Report(results::add);
+                List<String> batch;
+                try {
+                    batch = readOnlyTransaction.execute(status -> {
+                        List<String> ids = requested.isEmpty()
+                                ? repository.findFleetPublisherIds(previous, from, to, Limit.of(batchPublishers))
+                                : requested.subList(start, Math.min(start + batchPublishers, requested.size()));
+                        if (!ids.isEmpty()) {
+                            try (Stream<PublisherRoutePoint> stream = repository.streamFleetRoutePointsFor(ids, from, to)) {
+                                stream.forEach(report::add);
+                            }
+                            report.finish();
+                        }
+                        return ids;
+                    });
+                } finally {
+                    report.cancel();
+                }
+                results.forEach(sink);
+                publishers += report.publishers;
+                points += report.points;
+                offset += batch.size();
+                if (batch.size() < batchPublishers || offset == requested.size()) {
+                    break;
+                }
+                after = batch.get(batch.size() - 1);
+            }
+        } finally {
+            sample.stop(Timer.builder("gps.analytics.fleet")
+                    .description("Fleet distance report time")
+                    .register(meterRegistry));
+        }
+        log.info("Fleet Report: {} publishers, {} points from {} to {}.", publishers, points, from, to);
+        return publishers;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    // Per-publisher totals, completed as its chunks are joined
+    private static final class PublisherTotal {
+        final String publisherId;
+        long points;
+        double distanceKm;
+        int pendingChunks;
+        boolean closed;
+
+        PublisherTotal(String publisherId) {
+            this.publisherId = publisherId;
+        }
+    }
+
+    private record Chunk(PublisherTotal owner, ForkJoinTask<Double> task) {
+    }
+
+    // State of one report; only touched by the reading thread
+    private final class Report {
+        private final Consumer<FleetDistance> sink;
+        private final ArrayDeque<Chunk> inFlight = new ArrayDeque<>();
+        private PublisherTotal current;
+        private double[] latitudes;
+        private double[] longitudes;
+        private int count;
+        long publishers;
+        long points;
+
+        Report(Consumer<FleetDistance> sink) {
+            this.sink = sink;
+        }
+
+        void add(PublisherRoutePoint point) {
+            if (current == null || !current.publisherId.equals(point.publisherId())) {
+                closeCurrent();
+                current = new PublisherTotal(point.publisherId());
+                newChunk();
+            } else if (count == chunkPoints) {
+                // The next chunk starts at this one's last point, so the segment between them is counted once
+                double lastLatitude = latitudes[count - 1];
+                double lastLongitude = longitudes[count - 1];
+                submit();
+                newChunk();
+                latitudes[0] = lastLatitude;
+                longitudes[0] = lastLongitude;
+                count = 1;
+            }
+            if (count == latitudes.length) {
+                int capacity = Math.min(chunkPoints, count * 2);
+                latitudes = Arrays.copyOf(latitudes, capacity);
+                longitudes = Arrays.copyOf(longitudes, capacity);
+            }
+            latitudes[count] = point.latitude();
+            longitudes[count] = point.longitude();
+            count++;
+            current.points++;
+            points++;
+        }
+
+        void finish() {
+            closeCurrent();
+            while (!inFlight.isEmpty()) {
+                completeHead();
+            }
+        }
+
+        // After a failure (or a client that went away) nobody will join the remaining chunks
+        void cancel() {
+            inFlight.forEach(chunk -> chunk.task().cancel(false));
+            inFlight.clear();
+        }
+
+        private void newChunk() {
+            int capacity = Math.min(chunkPoints, INITIAL_CHUNK_CAPACITY);
+            latitudes = new double[capacity];
+            longitudes = new double[capacity];
+            count = 0;
+        }
+
+        private void closeCurrent() {
+            if (current != null) {
+                current.closed = true;
+                submit();
+                current = null;
+            }
+        }
+
+        private void submit() {
+            current.pendingChunks++; // before any join below, so the publisher cannot be reported early
+            while (inFlight.size() >= maxInFlightChunks) {
+                completeHead();
+            }
+            inFlight.addLast(new Chunk(current, pool.submit(new RouteTask(latitudes, longitudes, 0, count - 1))));
+            // Report whatever has already finished, in order
+            while (!inFlight.isEmpty() && inFlight.peekFirst().task().isDone()) {
+                completeHead();
+            }
+        }
+
+        private void completeHead() {
+            Chunk chunk = inFlight.removeFirst();
+            PublisherTotal owner = chunk.owner();
+            owner.distanceKm += chunk.task().join();
+            owner.pendingChunks--;
+            if (owner.closed && owner.pendingChunks == 0) {
+                publishers++;
+                sink.accept(new FleetDistance(owner.publisherId, owner.distanceKm, owner.points));
+            }
+        }
+    }
+
+    // Length of the route through points first..last (inclusive); halves share their middle point
+    private static final class RouteTask extends RecursiveTask<Double> {
+        private final double[] latitudes;
+        private final double[] longitudes;
+        private final int first;
+        private final int last;
+
+        RouteTask(double[] latitudes, double[] longitudes, int first, int last) {
+            this.latitudes = latitudes;
+            this.longitudes = longitudes;
+            this.first = first;
+            this.last = last;
+        }
+
+        @Override
+        protected Double compute() {
+            if (last - first <= SPLIT_POINTS) {
+                RouteDistanceAccumulator accumulator = new RouteDistanceAccumulator();
+                for (int i = first; i <= last; i++) {
+                    accumulator.add(latitudes[i], longitudes[i]);
+                }
+                return accumulator.getTotalDistanceKm();
+            }
+            int middle = (first + last) >>> 1;
+            RouteTask left = new RouteTask(latitudes, longitudes, first, middle);
+            left.fork();
+            double right = new RouteTask(latitudes, longitudes, middle, last).compute();
+            return left.join() + right;
+        }
+    }
+}
@@ -1,7 +1,25 @@
 package com.chinmay.gpsservice.service.AnalyticsService;
 
+import com.chinmay.gpsservice.dto.SimplifiedTrackResponse;
+import com.chinmay.gpsservice.dto.TripSegmentsResponse;
+
 import java.time.LocalDateTime;
 
 public interface GpsAnalyticsService {
     double calculateTotalDistance(String publisherId, LocalDateTime from, LocalDateTime to);
-}
\ No newline at end of file
+
+    /**
+     * Douglas-Peucker simplified track in [from, to).
+     * @param toleranceMeters Drop detail smaller than this; 0 for no tolerance limit.
+     * @param maxPoints Never return more points than this (at least 2).
+     * @throws java.util.concurrent.RejectedExecutionException When gps.analytics.track.max-concurrent tracks are
+     * already being built.
+     */
+    SimplifiedTrackResponse getSimplifiedTrack(String publisherId, LocalDateTime from, LocalDateTime to,
+                                               double toleranceMeters, int maxPoints);
+
+    /**
+     * Trips and stops in [from, to), in one pass over the points. A trip or stop still running at 'to' is returned with open=true.
+     */
+    TripSegmentsResponse segmentTrips(String publisherId, LocalDateTime from, LocalDateTime to);
+}
@@ -1,54 +1,203 @@
 package com.chinmay.gpsservice.service.AnalyticsService;
 
-import com.chinmay.gpsservice.entity.GpsRecord;
+import com.chinmay.gpsservice.dto.RoutePoint;
+import com.chinmay.gpsservice.dto.SimplifiedTrackResponse;
+import com.chinmay.gpsservice.dto.Stop;
+import com.chinmay.gpsservice.dto.TrackPoint;
+import com.chinmay.gpsservice.dto.Trip;
+import com.chinmay.gpsservice.dto.TripSegmentsResponse;
+import com.chinmay.gpsservice.hotstore.HotTrackStore;
 import com.chinmay.gpsservice.repository.GpsRecordRepository;
-import com.chinmay.gpsservice.util.HaversineUtil;
-import lombok.RequiredArgsConstructor;
+import com.chinmay.gpsservice.util.RouteDistanceAccumulator;
+import com.chinmay.gpsservice.util.TrackBuffer;
+import com.chinmay.gpsservice.util.TrackSimplifier;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
-@RequiredArgsConstructor // Lombok generates a constructor for 'final' fields automatically!
 public class GpsAnalyticsServiceImpl implements GpsAnalyticsService {
 
+    // Track simplification: raw points closer than this to the previous kept one are dropped while streaming
+    // (below GPS accuracy, and it removes parked stretches), and no more than this many are simplified per request
+    // (~8 MB of arrays with the significance)
+    private static final double TRACK_PREFILTER_METERS = 5.0;
+    private static final int MAX_TRACK_SOURCE_POINTS = 250_000;
+
     private final GpsRecordRepository repository;
+    private final DistanceBucketService distanceBucketService;
+    private final HotTrackStore hotTrackStore;
+    // Programmatic so that ranges answered from memory never check out a database connection
+    private final TransactionTemplate readOnlyTransaction;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary pointsScanned;
+    private final TripSegmenter.Settings tripSettings;
+    // Bounds the memory and CPU of simplifications running at once; a request over the limit is rejected, not queued
+    private final Semaphore trackPermits;
+
+    public GpsAnalyticsServiceImpl(GpsRecordRepository repository, DistanceBucketService distanceBucketService,
+                                   HotTrackStore hotTrackStore, PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry, TripSegmenter.Settings tripSettings,
+                                   @Value("${gps.analytics.track.max-concurrent:4}") int maxConcurrentTracks) {
+        if (maxConcurrentTracks < 1) {
+            throw new IllegalArgumentException("gps.analytics.track.max-concurrent must be at least 1.");
+        }
+        this.repository = repository;
+        this.distanceBucketService = distanceBucketService;
+        this.hotTrackStore = hotTrackStore;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+        this.pointsScanned = DistributionSummary.builder("gps.analytics.points.scanned")
+                .description("Raw points streamed from MySQL per distance query")
+                .baseUnit("points")
+                .register(meterRegistry);
+        this.tripSettings = tripSettings;
+        this.trackPermits = new Semaphore(maxConcurrentTracks);
+    }
+
+    // Where a distance was answered from, for the gps.analytics.distance timer
+    private record Result(double distanceKm, String source) {
+    }
 
     @Override
-    @Transactional(readOnly = true)
     public double calculateTotalDistance(String publisherId, LocalDateTime from, LocalDateTime to) {
         log.info("Calculating route distance for publisher: {} from {} to {}", publisherId, from, to);
+        Timer.Sample sample = Timer.start(meterRegistry);
 
-        // 1. Fetch the chronologically sorted route
-        List<GpsRecord> route = repository.findByPublisherIdAndTimestampBetweenOrderByTimestampAsc(
-                publisherId, from, to);
+        // Recent ranges are answered entirely from the in-memory hot tier
+        Optional<Double> hot = hotTrackStore.calculateDistance(publisherId, from, to);
+        Result result;
+        if (hot.isPresent()) {
+            log.info("Total distance for {} (hot store): {} km", publisherId, hot.get());
+            result = new Result(hot.get(), "memory");
+        } else {
+            result = readOnlyTransaction.execute(status -> calculateFromDatabase(publisherId, from, to));
+        }
+        sample.stop(Timer.builder("gps.analytics.distance")
+                .description("Route distance query time, by where it was answered")
+                .tag("source", result != null ? result.source() : "database")
+                .register(meterRegistry));
+        return result != null ? result.distanceKm() : 0.0;
+    }
+
+    private Result calculateFromDatabase(String publisherId, LocalDateTime from, LocalDateTime to) {
+        // 0. Prefer the pre-aggregated buckets: O(buckets) instead of O(points)
+        Optional<Double> aggregated = distanceBucketService.calculateDistance(publisherId, from, to);
+        if (aggregated.isPresent()) {
+            return new Result(aggregated.get(), "buckets");
+        }
+
+        // 1. Stream the chronologically sorted coordinates and fold them into the total as they arrive.
+        //    No entity or full route list is ever held in memory.
+        RouteDistanceAccumulator accumulator = new RouteDistanceAccumulator();
+        try (Stream<RoutePoint> route = repository.streamRoutePoints(publisherId, from, to)) {
+            route.forEach(point -> accumulator.add(point.latitude(), point.longitude()));
+        }
+        pointsScanned.record(accumulator.getPointCount());
 
         // 2. Base case: If 0 or 1 points exist, no distance was traveled
-        if (route == null || route.size() < 2) {
+        if (accumulator.getPointCount() < 2) {
             log.info("Not enough data points to calculate distance for {}", publisherId);
-            return 0.0;
+            return new Result(0.0, "database");
         }
 
-        double totalDistanceKm = 0.0;
+        double totalDistanceKm = accumulator.getTotalDistanceKm();
+        log.info("Total distance for {}: {} km", publisherId, totalDistanceKm);
+        return new Result(totalDistanceKm, "database");
+    }
+
+    @Override
+    public SimplifiedTrackResponse getSimplifiedTrack(String publisherId, LocalDateTime from, LocalDateTime to,
+                                                      double toleranceMeters, int maxPoints) {
+        if (!trackPermits.tryAcquire()) {
+            throw new RejectedExecutionException("Too many simplified tracks are being built; retry shortly.");
+        }
+        try {
+            return buildSimplifiedTrack(publisherId, from, to, toleranceMeters, maxPoints);
+        } finally {
+            trackPermits.release();
+        }
+    }
 
-        // 3. Connect the dots: Compare point [i] to point [i-1]
-        for (int i = 1; i < route.size(); i++) {
-            GpsRecord prev = route.get(i - 1);
-            GpsRecord curr = route.get(i);
+    private SimplifiedTrackResponse buildSimplifiedTrack(String publisherId, LocalDateTime from, LocalDateTime to,
+                                                         double toleranceMeters, int maxPoints) {
+        double prefilterMeters = toleranceMeters > 0 ? Math.min(TRACK_PREFILTER_METERS, toleranceMeters) : TRACK_PREFILTER_METERS;
+        TrackBuffer buffer = new TrackBuffer(prefilterMeters / 1000, MAX_TRACK_SOURCE_POINTS);
+        String source = "memory";
+        if (!hotTrackStore.forEachPoint(publisherId, from, to, false, buffer::add)) {
+            source = "database";
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<TrackPoint> points = repository.streamTrackPoints(publisherId, from, to)) {
+                    points.forEach(point -> buffer.add(point.timestamp().toInstant(ZoneOffset.UTC).toEpochMilli(),
+                            point.latitude(), point.longitude()));
+                }
+            });
+        }
+        buffer.finish();
 
-            double segmentDistance = HaversineUtil.calculateDistance(
-                    prev.getLatitude(), prev.getLongitude(),
-                    curr.getLatitude(), curr.getLongitude()
-            );
+        int count = buffer.size();
+        double[] significance = TrackSimplifier.significance(buffer.getLatitudes(), buffer.getLongitudes(), count);
+        int[] kept = TrackSimplifier.select(significance, count, toleranceMeters / 1000, maxPoints);
+        double maxErrorMeters = TrackSimplifier.maxError(buffer.getLatitudes(), buffer.getLongitudes(), count, kept) * 1000;
+        if (count < buffer.getSeen()) {
+            maxErrorMeters = Math.max(maxErrorMeters, prefilterMeters); // detail the pre-filter dropped
+        }
 
-            totalDistanceKm += segmentDistance;
+        List<TrackPoint> points = new ArrayList<>(kept.length);
+        for (int index : kept) {
+            points.add(new TrackPoint(HotTrackStore.fromEpochMillis(buffer.getTimestamps()[index]),
+                    buffer.getLatitudes()[index], buffer.getLongitudes()[index]));
         }
+        log.debug("Track for {}: {} raw points, {} after pre-filter, {} returned (max error {} m).",
+                publisherId, buffer.getSeen(), count, points.size(), maxErrorMeters);
+        return new SimplifiedTrackResponse(publisherId, source, buffer.getSeen(), buffer.isTruncated(), maxErrorMeters, points);
+    }
 
-        log.info("Total distance for {}: {} km", publisherId, totalDistanceKm);
-        return totalDistanceKm;
+    @Override
+    public TripSegmentsResponse segmentTrips(String publisherId, LocalDateTime from, LocalDateTime to) {
+        List<Trip> trips = new ArrayList<>();
+        List<Stop> stops = new ArrayList<>();
+        TripSegmenter.Listener collector = new TripSegmenter.Listener() {
+            @Override
+            public void onTrip(Trip trip) {
+                trips.add(trip);
+            }
+
+            @Override
+            public void onStop(Stop stop) {
+                stops.add(stop);
+            }
+        };
+        // Only the segments are kept; points are folded in as they come off the hot store or the cursor
+        TripSegmenter segmenter = new TripSegmenter(tripSettings, collector);
+        String source = "memory";
+        if (!hotTrackStore.forEachPoint(publisherId, from, to, false, segmenter::add)) {
+            source = "database";
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<TrackPoint> points = repository.streamTrackPoints(publisherId, from, to)) {
+                    points.forEach(point -> segmenter.add(point.timestamp().toInstant(ZoneOffset.UTC).toEpochMilli(),
+                            point.latitude(), point.longitude()));
+                }
+            });
+        }
+        segmenter.reportOpen(collector);
+        log.debug("Trips for {}: {} trips, {} stops from {}.", publisherId, trips.size(), stops.size(), source);
+        return new TripSegmentsResponse(publisherId, source, trips, stops);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,206 @@
+package com.chinmay.gpsservice.service.AnalyticsService;
+
+import com.chinmay.gpsservice.dto.Stop;
+import com.chinmay.gpsservice.dto.Trip;
+import com.chinmay.gpsservice.hotstore.HotTrackStore;
+import com.chinmay.gpsservice.util.HaversineUtil;
+
+/**
+ * Single-pass trip/stop segmentation of one publisher's time-ordered points, in O(1) memory.
+ * <p>
+ * A stop is a dwell: every point stayed within stopRadiusKm of the dwell's first point (the anchor) for at
+ * least minStopMillis. Everything between stops is a trip. Until a dwell proves long enough, its points are
+ * counted into the current trip, and a copy of the trip as it was on arrival is kept: if the dwell turns out
+ * to be a stop, the trip is closed from that copy, so parking jitter never adds distance.
+ * A gap longer than maxGapMillis that ends away from the anchor closes the trip without a stop.
+ * Points not newer than the previous one, and points implying more than maxSpeedKmh (GPS glitches), are skipped.
+ * <p>
+ * Not thread-safe; feed one publisher's points from one thread (or under a lock).
+ */
+public class TripSegmenter {
+
+    /**
+     * @param idleSpeedKmh Segments slower than this count as idle time within a trip.
+     */
+    public record Settings(double stopRadiusKm, long minStopMillis, double idleSpeedKmh, double maxSpeedKmh, long maxGapMillis) {
+    }
+
+    public interface Listener {
+        void onTrip(Trip trip);
+
+        void onStop(Stop stop);
+    }
+
+    // Running totals of a trip; copied when a dwell starts
+    private static final class TripStats {
+        long startTime;
+        double startLatitude;
+        double startLongitude;
+        long endTime;
+        double endLatitude;
+        double endLongitude;
+        double distanceKm;
+        long movingMillis;
+        long idleMillis;
+        double maxSpeedKmh;
+        int points;
+
+        TripStats(long time, double latitude, double longitude) {
+            startTime = endTime = time;
+            startLatitude = endLatitude = latitude;
+            startLongitude = endLongitude = longitude;
+            points = 1;
+        }
+
+        TripStats copy() {
+            TripStats copy = new TripStats(startTime, startLatitude, startLongitude);
+            copy.endTime = endTime;
+            copy.endLatitude = endLatitude;
+            copy.endLongitude = endLongitude;
+            copy.distanceKm = distanceKm;
+            copy.movingMillis = movingMillis;
+            copy.idleMillis = idleMillis;
+            copy.maxSpeedKmh = maxSpeedKmh;
+            copy.points = points;
+            return copy;
+        }
+    }
+
+    private final Settings settings;
+    private final Listener listener;
+
+    private boolean started;
+    private long lastTime;
+    private double lastLatitude;
+    private double lastLongitude;
+
+    private long anchorTime;
+    private double anchorLatitude;
+    private double anchorLongitude;
+    private long anchorLastTime; // newest point still within the stop radius of the anchor
+
+    private TripStats trip;
+    private TripStats tripAtAnchor;
+
+    public TripSegmenter(Settings settings, Listener listener) {
+        this.settings = settings;
+        this.listener = listener;
+    }
+
+    /**
+     * @param epochMillis HotTrackStore.toEpochMillis convention (the LocalDateTime read as UTC).
+     * @return false if the point was skipped (out of order or implausible).
+     */
+    public boolean add(long epochMillis, double latitude, double longitude) {
+        if (!started) {
+            started = true;
+            trip = new TripStats(epochMillis, latitude, longitude);
+            startAnchor(epochMillis, latitude, longitude);
+            setLast(epochMillis, latitude, longitude);
+            return true;
+        }
+        if (epochMillis <= lastTime) {
+            return false;
+        }
+        long elapsedMillis = epochMillis - lastTime;
+        double segmentKm = HaversineUtil.calculateDistance(lastLatitude, lastLongitude, latitude, longitude);
+        double speedKmh = segmentKm / (elapsedMillis / 3_600_000.0);
+        if (speedKmh > settings.maxSpeedKmh()) {
+            return false;
+        }
+
+        boolean withinStop = HaversineUtil.calculateDistance(anchorLatitude, anchorLongitude, latitude, longitude) <= settings.stopRadiusKm();
+        if (withinStop) {
+            extendTrip(trip, epochMillis, latitude, longitude, segmentKm, elapsedMillis, speedKmh);
+            anchorLastTime = epochMillis;
+        } else {
+            if (anchorLastTime - anchorTime >= settings.minStopMillis()) {
+                // The dwell was a stop: the trip ended on arrival, and a new one starts at the last point inside it
+                emitTrip(tripAtAnchor, false);
+                listener.onStop(stop(false));
+                trip = new TripStats(lastTime, lastLatitude, lastLongitude);
+            }
+            if (elapsedMillis > settings.maxGapMillis()) {
+                // Lost track of the vehicle: close what we have rather than drawing a straight line across the gap
+                emitTrip(trip, false);
+                trip = new TripStats(epochMillis, latitude, longitude);
+            } else {
+                extendTrip(trip, epochMillis, latitude, longitude, segmentKm, elapsedMillis, speedKmh);
+            }
+            startAnchor(epochMillis, latitude, longitude);
+        }
+        setLast(epochMillis, latitude, longitude);
+        return true;
+    }
+
+    /**
+     * Reports the trip or stop still in progress (with open=true) to the given listener, without changing state,
+     * so it can be called again as more points arrive.
+     */
+    public void reportOpen(Listener target) {
+        if (!started) {
+            return;
+        }
+        if (anchorLastTime - anchorTime >= settings.minStopMillis()) {
+            if (isTrip(tripAtAnchor)) {
+                target.onTrip(trip(tripAtAnchor, false));
+            }
+            target.onStop(stop(true));
+        } else if (isTrip(trip)) {
+            target.onTrip(trip(trip, true));
+        }
+    }
+
+    private void startAnchor(long time, double latitude, double longitude) {
+        anchorTime = anchorLastTime = time;
+        anchorLatitude = latitude;
+        anchorLongitude = longitude;
+        tripAtAnchor = trip.copy();
+    }
+
+    private void setLast(long time, double latitude, double longitude) {
+        lastTime = time;
+        lastLatitude = latitude;
+        lastLongitude = longitude;
+    }
+
+    private void extendTrip(TripStats stats, long time, double latitude, double longitude,
+                            double segmentKm, long elapsedMillis, double speedKmh) {
+        stats.endTime = time;
+        stats.endLatitude = latitude;
+        stats.endLongitude = longitude;
+        stats.distanceKm += segmentKm;
+        if (speedKmh < settings.idleSpeedKmh()) {
+            stats.idleMillis += elapsedMillis;
+        } else {
+            stats.movingMillis += elapsedMillis;
+        }
+        stats.maxSpeedKmh = Math.max(stats.maxSpeedKmh, speedKmh);
+        stats.points++;
+    }
+
+    // Jitter around a stop, or a single point, is not a trip
+    private boolean isTrip(TripStats stats) {
+        return stats.points > 1 && stats.distanceKm >= settings.stopRadiusKm();
+    }
+
+    private void emitTrip(TripStats stats, boolean open) {
+        if (isTrip(stats)) {
+            listener.onTrip(trip(stats, open));
+        }
+    }
+
+    private static Trip trip(TripStats stats, boolean open) {
+        long durationMillis = stats.endTime - stats.startTime;
+        double averageSpeedKmh = durationMillis > 0 ? stats.distanceKm / (durationMillis / 3_600_000.0) : 0.0;
+        return new Trip(HotTrackStore.fromEpochMillis(stats.startTime), HotTrackStore.fromEpochMillis(stats.endTime),
+                stats.startLatitude, stats.startLongitude, stats.endLatitude, stats.endLongitude,
+                stats.distanceKm, durationMillis / 1000, stats.movingMillis / 1000, stats.idleMillis / 1000,
+                averageSpeedKmh, stats.maxSpeedKmh, stats.points, open);
+    }
+
+    private Stop stop(boolean open) {
+        return new Stop(HotTrackStore.fromEpochMillis(anchorTime), HotTrackStore.fromEpochMillis(anchorLastTime),
+                anchorLatitude, anchorLongitude, (anchorLastTime - anchorTime) / 1000, open);
+    }
+}
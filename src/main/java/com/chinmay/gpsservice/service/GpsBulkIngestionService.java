@@ -0,0 +1,157 @@
+package com.chinmay.gpsservice.service;
+
+import com.chinmay.gpsservice.dto.BulkIngestResult;
+import com.chinmay.gpsservice.dto.ExtendedGpsInput;
+import com.chinmay.gpsservice.messaging.GpsMessagePublisher;
+import com.chinmay.gpsservice.messaging.WireFormat;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a JSON array or NDJSON body of ExtendedGpsInput items, validates each one, and publishes the valid ones
+ * in batches: a whole batch is sent before waiting for its publisher confirms, so the broker round trip is paid
+ * once per batch instead of once per point. Memory is bounded by the batch size, not the body size.
+ */
+@Service
+@Slf4j
+public class GpsBulkIngestionService {
+
+    private final GpsMessagePublisher gpsMessagePublisher;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int maxItems;
+    private final int batchSize;
+    private final long confirmTimeoutMs;
+
+    public GpsBulkIngestionService(GpsMessagePublisher gpsMessagePublisher, ObjectMapper objectMapper, Validator validator,
+                                   @Value("${gps.ingest.bulk.max-items:10000}") int maxItems,
+                                   @Value("${gps.ingest.bulk.publish-batch-size:500}") int batchSize,
+                                   @Value("${gps.ingest.bulk.confirm-timeout-ms:5000}") long confirmTimeoutMs) {
+        this.gpsMessagePublisher = gpsMessagePublisher;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.maxItems = maxItems;
+        this.batchSize = batchSize;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+    }
+
+    private record PendingItem(int index, ExtendedGpsInput input) {
+    }
+
+    public BulkIngestResult ingest(InputStream body, WireFormat wireFormat) {
+        List<BulkIngestResult.ItemError> errors = new ArrayList<>();
+        List<PendingItem> batch = new ArrayList<>(batchSize);
+        int received = 0;
+        int accepted = 0;
+        int rejected = 0;
+        String abortedReason = null;
+
+        // A root-level array is unwrapped element by element; NDJSON is a sequence of root values
+        try (MappingIterator<JsonNode> items = objectMapper.readerFor(JsonNode.class).readValues(body)) {
+            while (items.hasNextValue()) {
+                if (received == maxItems) {
+                    abortedReason = "More than " + maxItems + " items; the rest of the body was ignored.";
+                    break;
+                }
+                JsonNode item = items.nextValue();
+                int index = received++;
+                String error = null;
+                ExtendedGpsInput input = null;
+                try {
+                    input = objectMapper.treeToValue(item, ExtendedGpsInput.class);
+                    error = validate(input);
+                } catch (JsonProcessingException e) {
+                    error = "Invalid item: " + e.getOriginalMessage();
+                }
+                if (error != null) {
+                    rejected++;
+                    errors.add(new BulkIngestResult.ItemError(index, item.path("publisherId").asText(null), error));
+                    continue;
+                }
+                batch.add(new PendingItem(index, input));
+                if (batch.size() == batchSize) {
+                    accepted += publishBatch(batch, wireFormat, errors);
+                    batch.clear();
+                }
+            }
+        } catch (IOException e) {
+            abortedReason = "Malformed body after item " + received + ": " + e.getMessage();
+        }
+        if (!batch.isEmpty()) { // items read before a parse failure are still published
+            accepted += publishBatch(batch, wireFormat, errors);
+        }
+
+        errors.sort(Comparator.comparingInt(BulkIngestResult.ItemError::index));
+        int failed = received - accepted - rejected;
+        log.info("Bulk Ingestion: {} items received, {} accepted, {} rejected, {} failed{}.",
+                received, accepted, rejected, failed, abortedReason != null ? " (aborted: " + abortedReason + ")" : "");
+        return new BulkIngestResult(received, accepted, rejected, failed, errors, abortedReason);
+    }
+
+    private String validate(ExtendedGpsInput input) {
+        Set<ConstraintViolation<ExtendedGpsInput>> violations = validator.validate(input);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    /**
+     * Sends every item of the batch, then waits for all confirms against one shared deadline.
+     * @return Number of confirmed items; the others are added to errors.
+     */
+    private int publishBatch(List<PendingItem> batch, WireFormat wireFormat, List<BulkIngestResult.ItemError> errors) {
+        List<CompletableFuture<Void>> confirms = new ArrayList<>(batch.size());
+        for (PendingItem item : batch) {
+            try {
+                confirms.add(gpsMessagePublisher.publishConfirmed(item.input(), wireFormat));
+            } catch (Exception e) {
+                confirms.add(CompletableFuture.failedFuture(e));
+            }
+        }
+
+        int confirmed = 0;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(confirmTimeoutMs);
+        for (int i = 0; i < batch.size(); i++) {
+            PendingItem item = batch.get(i);
+            String error = null;
+            try {
+                confirms.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                confirmed++;
+            } catch (TimeoutException e) {
+                error = "Not confirmed by the broker within " + confirmTimeoutMs + " ms.";
+            } catch (ExecutionException e) {
+                error = "Publish failed: " + e.getCause().getMessage();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                error = "Interrupted while waiting for the broker.";
+            }
+            if (error != null) {
+                errors.add(new BulkIngestResult.ItemError(item.index(), item.input().getPublisherId(), error));
+            }
+        }
+        return confirmed;
+    }
+}
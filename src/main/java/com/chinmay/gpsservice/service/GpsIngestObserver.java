@@ -0,0 +1,19 @@
+package com.chinmay.gpsservice.service;
+
+import com.chinmay.gpsservice.entity.GpsRecord;
+
+import java.util.List;
+
+/**
+ * Hook for in-memory structures that follow the ingest stream (position caches, indexes, ...).
+ * Every GpsIngestObserver bean is called by GpsService after the records' transaction commits,
+ * so observers never see data that was rolled back. Records may arrive out of timestamp order.
+ */
+public interface GpsIngestObserver {
+
+    /**
+     * Called with newly persisted records. Must be fast and must not throw.
+     * @param records The committed records.
+     */
+    void onRecordsSaved(List<GpsRecord> records);
+}
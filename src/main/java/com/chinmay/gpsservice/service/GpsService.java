@@ -1,10 +1,13 @@
 package com.chinmay.gpsservice.service;
 
 import com.chinmay.gpsservice.dto.ExtendedGpsInput; // Your input dto
+import com.chinmay.gpsservice.dto.GpsRecordPage;
+import com.chinmay.gpsservice.dto.TrackPoint;
 import com.chinmay.gpsservice.entity.GpsRecord;   // Your entity
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface GpsService {
 
@@ -16,6 +19,23 @@ public interface GpsService {
      */
     GpsRecord saveGpsData(ExtendedGpsInput gpsInput);
 
+    /**
+     * Maps the GPS input to a (not yet persisted) GpsRecord entity.
+     * @param gpsInput The GPS data to map.
+     * @return A new GpsRecord without an ID.
+     * @throws IllegalArgumentException if the input is invalid.
+     */
+    GpsRecord mapToGpsRecord(ExtendedGpsInput gpsInput);
+
+    /**
+     * Persists already-mapped records in a single transaction using a JDBC batch insert.
+     * Either all records are stored or none are. On rollback the records' ids are cleared again,
+     * so the same instances can be passed back in to retry.
+     * @param records The records to save.
+     * @return The number of records saved.
+     */
+    int saveGpsRecords(List<GpsRecord> records);
+
     /**
      * Retrieves all GPS records from the database.
      * @return A list of all GpsRecord entities.
@@ -30,6 +50,40 @@ public interface GpsService {
      */
     List<GpsRecord> getGpsDataByPublisherId(String publisherId);
 
+    /**
+     * Retrieves one page of all GPS records in ID order (keyset pagination).
+     * @param cursor The nextCursor of the previous page, or null for the first page.
+     * @param limit The maximum number of records to return.
+     * @return The page, with a nextCursor if more records may follow.
+     * @throws IllegalArgumentException if the cursor is malformed.
+     */
+    GpsRecordPage getGpsDataPage(String cursor, int limit);
+
+    /**
+     * Retrieves one page of a publisher's GPS records in (timestamp, id) order (keyset pagination).
+     * @param publisherId The ID of the publisher.
+     * @param cursor The nextCursor of the previous page, or null for the first page.
+     * @param limit The maximum number of records to return.
+     * @return The page, with a nextCursor if more records may follow.
+     * @throws IllegalArgumentException if the publisherId is empty or the cursor is malformed.
+     */
+    GpsRecordPage getGpsDataPageByPublisherId(String publisherId, String cursor, int limit);
+
+    /**
+     * Streams GPS records to the given consumer as they are read from the database,
+     * holding only one record in memory at a time.
+     * @param publisherId The publisher to stream (in timestamp order), or null for all records (in ID order).
+     * @param consumer Receives each record.
+     * @return The number of records streamed.
+     */
+    long streamGpsData(String publisherId, Consumer<GpsRecord> consumer);
+
+    /**
+     * Reads a publisher's points in [from, to) from the database, oldest first.
+     * @param maxPoints Stops reading after this many points.
+     */
+    List<TrackPoint> getTrackPoints(String publisherId, LocalDateTime from, LocalDateTime to, int maxPoints);
+
     // You might add other methods later, such as:
     // GpsRecord getGpsDataById(Long id);
     // void deleteGpsData(Long id);
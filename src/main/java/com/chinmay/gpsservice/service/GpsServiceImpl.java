@@ -2,34 +2,79 @@ package com.chinmay.gpsservice.service;
 
 import com.chinmay.gpsservice.dto.ExtendedGpsInput;
 import com.chinmay.gpsservice.dto.GpsData;
+import com.chinmay.gpsservice.dto.GpsRecordPage;
+import com.chinmay.gpsservice.dto.TrackPoint;
+import com.chinmay.gpsservice.entity.GpsDistanceBucket;
+import com.chinmay.gpsservice.entity.GpsDistanceBucketLock;
 import com.chinmay.gpsservice.entity.GpsRecord;
 import com.chinmay.gpsservice.repository.GpsRecordRepository;
+import com.chinmay.gpsservice.service.AnalyticsService.DistanceBucketService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger; // For logging
 import org.slf4j.LoggerFactory; // For logging
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service // Marks this class as a Spring service component, making it eligible for dependency injection
 public class GpsServiceImpl implements GpsService {
 
     private static final Logger log = LoggerFactory.getLogger(GpsServiceImpl.class); // Logger instance
+    private static final String CURSOR_SEPARATOR = "_";
+    // Attempts per write when concurrent consumers collide on the same publisher's distance buckets
+    private static final int MAX_BUCKET_CONFLICT_ATTEMPTS = 3;
 
     private final GpsRecordRepository gpsRecordRepository; // Dependency
+    private final DistanceBucketService distanceBucketService; // Keeps the per-publisher distance aggregates current
+    private final List<GpsIngestObserver> ingestObservers; // In-memory views fed after commit
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate writeTransaction;
 
     @Autowired // Constructor injection is the recommended way to inject dependencies
-    public GpsServiceImpl(GpsRecordRepository gpsRecordRepository) {
+    public GpsServiceImpl(GpsRecordRepository gpsRecordRepository, DistanceBucketService distanceBucketService,
+                          List<GpsIngestObserver> ingestObservers, MeterRegistry meterRegistry,
+                          PlatformTransactionManager transactionManager) {
         this.gpsRecordRepository = gpsRecordRepository;
+        this.distanceBucketService = distanceBucketService;
+        this.ingestObservers = ingestObservers;
+        this.meterRegistry = meterRegistry;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
     }
 
     @Override
-    @Transactional // Ensures this method runs within a database transaction. If an error occurs, changes are rolled back.
     public GpsRecord saveGpsData(ExtendedGpsInput gpsInput) {
-        log.info("Service: Mapping and saving GPS record for publisher: {}", gpsInput.getPublisherId());
+        log.debug("Service: Mapping and saving GPS record for publisher: {}", gpsInput.getPublisherId());
 
+        GpsRecord record = mapToGpsRecord(gpsInput);
+        return inWriteTransaction(status -> {
+            timeUntilCompletion("single");
+            clearIdsOnRollback(List.of(record));
+            GpsRecord savedRecord = gpsRecordRepository.save(record);
+            distanceBucketService.recordPoint(savedRecord); // same transaction, so aggregates and raw rows commit together
+            notifyObserversAfterCommit(List.of(savedRecord));
+            return savedRecord;
+        });
+    }
+
+    @Override
+    public GpsRecord mapToGpsRecord(ExtendedGpsInput gpsInput) {
         GpsData data = gpsInput.getGpsData();
 
         // 1. Map dto to Entity
@@ -45,11 +90,24 @@ public class GpsServiceImpl implements GpsService {
         try {
             record.setTimestamp(LocalDateTime.parse(data.getTimeStamp()));
         } catch (DateTimeParseException e) {
-            log.error("Invalid timestamp format '{}' for publisher: {}", data.getTimeStamp(), gpsInput.getPublisherId());
+            log.debug("Invalid timestamp format '{}' for publisher: {}", data.getTimeStamp(), gpsInput.getPublisherId());
             throw new IllegalArgumentException("Invalid timestamp format.", e);
         }
 
-        return gpsRecordRepository.save(record);
+        return record;
+    }
+
+    @Override
+    public int saveGpsRecords(List<GpsRecord> records) {
+        return inWriteTransaction(status -> {
+            timeUntilCompletion("batch");
+            clearIdsOnRollback(records);
+            int savedCount = gpsRecordRepository.batchInsert(records);
+            distanceBucketService.recordPoints(records);
+            notifyObserversAfterCommit(records);
+            log.debug("Service: Batch-inserted {} GPS records.", savedCount);
+            return savedCount;
+        });
     }
 
     @Override
@@ -70,6 +128,73 @@ public class GpsServiceImpl implements GpsService {
         return gpsRecordRepository.findByPublisherId(publisherId);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public GpsRecordPage getGpsDataPage(String cursor, int limit) {
+        long afterId = 0L;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                afterId = Long.parseLong(cursor);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor.", e);
+            }
+        }
+        List<GpsRecord> records = gpsRecordRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit));
+        String nextCursor = records.size() < limit ? null : String.valueOf(records.get(records.size() - 1).getId());
+        return new GpsRecordPage(records, nextCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public GpsRecordPage getGpsDataPageByPublisherId(String publisherId, String cursor, int limit) {
+        if (publisherId == null || publisherId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Publisher ID cannot be null or empty for searching.");
+        }
+        List<GpsRecord> records;
+        if (cursor == null || cursor.isBlank()) {
+            records = gpsRecordRepository.findByPublisherIdOrderByTimestampAscIdAsc(publisherId, Limit.of(limit));
+        } else {
+            // Cursor format: <ISO timestamp>_<id> of the last record on the previous page
+            int separator = cursor.lastIndexOf(CURSOR_SEPARATOR);
+            try {
+                LocalDateTime afterTimestamp = LocalDateTime.parse(cursor.substring(0, separator));
+                long afterId = Long.parseLong(cursor.substring(separator + 1));
+                records = gpsRecordRepository.findPublisherPageAfter(publisherId, afterTimestamp, afterId, Limit.of(limit));
+            } catch (IndexOutOfBoundsException | DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor.", e);
+            }
+        }
+        String nextCursor = null;
+        if (records.size() == limit) {
+            GpsRecord last = records.get(records.size() - 1);
+            nextCursor = last.getTimestamp() + CURSOR_SEPARATOR + last.getId();
+        }
+        return new GpsRecordPage(records, nextCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true) // keeps the connection (and its server-side cursor) open while streaming
+    public long streamGpsData(String publisherId, Consumer<GpsRecord> consumer) {
+        try (Stream<GpsRecord> records = publisherId == null
+                ? gpsRecordRepository.streamAll()
+                : gpsRecordRepository.streamByPublisherId(publisherId)) {
+            long[] count = {0};
+            records.forEach(record -> {
+                consumer.accept(record);
+                count[0]++;
+            });
+            return count[0];
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TrackPoint> getTrackPoints(String publisherId, LocalDateTime from, LocalDateTime to, int maxPoints) {
+        try (Stream<TrackPoint> points = gpsRecordRepository.streamTrackPoints(publisherId, from, to)) {
+            return points.limit(maxPoints).toList();
+        }
+    }
+
     @Override
     @Transactional // This operation modifies the database
     public int deleteOldGpsRecords(LocalDateTime cutoffTimestamp) {
@@ -79,4 +204,131 @@ public class GpsServiceImpl implements GpsService {
         log.info("Service: Successfully deleted {} old GPS records.", deletedCount);
         return deletedCount;
     }
+
+    // Consumers storing points of the same publisher take turns on its bucket lock row, but can still collide:
+    // both creating a new publisher's lock row or bucket, a deadlock or lock wait timeout, or a stale @Version.
+    // The loser's transaction (raw rows included) is rolled back and run again after a short random pause.
+    // Inside a caller's transaction there is nothing to retry.
+    private <T> T inWriteTransaction(TransactionCallback<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return writeTransaction.execute(work);
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return writeTransaction.execute(work);
+            } catch (RuntimeException e) {
+                if (attempt == MAX_BUCKET_CONFLICT_ATTEMPTS || !isBucketConflict(e)) {
+                    throw e;
+                }
+                log.debug("Service: Distance bucket conflict (attempt {}), retrying: {}", attempt, e.getMessage());
+                try {
+                    Thread.sleep(ThreadLocalRandom.current().nextLong(1, 10L * attempt));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private static boolean isBucketConflict(RuntimeException e) {
+        if (e instanceof ConcurrencyFailureException) { // deadlock, lock wait timeout or stale @Version
+            return true;
+        }
+        if (!(e instanceof DataIntegrityViolationException)) {
+            return false;
+        }
+        // Two callers created the same bucket, or the same publisher's lock row, at once
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return isBucketConflictKey(violation.getConstraintName());
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether the violated key is the bucket unique key or the lock table's primary key. Drivers qualify the name:
+     * MySQL 8 reports "table.key", H2 "SCHEMA.KEY_INDEX_n ON SCHEMA.TABLE(COLUMNS) VALUES ...".
+     */
+    static boolean isBucketConflictKey(String constraintName) {
+        if (constraintName == null) {
+            return false;
+        }
+        String name = constraintName.replace("\"", "").replace("`", "").toLowerCase(Locale.ROOT);
+        int on = name.indexOf(" on ");
+        String key = on < 0 ? name : name.substring(0, on);
+        String table = "";
+        if (on >= 0) {
+            int columns = name.indexOf('(', on);
+            table = name.substring(on + 4, columns < 0 ? name.length() : columns);
+        } else if (key.contains(".")) {
+            table = key.substring(0, key.lastIndexOf('.'));
+        }
+        key = key.substring(key.lastIndexOf('.') + 1);
+        table = table.substring(table.lastIndexOf('.') + 1);
+        return key.startsWith(GpsDistanceBucket.UNIQUE_KEY_NAME)
+                || (table.equals(GpsDistanceBucketLock.TABLE_NAME) && key.startsWith("primary"));
+    }
+
+    // gps.db.save: from the first statement through commit or rollback, so slow commits show up too
+    private void timeUntilCompletion(String operation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                sample.stop(Timer.builder("gps.db.save")
+                        .description("Time to write and commit GPS records")
+                        .tag("operation", operation)
+                        .tag("outcome", status == STATUS_COMMITTED ? "committed" : "rolled_back")
+                        .register(meterRegistry));
+            }
+        });
+    }
+
+    // persist() assigns sequence ids that survive a rollback; a retry with those ids would be
+    // rejected as a detached entity, so hand the records back unsaved
+    private void clearIdsOnRollback(List<GpsRecord> records) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    records.forEach(record -> record.setId(null));
+                }
+            }
+        });
+    }
+
+    private void notifyObserversAfterCommit(List<GpsRecord> records) {
+        if (ingestObservers.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            notifyObservers(records);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                notifyObservers(records);
+            }
+        });
+    }
+
+    private void notifyObservers(List<GpsRecord> records) {
+        for (GpsIngestObserver observer : ingestObservers) {
+            try {
+                observer.onRecordsSaved(records);
+            } catch (Exception e) {
+                // The data is already committed; a broken observer must not fail the ingest
+                log.error("Ingest observer {} failed: {}", observer.getClass().getSimpleName(), e.getMessage(), e);
+            }
+        }
+    }
 }
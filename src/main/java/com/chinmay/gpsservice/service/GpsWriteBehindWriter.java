@@ -0,0 +1,269 @@
+package com.chinmay.gpsservice.service;
+
+import com.chinmay.gpsservice.entity.GpsRecord;
+import com.chinmay.gpsservice.util.MpscRingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.config.RabbitListenerConfigUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind buffer for queue consumers (gps.listener.mode=write-behind).
+ * Listener threads drop mapped records into a lock-free ring buffer and return; one writer thread stores them
+ * through GpsService.saveGpsRecords once gps.write-behind.flush-size records are waiting or the oldest has waited
+ * gps.write-behind.max-delay-ms. Duplicate pings (same publisherId and timestamp) in one flush are stored once.
+ * Every record's Acknowledgement runs only after its flush committed (or finally failed), so the listener acks the
+ * message then, and anything not yet flushed when the process dies is redelivered by RabbitMQ.
+ * A failed flush is retried one ping at a time, which isolates records the database rejects; it does not help when
+ * the database is unavailable, in which case every ping in the flush fails.
+ * On shutdown the buffer stops accepting and is drained before the listener containers stop.
+ */
+@Component
+@ConditionalOnProperty(name = "gps.listener.mode", havingValue = "write-behind")
+// Spring stops dependents first, so the drain (and its acks) runs while the listener channels are still open
+@DependsOn(RabbitListenerConfigUtils.RABBIT_LISTENER_ENDPOINT_REGISTRY_BEAN_NAME)
+@Slf4j
+public class GpsWriteBehindWriter implements SmartLifecycle {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    /**
+     * Called on the writer thread once the record's fate is known.
+     */
+    @FunctionalInterface
+    public interface Acknowledgement {
+        /**
+         * @param failure null if the record (or a coalesced duplicate of it) was committed.
+         */
+        void completed(Exception failure);
+    }
+
+    private record Entry(GpsRecord record, Acknowledgement acknowledgement, long enqueuedNanos) {
+    }
+
+    private record PingKey(String publisherId, LocalDateTime timestamp) {
+    }
+
+    // The stored record of one ping and every delivery that carried it
+    private static final class Ping {
+        GpsRecord record;
+        final List<Acknowledgement> acknowledgements = new ArrayList<>(1);
+    }
+
+    private final GpsService gpsService;
+    private final MpscRingBuffer<Entry> buffer;
+    private final int flushSize;
+    private final long maxDelayNanos;
+    private final long offerTimeoutNanos;
+    private final long shutdownTimeoutMs;
+    private final Thread writer;
+    private final AtomicInteger producers = new AtomicInteger(); // submit() calls in progress
+    private volatile boolean accepting = true; // entries may queue up before start(); the writer picks them up then
+
+    private final MeterRegistry meterRegistry;
+    private final Counter coalesced;
+
+    public GpsWriteBehindWriter(GpsService gpsService, MeterRegistry meterRegistry,
+                                @Value("${gps.write-behind.capacity:16384}") int capacity,
+                                @Value("${gps.write-behind.flush-size:500}") int flushSize,
+                                @Value("${gps.write-behind.max-delay-ms:50}") long maxDelayMs,
+                                @Value("${gps.write-behind.offer-timeout-ms:5000}") long offerTimeoutMs,
+                                @Value("${gps.write-behind.shutdown-timeout-ms:10000}") long shutdownTimeoutMs) {
+        if (flushSize < 1 || flushSize > capacity) {
+            throw new IllegalArgumentException("gps.write-behind.flush-size must be between 1 and gps.write-behind.capacity.");
+        }
+        this.gpsService = gpsService;
+        this.buffer = new MpscRingBuffer<>(capacity);
+        this.flushSize = flushSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        this.offerTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(offerTimeoutMs);
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        this.writer = new Thread(this::runWriter, "gps-write-behind");
+        this.writer.setDaemon(true);
+        this.meterRegistry = meterRegistry;
+        this.coalesced = Counter.builder("gps.writebehind.coalesced")
+                .description("Duplicate pings (same publisherId and timestamp) stored once by the write-behind buffer")
+                .register(meterRegistry);
+        Gauge.builder("gps.writebehind.buffered", buffer, MpscRingBuffer::size)
+                .description("Records waiting in the write-behind buffer")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a record for the next flush. Waits up to gps.write-behind.offer-timeout-ms while the buffer is full.
+     * @return false if the record was not queued (buffer still full, or shutting down); the acknowledgement is then never called.
+     */
+    public boolean submit(GpsRecord record, Acknowledgement acknowledgement) {
+        boolean queued = offer(new Entry(record, acknowledgement, System.nanoTime()));
+        if (!queued && !accepting) {
+            awaitDrained(); // hold the listener thread instead of letting it spin on requeued messages
+        }
+        return queued;
+    }
+
+    private boolean offer(Entry entry) {
+        producers.incrementAndGet(); // before reading 'accepting', so the drain waits for this offer
+        try {
+            long deadline = entry.enqueuedNanos() + offerTimeoutNanos;
+            while (accepting) {
+                if (buffer.offer(entry)) {
+                    if (buffer.size() >= flushSize) {
+                        LockSupport.unpark(writer);
+                    }
+                    return true;
+                }
+                if (System.nanoTime() - deadline > 0) {
+                    return false;
+                }
+                LockSupport.unpark(writer);
+                LockSupport.parkNanos(this, FULL_PARK_NANOS);
+            }
+            return false;
+        } finally {
+            producers.decrementAndGet();
+        }
+    }
+
+    public int getBuffered() {
+        return buffer.size();
+    }
+
+    @Override
+    public void start() {
+        if (writer.getState() == Thread.State.NEW) {
+            writer.start();
+            log.info("Write-Behind: Writer started (flush at {} records or {} ms, capacity {}).",
+                    flushSize, TimeUnit.NANOSECONDS.toMillis(maxDelayNanos), buffer.capacity());
+        }
+    }
+
+    @Override
+    public void stop() {
+        accepting = false;
+        LockSupport.unpark(writer);
+        awaitDrained();
+        if (writer.isAlive()) {
+            log.warn("Write-Behind: {} records still buffered after {} ms; they will be redelivered.", buffer.size(), shutdownTimeoutMs);
+        } else {
+            log.info("Write-Behind: Buffer drained.");
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return accepting && writer.isAlive();
+    }
+
+    private void awaitDrained() {
+        if (writer.getState() == Thread.State.NEW) {
+            return;
+        }
+        try {
+            writer.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runWriter() {
+        List<Entry> batch = new ArrayList<>(flushSize);
+        long oldestNanos = 0;
+        while (true) {
+            Entry entry;
+            while (batch.size() < flushSize && (entry = buffer.poll()) != null) {
+                if (batch.isEmpty()) {
+                    oldestNanos = entry.enqueuedNanos();
+                }
+                batch.add(entry);
+            }
+            boolean draining = !accepting;
+            long waitedNanos = System.nanoTime() - oldestNanos;
+            if (!batch.isEmpty() && (batch.size() >= flushSize || waitedNanos >= maxDelayNanos || draining)) {
+                flush(batch);
+                batch.clear();
+                continue;
+            }
+            if (draining && batch.isEmpty() && producers.get() == 0 && buffer.isEmpty()) {
+                return;
+            }
+            LockSupport.parkNanos(this, batch.isEmpty() ? IDLE_PARK_NANOS : Math.min(IDLE_PARK_NANOS, maxDelayNanos - waitedNanos));
+        }
+    }
+
+    private void flush(List<Entry> batch) {
+        Map<PingKey, Ping> pings = new LinkedHashMap<>();
+        for (Entry entry : batch) {
+            Ping ping = pings.computeIfAbsent(new PingKey(entry.record().getPublisherId(), entry.record().getTimestamp()), key -> new Ping());
+            ping.record = entry.record(); // the latest copy wins
+            ping.acknowledgements.add(entry.acknowledgement());
+        }
+        if (pings.size() < batch.size()) {
+            coalesced.increment(batch.size() - pings.size());
+        }
+
+        List<GpsRecord> records = new ArrayList<>(pings.size());
+        pings.values().forEach(ping -> records.add(ping.record));
+        if (save(records)) {
+            pings.values().forEach(ping -> acknowledge(ping, null));
+            return;
+        }
+
+        // The batch was rolled back (saveGpsRecords cleared the ids it had drawn), so store the pings one by one.
+        // A record the database rejects fails on its own; if the database itself is down, every ping fails here too.
+        log.warn("Write-Behind: Flush of {} records failed; retrying them individually.", records.size());
+        for (Ping ping : pings.values()) {
+            try {
+                gpsService.saveGpsRecords(List.of(ping.record));
+                acknowledge(ping, null);
+            } catch (Exception e) {
+                acknowledge(ping, e);
+            }
+        }
+    }
+
+    private boolean save(List<GpsRecord> records) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "stored";
+        try {
+            gpsService.saveGpsRecords(records);
+            return true;
+        } catch (Exception e) {
+            outcome = "failed";
+            log.debug("Write-Behind: Flush failed: {}", e.getMessage(), e);
+            return false;
+        } finally {
+            sample.stop(Timer.builder("gps.writebehind.flush")
+                    .description("Time to store one write-behind flush")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private void acknowledge(Ping ping, Exception failure) {
+        for (Acknowledgement acknowledgement : ping.acknowledgements) {
+            try {
+                acknowledgement.completed(failure);
+            } catch (Exception e) {
+                // Must not kill the writer; an unacked message is simply redelivered
+                log.error("Write-Behind: Acknowledgement failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.chinmay.gpsservice.service;
+
+/**
+ * How POST /api/gps/putGpsData stores a point.
+ */
+public enum IngestionMode {
+    /** Saved to MySQL on the request thread; 201 once committed. */
+    SYNC,
+    /** Published to RabbitMQ; 202 once the broker confirms. */
+    ASYNC,
+    /** SYNC while the queue is short and direct writes are few (or the broker is down), ASYNC under load. */
+    ADAPTIVE
+}
@@ -0,0 +1,184 @@
+package com.chinmay.gpsservice.service;
+
+import com.chinmay.gpsservice.config.RabbitMQConfig;
+import com.chinmay.gpsservice.config.ShardedRabbitMQConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides, per request, whether a point is written straight to MySQL or queued on RabbitMQ.
+ * The default mode (gps.ingest.mode) can be changed at runtime and overridden per request.
+ * For ADAPTIVE, a background probe reads the ingest queue depth from the broker every
+ * gps.ingest.adaptive.probe-interval-ms; a failed probe (or a failed publish) marks the broker unavailable,
+ * so later ADAPTIVE requests write directly until the next successful probe.
+ * Counts which path each request took, per requested mode.
+ */
+@Component
+@Slf4j
+public class IngestionModeRouter {
+
+    public enum Route {DIRECT, QUEUED}
+
+    private final AmqpAdmin amqpAdmin;
+    private final List<String> ingestQueues;
+    private final long queueDepthThreshold;
+    private final int maxDirectInFlight;
+
+    private volatile IngestionMode defaultMode;
+    private volatile boolean brokerAvailable = true;
+    private volatile long queueDepth;
+    private final AtomicInteger directInFlight = new AtomicInteger();
+    private final Map<IngestionMode, Map<Route, LongAdder>> routeCounts = new EnumMap<>(IngestionMode.class);
+    private final LongAdder brokerFailures = new LongAdder();
+
+    public IngestionModeRouter(AmqpAdmin amqpAdmin,
+                               @Value("${gps.ingest.mode:ASYNC}") IngestionMode defaultMode,
+                               @Value("${gps.ingest.adaptive.queue-depth-threshold:1000}") long queueDepthThreshold,
+                               @Value("${gps.ingest.adaptive.max-direct-in-flight:8}") int maxDirectInFlight,
+                               @Value("${gps.sharding.enabled:false}") boolean shardingEnabled,
+                               @Value("${gps.sharding.shards:4}") int shardCount) {
+        this.amqpAdmin = amqpAdmin;
+        this.defaultMode = defaultMode;
+        this.queueDepthThreshold = queueDepthThreshold;
+        this.maxDirectInFlight = maxDirectInFlight;
+        this.ingestQueues = new ArrayList<>();
+        if (shardingEnabled) {
+            for (int shard = 0; shard < shardCount; shard++) {
+                ingestQueues.add(ShardedRabbitMQConfig.shardQueueName(shard));
+            }
+        } else {
+            ingestQueues.add(RabbitMQConfig.GPS_DATA_QUEUE_NAME);
+        }
+        for (IngestionMode mode : IngestionMode.values()) {
+            Map<Route, LongAdder> counts = new EnumMap<>(Route.class);
+            for (Route route : Route.values()) {
+                counts.put(route, new LongAdder());
+            }
+            routeCounts.put(mode, counts);
+        }
+    }
+
+    /**
+     * @param requested null for the deployment default.
+     */
+    public IngestionMode resolveMode(IngestionMode requested) {
+        return requested != null ? requested : defaultMode;
+    }
+
+    /**
+     * Picks the path for one request and counts it.
+     */
+    public Route route(IngestionMode mode) {
+        Route route = switch (mode) {
+            case SYNC -> Route.DIRECT;
+            case ASYNC -> Route.QUEUED;
+            case ADAPTIVE -> adaptiveRoute();
+        };
+        routeCounts.get(mode).get(route).increment();
+        return route;
+    }
+
+    private Route adaptiveRoute() {
+        if (!brokerAvailable) {
+            return Route.DIRECT; // nothing to queue on
+        }
+        if (queueDepth >= queueDepthThreshold || directInFlight.get() >= maxDirectInFlight) {
+            return Route.QUEUED; // consumers are behind or the database is busy: let the queue absorb the load
+        }
+        return Route.DIRECT;
+    }
+
+    // Brackets a direct write so ADAPTIVE can see how many are running
+    public void directWriteStarted() {
+        directInFlight.incrementAndGet();
+    }
+
+    public void directWriteFinished() {
+        directInFlight.decrementAndGet();
+    }
+
+    // A publish the broker refused or never took: ADAPTIVE writes directly until the next successful probe
+    public void reportBrokerFailure() {
+        if (brokerAvailable) {
+            log.warn("Ingestion Mode: Publish failed; adaptive ingestion writes directly until the broker is reachable.");
+        }
+        brokerFailures.increment();
+        brokerAvailable = false;
+    }
+
+    @Scheduled(fixedDelayString = "${gps.ingest.adaptive.probe-interval-ms:1000}")
+    public void probeBroker() {
+        long depth = 0;
+        try {
+            for (String queue : ingestQueues) {
+                QueueInformation info = amqpAdmin.getQueueInfo(queue);
+                if (info != null) {
+                    depth += info.getMessageCount();
+                }
+            }
+        } catch (Exception e) {
+            if (brokerAvailable) {
+                log.warn("Ingestion Mode: Broker unavailable ({}); adaptive ingestion writes directly.", e.getMessage());
+            }
+            brokerAvailable = false;
+            return;
+        }
+        if (!brokerAvailable) {
+            log.info("Ingestion Mode: Broker reachable again.");
+        }
+        queueDepth = depth;
+        brokerAvailable = true;
+    }
+
+    public IngestionMode getDefaultMode() {
+        return defaultMode;
+    }
+
+    public void setDefaultMode(IngestionMode mode) {
+        log.info("Ingestion Mode: Default changed from {} to {}.", defaultMode, mode);
+        this.defaultMode = mode;
+    }
+
+    public boolean isBrokerAvailable() {
+        return brokerAvailable;
+    }
+
+    public long getQueueDepth() {
+        return queueDepth;
+    }
+
+    public int getDirectInFlight() {
+        return directInFlight.get();
+    }
+
+    public long getBrokerFailures() {
+        return brokerFailures.sum();
+    }
+
+    public long getRouteCount(IngestionMode mode, Route route) {
+        return routeCounts.get(mode).get(route).sum();
+    }
+
+    // e.g. {"ADAPTIVE": {"DIRECT": 12, "QUEUED": 3}, ...}
+    public Map<IngestionMode, Map<Route, Long>> getRouteCounts() {
+        Map<IngestionMode, Map<Route, Long>> snapshot = new LinkedHashMap<>();
+        routeCounts.forEach((mode, counts) -> {
+            Map<Route, Long> modeCounts = new LinkedHashMap<>();
+            counts.forEach((route, count) -> modeCounts.put(route, count.sum()));
+            snapshot.put(mode, modeCounts);
+        });
+        return snapshot;
+    }
+}
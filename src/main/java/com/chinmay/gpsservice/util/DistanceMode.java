@@ -0,0 +1,14 @@
+package com.chinmay.gpsservice.util;
+
+/**
+ * Accuracy/speed trade-off for the bulk distance kernels in HaversineUtil.
+ */
+public enum DistanceMode {
+    /** Great-circle distance; exact on a sphere for any segment length. */
+    HAVERSINE,
+    /**
+     * Flat-earth approximation scaled by cos(latitude). No inverse trig, and well under 0.1% error
+     * for the sub-10 km segments between consecutive GPS fixes; do not use for long hops.
+     */
+    EQUIRECTANGULAR
+}
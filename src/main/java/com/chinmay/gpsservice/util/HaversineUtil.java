@@ -9,18 +9,87 @@ public class HaversineUtil {
      * @return Distance in kilometers.
      */
     public static double calculateDistance(double startLat, double startLong, double endLat, double endLong) {
-        double dLat = Math.toRadians(endLat - startLat);
-        double dLong = Math.toRadians(endLong - startLong);
+        double sinHalfDLat = Math.sin(Math.toRadians(endLat - startLat) / 2);
+        double sinHalfDLong = Math.sin(Math.toRadians(endLong - startLong) / 2);
 
         double startLatRad = Math.toRadians(startLat);
         double endLatRad = Math.toRadians(endLat);
 
-        double a = Math.pow(Math.sin(dLat / 2), 2) +
+        double a = sinHalfDLat * sinHalfDLat +
                 Math.cos(startLatRad) * Math.cos(endLatRad) *
-                        Math.pow(Math.sin(dLong / 2), 2);
+                        sinHalfDLong * sinHalfDLong;
 
         double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
 
         return EARTH_RADIUS_KM * c;
     }
-}
\ No newline at end of file
+
+    /**
+     * Total length of the route through the first {@code count} points, in kilometers.
+     */
+    public static double totalDistance(double[] latitudes, double[] longitudes, int count, DistanceMode mode) {
+        return segmentDistances(latitudes, longitudes, count, null, mode);
+    }
+
+    /**
+     * Bulk route kernel over primitive arrays. cos(latitude) is computed once per point and reused by
+     * both segments that share it, and nothing is boxed.
+     * @param segmentsKm If not null, receives the length of segment i (point i to i + 1); needs count - 1 slots.
+     * @return Total length of the route in kilometers.
+     */
+    public static double segmentDistances(double[] latitudes, double[] longitudes, int count,
+                                          double[] segmentsKm, DistanceMode mode) {
+        if (count > latitudes.length || count > longitudes.length) {
+            throw new IllegalArgumentException("count " + count + " exceeds the coordinate arrays.");
+        }
+        if (segmentsKm != null && count > 1 && segmentsKm.length < count - 1) {
+            throw new IllegalArgumentException("segmentsKm needs " + (count - 1) + " slots.");
+        }
+        if (count < 2) {
+            return 0.0;
+        }
+
+        double total = 0.0;
+        double prevLatRad = Math.toRadians(latitudes[0]);
+        double prevLonRad = Math.toRadians(longitudes[0]);
+        double prevCos = Math.cos(prevLatRad);
+        for (int i = 1; i < count; i++) {
+            double latRad = Math.toRadians(latitudes[i]);
+            double lonRad = Math.toRadians(longitudes[i]);
+            double cos = Math.cos(latRad);
+
+            double km = mode == DistanceMode.EQUIRECTANGULAR
+                    ? equirectangular(prevLatRad, prevLonRad, prevCos, latRad, lonRad, cos)
+                    : haversine(prevLatRad, prevLonRad, prevCos, latRad, lonRad, cos);
+            if (segmentsKm != null) {
+                segmentsKm[i - 1] = km;
+            }
+            total += km;
+
+            prevLatRad = latRad;
+            prevLonRad = lonRad;
+            prevCos = cos;
+        }
+        return total;
+    }
+
+    // Haversine with the cos(latitude) terms supplied by the caller; angles in radians
+    static double haversine(double lat1, double lon1, double cosLat1, double lat2, double lon2, double cosLat2) {
+        double sinHalfDLat = Math.sin((lat2 - lat1) / 2);
+        double sinHalfDLon = Math.sin((lon2 - lon1) / 2);
+        double a = sinHalfDLat * sinHalfDLat + cosLat1 * cosLat2 * sinHalfDLon * sinHalfDLon;
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(Math.min(1.0, a)));
+    }
+
+    static double equirectangular(double lat1, double lon1, double cosLat1, double lat2, double lon2, double cosLat2) {
+        double dLon = lon2 - lon1;
+        if (dLon > Math.PI) { // take the short way across the antimeridian
+            dLon -= 2 * Math.PI;
+        } else if (dLon < -Math.PI) {
+            dLon += 2 * Math.PI;
+        }
+        double x = dLon * (cosLat1 + cosLat2) / 2; // mean of the cosines ~ cos of the mean latitude for short hops
+        double y = lat2 - lat1;
+        return EARTH_RADIUS_KM * Math.sqrt(x * x + y * y);
+    }
+}
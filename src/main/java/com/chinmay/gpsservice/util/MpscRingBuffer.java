@@ -0,0 +1,92 @@
+package com.chinmay.gpsservice.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer (Vyukov's sequence-per-slot ring).
+ * Producers claim a slot with one CAS on the tail; every slot carries a sequence number that says whether it is
+ * free for the producer of round n or filled for the consumer, so neither side ever takes a lock.
+ * offer() may be called from any thread, poll() only from the one consumer thread.
+ */
+public final class MpscRingBuffer<E> {
+
+    private final Object[] elements; // published by the volatile write of the slot's sequence
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head; // written by the consumer only
+
+    /**
+     * @param capacity Rounded up to a power of two (at least 2).
+     */
+    public MpscRingBuffer(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30.");
+        }
+        // At least 2: with one slot, "filled in round n" and "free for round n + 1" would be the same sequence
+        int size = Math.max(2, Integer.highestOneBit(capacity - 1) << 1);
+        this.elements = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * @return false if the buffer is full.
+     */
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException("element");
+        }
+        long position = tail.get();
+        while (true) {
+            int slot = (int) position & mask;
+            long difference = sequences.get(slot) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements[slot] = element;
+                    sequences.set(slot, position + 1); // hands the slot to the consumer
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false; // the consumer has not freed this slot yet
+            } else {
+                position = tail.get(); // another producer took it
+            }
+        }
+    }
+
+    /**
+     * Consumer thread only.
+     * @return The oldest element, or null if there is none (or its producer has not finished writing it).
+     */
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long position = head;
+        int slot = (int) position & mask;
+        if (sequences.get(slot) != position + 1) {
+            return null;
+        }
+        E element = (E) elements[slot];
+        elements[slot] = null;
+        sequences.set(slot, position + elements.length); // free for the producer of the next round
+        head = position + 1;
+        return element;
+    }
+
+    public int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int capacity() {
+        return elements.length;
+    }
+}
@@ -0,0 +1,35 @@
+package com.chinmay.gpsservice.util;
+
+/**
+ * Folds an ordered stream of points into a total route distance using constant memory:
+ * only the previous point (and its cos(latitude), so every point pays for one cosine) is remembered between calls.
+ */
+public class RouteDistanceAccumulator {
+
+    private double prevLatRad;
+    private double prevLongRad;
+    private double prevCosLat;
+    private long pointCount;
+    private double totalDistanceKm;
+
+    public void add(double latitude, double longitude) {
+        double latRad = Math.toRadians(latitude);
+        double longRad = Math.toRadians(longitude);
+        double cosLat = Math.cos(latRad);
+        if (pointCount > 0) {
+            totalDistanceKm += HaversineUtil.haversine(prevLatRad, prevLongRad, prevCosLat, latRad, longRad, cosLat);
+        }
+        prevLatRad = latRad;
+        prevLongRad = longRad;
+        prevCosLat = cosLat;
+        pointCount++;
+    }
+
+    public long getPointCount() {
+        return pointCount;
+    }
+
+    public double getTotalDistanceKm() {
+        return totalDistanceKm;
+    }
+}
@@ -0,0 +1,114 @@
+package com.chinmay.gpsservice.util;
+
+import java.util.Arrays;
+
+/**
+ * Collects a streamed, time-ordered track into primitive arrays for TrackSimplifier, with a radial pre-filter:
+ * a point closer than minSpacingKm to the last kept one is dropped as it arrives (the final point is always kept),
+ * so parked vehicles and GPS jitter never reach memory. Stops collecting after maxPoints.
+ */
+public class TrackBuffer {
+
+    private static final double KM_PER_DEGREE = Math.PI * 6371 / 180;
+
+    private final double minSpacingDegreesSquared;
+    private final int maxPoints;
+
+    private long[] timestamps = new long[256];
+    private double[] latitudes = new double[256];
+    private double[] longitudes = new double[256];
+    private int count;
+    private long seen;
+    private boolean truncated;
+
+    private double lastCos;
+    // Latest point dropped by the filter; appended by finish() so the track ends where the data ends
+    private boolean hasPending;
+    private long pendingTimestamp;
+    private double pendingLatitude;
+    private double pendingLongitude;
+
+    public TrackBuffer(double minSpacingKm, int maxPoints) {
+        double minSpacingDegrees = minSpacingKm / KM_PER_DEGREE;
+        this.minSpacingDegreesSquared = minSpacingDegrees * minSpacingDegrees;
+        this.maxPoints = Math.max(2, maxPoints);
+    }
+
+    public void add(long timestamp, double latitude, double longitude) {
+        seen++;
+        if (truncated) {
+            return;
+        }
+        if (count > 0) {
+            double dx = TrackSimplifier.wrapLongitude(longitude - longitudes[count - 1]) * lastCos;
+            double dy = latitude - latitudes[count - 1];
+            if (dx * dx + dy * dy < minSpacingDegreesSquared) {
+                hasPending = true;
+                pendingTimestamp = timestamp;
+                pendingLatitude = latitude;
+                pendingLongitude = longitude;
+                return;
+            }
+        }
+        if (count == maxPoints) {
+            truncated = true;
+            return;
+        }
+        append(timestamp, latitude, longitude);
+        hasPending = false;
+    }
+
+    /**
+     * Appends the last filtered-out point, if any and if there is room. Call once, after the last add.
+     */
+    public void finish() {
+        if (hasPending && !truncated) {
+            if (count == maxPoints) {
+                truncated = true;
+            } else {
+                append(pendingTimestamp, pendingLatitude, pendingLongitude);
+            }
+            hasPending = false;
+        }
+    }
+
+    private void append(long timestamp, double latitude, double longitude) {
+        if (count == timestamps.length) {
+            int capacity = count * 2;
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            latitudes = Arrays.copyOf(latitudes, capacity);
+            longitudes = Arrays.copyOf(longitudes, capacity);
+        }
+        timestamps[count] = timestamp;
+        latitudes[count] = latitude;
+        longitudes[count] = longitude;
+        lastCos = Math.cos(Math.toRadians(latitude));
+        count++;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    // Points offered, including filtered ones
+    public long getSeen() {
+        return seen;
+    }
+
+    // true if maxPoints was reached and later points were ignored
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public long[] getTimestamps() {
+        return timestamps;
+    }
+
+    public double[] getLatitudes() {
+        return latitudes;
+    }
+
+    public double[] getLongitudes() {
+        return longitudes;
+    }
+}
@@ -0,0 +1,153 @@
+package com.chinmay.gpsservice.util;
+
+import java.util.Arrays;
+
+/**
+ * Douglas-Peucker simplification over primitive coordinate arrays (degrees), for drawing long tracks.
+ * <p>
+ * Instead of simplifying once per tolerance, {@link #significance} runs Douglas-Peucker to the bottom once and
+ * records, for every point, the largest tolerance at which it would still be kept. Every resolution then falls
+ * out of the same array: a tolerance keeps the points above it, and a point budget keeps the most significant
+ * ones. Levels are nested, so zooming in only ever adds points.
+ */
+public final class TrackSimplifier {
+
+    private static final double KM_PER_DEGREE = Math.PI * 6371 / 180;
+
+    private TrackSimplifier() {
+    }
+
+    /**
+     * @return Per point, the distance (km) from the chord it splits when Douglas-Peucker picks it, capped just below
+     * its parent's value so that significance strictly decreases down the recursion: any cut, including a tie at a
+     * budget's threshold, keeps a point's parent whenever it keeps the point. The endpoints get
+     * Double.POSITIVE_INFINITY. Worst case O(n^2), typically O(n log n). No recursion.
+     */
+    public static double[] significance(double[] latitudes, double[] longitudes, int count) {
+        double[] significance = new double[count];
+        if (count == 0) {
+            return significance;
+        }
+        significance[0] = Double.POSITIVE_INFINITY;
+        significance[count - 1] = Double.POSITIVE_INFINITY;
+
+        // Explicit stack of (start, end) index ranges still to split
+        int[] stack = new int[64];
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = count - 1;
+        while (top > 0) {
+            int end = stack[--top];
+            int start = stack[--top];
+            if (end - start < 2) {
+                continue;
+            }
+            double parent = Math.min(significance[start], significance[end]);
+            int split = -1;
+            double maxDistance = -1;
+            for (int i = start + 1; i < end; i++) {
+                double distance = distanceToSegmentKm(latitudes[i], longitudes[i],
+                        latitudes[start], longitudes[start], latitudes[end], longitudes[end]);
+                if (distance > maxDistance) {
+                    maxDistance = distance;
+                    split = i;
+                }
+            }
+            significance[split] = maxDistance < parent ? maxDistance : Math.nextDown(parent);
+            if (top + 4 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            stack[top++] = start;
+            stack[top++] = split;
+            stack[top++] = split;
+            stack[top++] = end;
+        }
+        return significance;
+    }
+
+    /**
+     * Picks the points to draw.
+     * @param toleranceKm Keep points whose significance exceeds this; 0 keeps everything.
+     * @param maxPoints At most this many points (at least 2), the most significant first; ties, never
+     * between a point and its parent, go to earlier points.
+     * @return Indices of the kept points, ascending.
+     */
+    public static int[] select(double[] significance, int count, double toleranceKm, int maxPoints) {
+        double threshold = toleranceKm;
+        int atThreshold = Integer.MAX_VALUE; // how many points exactly at the threshold may still be kept
+        int aboveTolerance = 0;
+        for (int i = 0; i < count; i++) {
+            if (significance[i] > toleranceKm) {
+                aboveTolerance++;
+            }
+        }
+        if (aboveTolerance > maxPoints) {
+            double[] sorted = Arrays.copyOf(significance, count);
+            Arrays.sort(sorted);
+            threshold = sorted[count - maxPoints];
+            int strictlyAbove = 0;
+            for (int i = 0; i < count; i++) {
+                if (significance[i] > threshold) {
+                    strictlyAbove++;
+                }
+            }
+            atThreshold = maxPoints - strictlyAbove;
+        }
+
+        int[] kept = new int[Math.min(count, maxPoints)];
+        int size = 0;
+        for (int i = 0; i < count && size < kept.length; i++) {
+            if (significance[i] > threshold) {
+                kept[size++] = i;
+            } else if (atThreshold != Integer.MAX_VALUE && significance[i] == threshold && atThreshold > 0) {
+                kept[size++] = i;
+                atThreshold--;
+            }
+        }
+        return Arrays.copyOf(kept, size);
+    }
+
+    /**
+     * Measured rather than read off the significance, which is capped by the parent's and so can understate how far
+     * a dropped point lies from the line.
+     * @param kept Ascending indices, including the first and last point.
+     * @return The furthest any dropped point lies from the segment between the kept points around it (km). 0 if
+     * nothing was dropped.
+     */
+    public static double maxError(double[] latitudes, double[] longitudes, int count, int[] kept) {
+        double maxError = 0;
+        for (int k = 1; k < kept.length; k++) {
+            int start = kept[k - 1];
+            int end = kept[k];
+            for (int i = start + 1; i < end; i++) {
+                maxError = Math.max(maxError, distanceToSegmentKm(latitudes[i], longitudes[i],
+                        latitudes[start], longitudes[start], latitudes[end], longitudes[end]));
+            }
+        }
+        return maxError;
+    }
+
+    // Distance from p to the segment a-b, on a local flat projection around the segment (fine at track scales)
+    static double distanceToSegmentKm(double lat, double lon, double latA, double lonA, double latB, double lonB) {
+        double cosLat = Math.cos(Math.toRadians((latA + latB) / 2));
+        double bx = wrapLongitude(lonB - lonA) * cosLat;
+        double by = latB - latA;
+        double px = wrapLongitude(lon - lonA) * cosLat;
+        double py = lat - latA;
+        double lengthSquared = bx * bx + by * by;
+        double t = lengthSquared == 0 ? 0 : Math.max(0, Math.min(1, (px * bx + py * by) / lengthSquared));
+        double dx = px - t * bx;
+        double dy = py - t * by;
+        return Math.sqrt(dx * dx + dy * dy) * KM_PER_DEGREE;
+    }
+
+    static double wrapLongitude(double degrees) {
+        if (degrees > 180) {
+            return degrees - 360;
+        }
+        if (degrees < -180) {
+            return degrees + 360;
+        }
+        return degrees;
+    }
+}
@@ -0,0 +1,64 @@
+package com.chinmay.gpsservice.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConcurrencyLimitedDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    @Test
+    void testGetConnection_BlocksBeyondLimitUntilClosed() throws Exception {
+        when(target.getConnection()).thenReturn(connection);
+        ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(target, 1, 50);
+
+        Connection first = dataSource.getConnection();
+        assertEquals(1, dataSource.getActiveConnections());
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+        first.close();
+        first.close(); // a second close must not hand out an extra permit
+        verify(connection, times(2)).close();
+        assertEquals(0, dataSource.getActiveConnections());
+
+        try (Connection second = dataSource.getConnection()) {
+            assertNotNull(second);
+        }
+    }
+
+    @Test
+    void testGetConnection_TargetFailure_ReleasesPermit() throws Exception {
+        when(target.getConnection()).thenThrow(new SQLException("pool exhausted"));
+        ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(target, 1, 50);
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+
+        assertEquals(0, dataSource.getActiveConnections());
+    }
+
+    @Test
+    void testConnectionProxy_DelegatesCalls() throws Exception {
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(false);
+        ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(target, 2, 50);
+
+        try (Connection limited = dataSource.getConnection()) {
+            assertFalse(limited.getAutoCommit());
+        }
+    }
+}
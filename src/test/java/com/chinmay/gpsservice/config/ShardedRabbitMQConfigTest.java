@@ -0,0 +1,27 @@
+package com.chinmay.gpsservice.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedRabbitMQConfigTest {
+
+    @Test
+    void testParseShards_BlankMeansAllShards() {
+        assertEquals(List.of(0, 1, 2, 3), List.copyOf(ShardedRabbitMQConfig.parseShards("", 4)));
+    }
+
+    @Test
+    void testParseShards_RangesAndSingleShards() {
+        assertEquals(List.of(0, 1, 2, 5), List.copyOf(ShardedRabbitMQConfig.parseShards("5, 0-2", 8)));
+    }
+
+    @Test
+    void testParseShards_OutOfRange_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> ShardedRabbitMQConfig.parseShards("2-4", 4));
+        assertThrows(IllegalArgumentException.class, () -> ShardedRabbitMQConfig.parseShards("a", 4));
+        assertThrows(IllegalArgumentException.class, () -> ShardedRabbitMQConfig.parseShards("3-1", 4));
+    }
+}
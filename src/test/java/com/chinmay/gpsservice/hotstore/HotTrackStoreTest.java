@@ -0,0 +1,151 @@
+package com.chinmay.gpsservice.hotstore;
+
+import com.chinmay.gpsservice.config.IngestTopology;
+import com.chinmay.gpsservice.dto.LastKnownPosition;
+import com.chinmay.gpsservice.entity.GpsRecord;
+import com.chinmay.gpsservice.realtime.LastKnownPositionStore;
+import com.chinmay.gpsservice.util.HaversineUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HotTrackStoreTest {
+
+    @Mock
+    private LastKnownPositionStore positionStore;
+
+    private final LocalDateTime now = LocalDateTime.now().withNano(0);
+
+    private HotTrackStore startedStore(int chunkPoints, long maxBytes, List<LastKnownPosition> databaseLatest) {
+        when(positionStore.snapshot()).thenReturn(databaseLatest);
+        HotTrackStore store = new HotTrackStore(positionStore, new IngestTopology(true, false), true, 6, chunkPoints, maxBytes);
+        store.start();
+        return store;
+    }
+
+    private GpsRecord record(String publisherId, LocalDateTime timestamp, double lat, double lon) {
+        return new GpsRecord(null, publisherId, lat, lon, null, timestamp);
+    }
+
+    private List<Long> timestamps(HotTrackStore store, LocalDateTime from, LocalDateTime to) {
+        List<Long> seen = new ArrayList<>();
+        assertTrue(store.forEachPoint("TRUCK-01", from, to, false, (epochMillis, lat, lon) -> seen.add(epochMillis)));
+        return seen;
+    }
+
+    @Test
+    void testForEachPoint_ReturnsRangeAcrossChunks() {
+        HotTrackStore store = startedStore(2, 1 << 20, List.of());
+        List<GpsRecord> records = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            records.add(record("TRUCK-01", now.minusMinutes(50 - i * 10), 40.0 + i * 0.01, -74.0));
+        }
+        store.onRecordsSaved(records);
+
+        assertEquals(5, store.getPointCount("TRUCK-01"));
+        assertEquals(3, timestamps(store, now.minusMinutes(40), now.minusMinutes(10)).size()); // [from, to)
+        List<double[]> coordinates = new ArrayList<>();
+        store.forEachPoint("TRUCK-01", now.minusHours(1), now, true, (epochMillis, lat, lon) -> coordinates.add(new double[]{lat, lon}));
+        assertEquals(40.04, coordinates.get(4)[0], 1e-7);
+        assertEquals(-74.0, coordinates.get(4)[1], 1e-7);
+    }
+
+    @Test
+    void testCalculateDistance_MatchesHaversine() {
+        HotTrackStore store = startedStore(4096, 1 << 20, List.of());
+        store.onRecordsSaved(List.of(
+                record("TRUCK-01", now.minusMinutes(20), 40.6413, -73.7781),
+                record("TRUCK-01", now.minusMinutes(10), 40.7128, -74.0060)));
+
+        double expected = HaversineUtil.calculateDistance(40.6413, -73.7781, 40.7128, -74.0060);
+        assertEquals(expected, store.calculateDistance("TRUCK-01", now.minusHours(1), now).orElseThrow(), 1e-4);
+    }
+
+    @Test
+    void testLatePoint_RangesReachingBackToItAreNotCovered() {
+        HotTrackStore store = startedStore(4096, 1 << 20, List.of());
+        store.onRecordsSaved(List.of(
+                record("TRUCK-01", now.minusMinutes(30), 40.0, -74.0),
+                record("TRUCK-01", now.minusMinutes(10), 40.1, -74.0),
+                record("TRUCK-01", now.minusMinutes(20), 40.2, -74.0))); // arrives late
+
+        assertTrue(store.calculateDistance("TRUCK-01", now.minusMinutes(40), now).isEmpty());
+        assertEquals(1, timestamps(store, now.minusMinutes(19), now).size());
+    }
+
+    @Test
+    void testPublisherWithDatabaseHistory_CoveredOnlyAfterItsLatestStoredPoint() {
+        LocalDateTime latestInDatabase = now.minusMinutes(30);
+        HotTrackStore store = startedStore(4096, 1 << 20,
+                List.of(new LastKnownPosition("TRUCK-01", latestInDatabase, 40.0, -74.0, null)));
+        store.onRecordsSaved(List.of(record("TRUCK-01", now.minusMinutes(10), 40.1, -74.0)));
+
+        assertTrue(store.calculateDistance("TRUCK-01", now.minusHours(1), now).isEmpty());
+        assertEquals(1, timestamps(store, latestInDatabase.plusSeconds(1), now).size());
+    }
+
+    @Test
+    void testMemoryBudgetExhausted_DropsTrackAndCoverage() {
+        HotTrackStore store = startedStore(2, 2 * TrackChunk.BYTES_PER_POINT, List.of()); // room for one chunk
+        store.onRecordsSaved(List.of(
+                record("TRUCK-01", now.minusMinutes(30), 40.0, -74.0),
+                record("TRUCK-01", now.minusMinutes(20), 40.1, -74.0),
+                record("TRUCK-01", now.minusMinutes(10), 40.2, -74.0))); // needs a second chunk
+
+        assertEquals(0, store.getAllocatedBytes());
+        assertTrue(store.calculateDistance("TRUCK-01", now.minusHours(1), now).isEmpty());
+    }
+
+    @Test
+    void testEvictExpired_ReleasesOldChunksAndRaisesCoverage() {
+        HotTrackStore store = startedStore(1, 1 << 20, List.of());
+        store.onRecordsSaved(List.of(
+                record("TRUCK-01", now.minusHours(8), 40.0, -74.0),
+                record("TRUCK-01", now.minusMinutes(10), 40.1, -74.0)));
+
+        store.evictExpired();
+
+        assertEquals(1, store.getPointCount("TRUCK-01"));
+        assertEquals(TrackChunk.BYTES_PER_POINT, store.getAllocatedBytes());
+        assertTrue(store.calculateDistance("TRUCK-01", now.minusHours(9), now).isEmpty());
+        assertEquals(1, timestamps(store, now.minusHours(1), now).size());
+    }
+
+    @Test
+    void testPointArrivingWhileWatermarksAreTaken_CoveredOnlyAfterThePositionStoresLatest() {
+        HotTrackStore store = new HotTrackStore(positionStore, new IngestTopology(true, false), true, 6, 4096, 1 << 20);
+        GpsRecord racing = record("TRUCK-01", now.minusMinutes(20), 40.0, -74.0);
+        // The position store (observer 0) has already seen the point when the hot store gets it
+        when(positionStore.get("TRUCK-01")).thenReturn(Optional.of(new LastKnownPosition("TRUCK-01", racing.getTimestamp(), 40.0, -74.0, null)));
+        when(positionStore.snapshot()).thenAnswer(invocation -> {
+            store.onRecordsSaved(List.of(racing));
+            return List.of();
+        });
+
+        store.start();
+        store.onRecordsSaved(List.of(record("TRUCK-01", now.minusMinutes(10), 40.1, -74.0)));
+
+        assertTrue(store.calculateDistance("TRUCK-01", now.minusHours(1), now).isEmpty());
+        assertEquals(1, timestamps(store, now.minusMinutes(19), now).size());
+    }
+
+    @Test
+    void testSharded_StoreStaysOff() {
+        HotTrackStore store = new HotTrackStore(positionStore, new IngestTopology(true, true), true, 6, 4096, 1 << 20);
+        store.start();
+        store.onRecordsSaved(List.of(record("TRUCK-01", now.minusMinutes(10), 40.1, -74.0)));
+
+        assertEquals(0, store.getPointCount("TRUCK-01"));
+        assertTrue(store.calculateDistance("TRUCK-01", now.minusHours(1), now).isEmpty());
+    }
+}
@@ -0,0 +1,118 @@
+package com.chinmay.gpsservice.listener;
+
+import com.chinmay.gpsservice.logging.SampledIngestLogger;
+import com.chinmay.gpsservice.messaging.GpsMessageDecoder;
+import com.chinmay.gpsservice.repository.GpsRecordRepository;
+import com.chinmay.gpsservice.service.AnalyticsService.DistanceBucketService;
+import com.chinmay.gpsservice.service.GpsIngestObserver;
+import com.chinmay.gpsservice.service.GpsService;
+import com.chinmay.gpsservice.service.GpsServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+// Runs against the real service and repository (H2), so a rolled-back batch really leaves ids behind
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // the listener commits on its own, like in production
+@Import({GpsServiceImpl.class, DistanceBucketService.class, GpsDataBatchMessageListenerTest.Config.class})
+class GpsDataBatchMessageListenerTest {
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        GpsIngestObserver noopObserver() {
+            return records -> { };
+        }
+    }
+
+    @Autowired
+    private GpsService gpsService;
+
+    @Autowired
+    private GpsRecordRepository gpsRecordRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Channel channel = mock(Channel.class);
+    private GpsDataBatchMessageListener listener;
+
+    @BeforeEach
+    void setUp() {
+        listener = new GpsDataBatchMessageListener(gpsService, new GpsMessageDecoder(new ObjectMapper(), meterRegistry),
+                meterRegistry, new SampledIngestLogger(60_000, 10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        gpsRecordRepository.deleteAll();
+    }
+
+    @Test
+    void failedBatch_RetriesRecordsIndividually_AndNacksOnlyTheBadOne() throws Exception {
+        String tooLongPublisherId = "X".repeat(101); // passes mapping, violates the column length on insert
+
+        listener.handleIncomingGpsBatch(List.of(
+                message(1, "TRUCK-01", "2026-07-13T10:00:00"),
+                message(2, tooLongPublisherId, "2026-07-13T10:00:05"),
+                message(3, "TRUCK-02", "2026-07-13T10:00:10")), channel);
+
+        verify(channel).basicAck(1, false);
+        verify(channel).basicNack(2, false, false);
+        verify(channel).basicAck(3, false);
+        verify(channel, never()).basicNack(1, false, false);
+        verify(channel, never()).basicNack(3, false, false);
+        assertEquals(2, gpsRecordRepository.count());
+    }
+
+    @Test
+    void invalidMessage_IsNackedWithoutFailingTheBatch() throws Exception {
+        Message malformed = new Message("{not json".getBytes(StandardCharsets.UTF_8), properties(2));
+
+        listener.handleIncomingGpsBatch(List.of(
+                message(1, "TRUCK-01", "2026-07-13T10:00:00"),
+                malformed), channel);
+
+        verify(channel).basicAck(1, false);
+        verify(channel).basicNack(2, false, false);
+        assertEquals(1, gpsRecordRepository.count());
+    }
+
+    private static Message message(long deliveryTag, String publisherId, String timestamp) {
+        String json = """
+                {"publisherId":"%s","gpsData":{"latitude":40.7128,"longitude":-74.006,"timeStamp":"%s"}}"""
+                .formatted(publisherId, timestamp);
+        return new Message(json.getBytes(StandardCharsets.UTF_8), properties(deliveryTag));
+    }
+
+    private static MessageProperties properties(long deliveryTag) {
+        MessageProperties properties = new MessageProperties();
+        properties.setDeliveryTag(deliveryTag);
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        return properties;
+    }
+}
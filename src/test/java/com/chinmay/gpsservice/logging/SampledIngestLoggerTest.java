@@ -0,0 +1,118 @@
+package com.chinmay.gpsservice.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.chinmay.gpsservice.logging.SampledIngestLogger.Stage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SampledIngestLoggerTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    private final Logger logbackLogger = (Logger) LoggerFactory.getLogger(SampledIngestLogger.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private SampledIngestLogger ingestLogger;
+
+    @BeforeEach
+    void setUp() {
+        appender.start();
+        logbackLogger.addAppender(appender);
+        ingestLogger = new SampledIngestLogger(60_000, 2, now::get);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logbackLogger.detachAppender(appender);
+    }
+
+    private List<String> lines() {
+        return appender.list.stream().map(ILoggingEvent::getFormattedMessage).toList();
+    }
+
+    @Test
+    void testStored_SamplesOncePerPublisherPerInterval() {
+        ingestLogger.stored(Stage.LISTENER, "TRUCK-01");
+        ingestLogger.stored(Stage.LISTENER, "TRUCK-01");
+        ingestLogger.stored(Stage.LISTENER, "TRUCK-02");
+        now.addAndGet(60_000);
+        ingestLogger.stored(Stage.LISTENER, "TRUCK-01");
+
+        assertEquals(List.of(
+                "ingest.sample stage=LISTENER publisherId=TRUCK-01",
+                "ingest.sample stage=LISTENER publisherId=TRUCK-02",
+                "ingest.sample stage=LISTENER publisherId=TRUCK-01"), lines());
+    }
+
+    @Test
+    void testFailed_RateLimitedWithoutRenderingSuppressedPayloads() {
+        AtomicInteger rendered = new AtomicInteger();
+        for (int i = 0; i < 5; i++) {
+            ingestLogger.failed(Stage.LISTENER, "malformed", null, new IllegalArgumentException("bad"),
+                    () -> "payload-" + rendered.incrementAndGet());
+        }
+
+        assertEquals(2, rendered.get());
+        assertEquals(2, lines().size());
+
+        now.addAndGet(1000); // next second: the budget is back
+        ingestLogger.failed(Stage.LISTENER, "malformed", null, null, null);
+        assertEquals(3, lines().size());
+    }
+
+    @Test
+    void testLogSummary_ReportsAndResetsCounts() {
+        ingestLogger.stored(Stage.HTTP, "TRUCK-01");
+        ingestLogger.stored(Stage.HTTP, "TRUCK-01");
+        for (int i = 0; i < 3; i++) {
+            ingestLogger.failed(Stage.HTTP, "overloaded", "TRUCK-01", null, null);
+        }
+        appender.list.clear();
+
+        ingestLogger.logSummary();
+
+        assertEquals(List.of(
+                "ingest.summary stage=HTTP stored=2 failed=3 reasons=[overloaded:3]",
+                "ingest.summary suppressedFailureLogs=1"), lines());
+
+        appender.list.clear();
+        ingestLogger.logSummary();
+        assertTrue(lines().isEmpty());
+    }
+
+    @Test
+    void testLogSummary_ConcurrentFailuresAreAllReported() throws InterruptedException {
+        int threads = 4;
+        int failuresPerThread = 20_000;
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < failuresPerThread; i++) {
+                    ingestLogger.failed(Stage.LISTENER, "validation", "TRUCK-01", null, null);
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            while (worker.isAlive()) {
+                ingestLogger.logSummary();
+            }
+        }
+        ingestLogger.logSummary();
+
+        Pattern reason = Pattern.compile("reasons=\\[validation:(\\d+)]");
+        long reported = lines().stream().map(reason::matcher).filter(Matcher::find)
+                .mapToLong(matcher -> Long.parseLong(matcher.group(1))).sum();
+        assertEquals((long) threads * failuresPerThread, reported);
+    }
+}
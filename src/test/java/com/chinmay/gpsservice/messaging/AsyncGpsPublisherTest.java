@@ -0,0 +1,107 @@
+package com.chinmay.gpsservice.messaging;
+
+import com.chinmay.gpsservice.dto.ExtendedGpsInput;
+import com.chinmay.gpsservice.dto.GpsData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncGpsPublisherTest {
+
+    @Mock
+    private GpsMessagePublisher gpsMessagePublisher;
+
+    private AsyncGpsPublisher asyncGpsPublisher;
+
+    private final ExtendedGpsInput input = new ExtendedGpsInput("TRUCK-01", new GpsData(40.0f, -74.0f, null, "2026-07-13T10:15:30"));
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        asyncGpsPublisher.shutdown();
+    }
+
+    @Test
+    void testPublish_CompletesWhenBrokerConfirms() throws Exception {
+        asyncGpsPublisher = new AsyncGpsPublisher(gpsMessagePublisher, 1, 10, 1000);
+        when(gpsMessagePublisher.publishConfirmed(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        asyncGpsPublisher.publish(input, null).get(1, TimeUnit.SECONDS);
+
+        assertEquals(0, asyncGpsPublisher.getOutstanding());
+    }
+
+    @Test
+    void testPublish_BufferFull_FailsFastUntilConfirmArrives() throws Exception {
+        asyncGpsPublisher = new AsyncGpsPublisher(gpsMessagePublisher, 1, 1, 5000);
+        CompletableFuture<Void> brokerConfirm = new CompletableFuture<>();
+        when(gpsMessagePublisher.publishConfirmed(any(), any())).thenReturn(brokerConfirm);
+
+        CompletableFuture<Void> first = asyncGpsPublisher.publish(input, null);
+        ExecutionException rejected = assertThrows(ExecutionException.class, () -> asyncGpsPublisher.publish(input, null).get());
+        assertInstanceOf(RejectedExecutionException.class, rejected.getCause());
+
+        brokerConfirm.complete(null);
+        first.get(1, TimeUnit.SECONDS);
+        assertEquals(0, asyncGpsPublisher.getOutstanding());
+    }
+
+    @Test
+    void testPublish_NoConfirm_TimesOut() throws Exception {
+        asyncGpsPublisher = new AsyncGpsPublisher(gpsMessagePublisher, 1, 10, 50);
+        when(gpsMessagePublisher.publishConfirmed(any(), any())).thenReturn(new CompletableFuture<>());
+
+        ExecutionException timedOut = assertThrows(ExecutionException.class, () -> asyncGpsPublisher.publish(input, null).get(1, TimeUnit.SECONDS));
+
+        assertInstanceOf(TimeoutException.class, timedOut.getCause());
+        assertEquals(0, asyncGpsPublisher.getOutstanding());
+    }
+
+    @Test
+    void testPublish_BrokerNack_Propagates() throws Exception {
+        asyncGpsPublisher = new AsyncGpsPublisher(gpsMessagePublisher, 1, 10, 1000);
+        when(gpsMessagePublisher.publishConfirmed(any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new AmqpException("Broker rejected the message: full")));
+
+        ExecutionException nacked = assertThrows(ExecutionException.class, () -> asyncGpsPublisher.publish(input, null).get(1, TimeUnit.SECONDS));
+
+        assertInstanceOf(AmqpException.class, nacked.getCause());
+    }
+
+    @Test
+    void testPublish_QueuedMessageKeepsItsPermitUntilItsConfirmSettles() throws Exception {
+        asyncGpsPublisher = new AsyncGpsPublisher(gpsMessagePublisher, 1, 2, 50);
+        CountDownLatch brokerSlow = new CountDownLatch(1);
+        when(gpsMessagePublisher.publishConfirmed(any(), any())).thenAnswer(invocation -> {
+            brokerSlow.await(5, TimeUnit.SECONDS); // the only publisher thread is stuck, so the next message waits in the queue
+            return CompletableFuture.completedFuture(null);
+        });
+
+        CompletableFuture<Void> first = asyncGpsPublisher.publish(input, null);
+        CompletableFuture<Void> queued = asyncGpsPublisher.publish(input, null);
+        Thread.sleep(200); // well past the confirm timeout
+
+        assertEquals(2, asyncGpsPublisher.getOutstanding());
+        ExecutionException rejected = assertThrows(ExecutionException.class, () -> asyncGpsPublisher.publish(input, null).get());
+        assertInstanceOf(RejectedExecutionException.class, rejected.getCause());
+
+        brokerSlow.countDown();
+        first.get(1, TimeUnit.SECONDS);
+        queued.get(1, TimeUnit.SECONDS);
+        assertEquals(0, asyncGpsPublisher.getOutstanding());
+    }
+}
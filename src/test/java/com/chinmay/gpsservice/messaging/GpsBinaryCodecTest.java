@@ -0,0 +1,74 @@
+package com.chinmay.gpsservice.messaging;
+
+import com.chinmay.gpsservice.dto.ExtendedGpsInput;
+import com.chinmay.gpsservice.dto.GpsData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GpsBinaryCodecTest {
+
+    private ExtendedGpsInput input(Float height, String timeStamp) {
+        return new ExtendedGpsInput("TRUCK-01", new GpsData(40.7128f, -74.006f, height, timeStamp));
+    }
+
+    @Test
+    void testRoundTrip_PreservesAllFields() {
+        ExtendedGpsInput original = input(10.5f, "2026-07-13T10:15:30.123456");
+
+        byte[] encoded = GpsBinaryCodec.encode(original).orElseThrow();
+        ExtendedGpsInput decoded = GpsBinaryCodec.decode(encoded);
+
+        assertEquals("TRUCK-01", decoded.getPublisherId());
+        assertEquals(40.7128f, decoded.getGpsData().getLatitude());
+        assertEquals(-74.006f, decoded.getGpsData().getLongitude());
+        assertEquals(10.5f, decoded.getGpsData().getHeight());
+        assertEquals(LocalDateTime.parse("2026-07-13T10:15:30.123456"), LocalDateTime.parse(decoded.getGpsData().getTimeStamp()));
+        assertTrue(encoded.length < 40, "Binary message should be compact, was " + encoded.length + " bytes");
+    }
+
+    @Test
+    void testRoundTrip_WithoutHeightAndBeforeEpoch() {
+        ExtendedGpsInput decoded = GpsBinaryCodec.decode(GpsBinaryCodec.encode(input(null, "1969-12-31T23:59:59")).orElseThrow());
+
+        assertNull(decoded.getGpsData().getHeight());
+        assertEquals("1969-12-31T23:59:59", decoded.getGpsData().getTimeStamp());
+    }
+
+    @Test
+    void testEncode_UnparseableTimestamp_FallsBackToJson() {
+        assertTrue(GpsBinaryCodec.encode(input(null, "this-is-not-a-date")).isEmpty());
+    }
+
+    @Test
+    void testDecode_TruncatedMessage_Throws() {
+        byte[] encoded = GpsBinaryCodec.encode(input(1.0f, "2026-07-13T10:15:30")).orElseThrow();
+
+        assertThrows(IllegalArgumentException.class, () -> GpsBinaryCodec.decode(Arrays.copyOf(encoded, encoded.length - 3)));
+    }
+
+    @Test
+    void testMessageDecoder_DispatchesOnContentType() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        GpsMessageDecoder decoder = new GpsMessageDecoder(objectMapper, new SimpleMeterRegistry());
+        ExtendedGpsInput original = input(null, "2026-07-13T10:15:30");
+
+        Message binary = MessageBuilder.withBody(GpsBinaryCodec.encode(original).orElseThrow())
+                .setContentType(GpsBinaryCodec.CONTENT_TYPE).build();
+        // What the JSON producer puts on the wire: the document wrapped in a JSON string literal
+        String doubleEncoded = objectMapper.writeValueAsString(objectMapper.writeValueAsString(original));
+        Message json = MessageBuilder.withBody(doubleEncoded.getBytes(StandardCharsets.UTF_8))
+                .setContentType("application/json").build();
+
+        assertEquals(original, decoder.decode(binary));
+        assertEquals(original, decoder.decode(json));
+    }
+}
@@ -0,0 +1,74 @@
+package com.chinmay.gpsservice.realtime;
+
+import com.chinmay.gpsservice.config.IngestTopology;
+import com.chinmay.gpsservice.dto.LastKnownPosition;
+import com.chinmay.gpsservice.entity.GpsRecord;
+import com.chinmay.gpsservice.repository.GpsRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LastKnownPositionStoreTest {
+
+    @Mock
+    private GpsRecordRepository repository;
+
+    private LastKnownPositionStore positionStore;
+
+    private final LocalDateTime now = LocalDateTime.of(2026, 7, 13, 10, 0);
+
+    @BeforeEach
+    void setUp() {
+        positionStore = new LastKnownPositionStore(repository, new IngestTopology(true, false));
+    }
+
+    @Test
+    void testUpdate_OlderPositionArrivingLate_IsIgnored() {
+        LastKnownPosition newer = new LastKnownPosition("TRUCK-01", now, 40.0, -74.0, null);
+        LastKnownPosition older = new LastKnownPosition("TRUCK-01", now.minusMinutes(5), 41.0, -75.0, null);
+
+        assertTrue(positionStore.update(newer));
+        assertFalse(positionStore.update(older));
+
+        assertEquals(newer, positionStore.get("TRUCK-01").orElseThrow());
+    }
+
+    @Test
+    void testWarmUp_LoadsLatestPositionsAndKeepsNewestOnTies() {
+        LastKnownPosition first = new LastKnownPosition("TRUCK-01", now, 40.0, -74.0, null);
+        LastKnownPosition tie = new LastKnownPosition("TRUCK-01", now, 40.5, -74.5, null);
+        LastKnownPosition other = new LastKnownPosition("TRUCK-02", now, 10.0, 10.0, 3.0);
+        when(repository.findLatestPositions()).thenReturn(List.of(first, tie, other));
+
+        positionStore.warmUp();
+
+        assertEquals(2, positionStore.size());
+        Map<String, LastKnownPosition> batch = positionStore.getAll(List.of("TRUCK-02", "UNKNOWN", "TRUCK-01"));
+        assertEquals(List.of("TRUCK-02", "TRUCK-01"), List.copyOf(batch.keySet()));
+        assertEquals(first, batch.get("TRUCK-01"));
+    }
+
+    @Test
+    void testGet_ShardedReadsTheDatabaseInsteadOfAPartialView() {
+        LastKnownPositionStore sharded = new LastKnownPositionStore(repository, new IngestTopology(true, true));
+        LastKnownPosition stored = new LastKnownPosition("TRUCK-01", now, 40.0, -74.0, null);
+        when(repository.findLatestPositionsFor(List.of("TRUCK-01"))).thenReturn(List.of(stored));
+
+        sharded.warmUp();
+        sharded.onRecordsSaved(List.of(new GpsRecord(null, "TRUCK-01", 41.0, -75.0, 0.0, now.minusHours(1)))); // what this node saw
+
+        assertEquals(stored, sharded.get("TRUCK-01").orElseThrow());
+        assertEquals(0, sharded.size());
+        verify(repository, never()).findLatestPositions();
+    }
+}
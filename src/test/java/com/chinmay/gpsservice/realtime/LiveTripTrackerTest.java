@@ -0,0 +1,45 @@
+package com.chinmay.gpsservice.realtime;
+
+import com.chinmay.gpsservice.config.IngestTopology;
+import com.chinmay.gpsservice.entity.GpsRecord;
+import com.chinmay.gpsservice.service.AnalyticsService.TripSegmenter;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LiveTripTrackerTest {
+
+    private static final TripSegmenter.Settings SETTINGS = new TripSegmenter.Settings(0.1, 300_000, 3, 250, 1_800_000);
+
+    private final LocalDateTime now = LocalDateTime.of(2026, 7, 13, 10, 0);
+
+    @Test
+    void testEvictIdle_DropsOnlyPublishersIdleSinceTheCutoff() throws InterruptedException {
+        LiveTripTracker tracker = new LiveTripTracker(SETTINGS, new IngestTopology(true, false), 10, 24);
+        tracker.onRecordsSaved(List.of(new GpsRecord(null, "TRUCK-01", 40.0, -74.0, 0.0, now)));
+        Thread.sleep(5);
+        long cutoff = System.currentTimeMillis();
+        Thread.sleep(5);
+        tracker.onRecordsSaved(List.of(new GpsRecord(null, "TRUCK-02", 40.0, -74.0, 0.0, now)));
+
+        assertEquals(1, tracker.evictIdleSince(cutoff));
+
+        assertTrue(tracker.get("TRUCK-01").isEmpty());
+        assertTrue(tracker.get("TRUCK-02").isPresent());
+        tracker.onRecordsSaved(List.of(new GpsRecord(null, "TRUCK-01", 40.0, -74.0, 0.0, now.plusMinutes(1))));
+        assertTrue(tracker.get("TRUCK-01").isPresent(), "a publisher that comes back starts a fresh segmenter");
+    }
+
+    @Test
+    void testOnRecordsSaved_ShardedTrackerStaysUnavailable() {
+        LiveTripTracker tracker = new LiveTripTracker(SETTINGS, new IngestTopology(true, true), 10, 24);
+
+        tracker.onRecordsSaved(List.of(new GpsRecord(null, "TRUCK-01", 40.0, -74.0, 0.0, now)));
+
+        assertFalse(tracker.isAvailable());
+        assertEquals(0, tracker.getTrackedPublishers());
+    }
+}
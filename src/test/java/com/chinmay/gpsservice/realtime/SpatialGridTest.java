@@ -0,0 +1,81 @@
+package com.chinmay.gpsservice.realtime;
+
+import com.chinmay.gpsservice.dto.LastKnownPosition;
+import com.chinmay.gpsservice.dto.NearbyPosition;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpatialGridTest {
+
+    private final SpatialGrid grid = new SpatialGrid(0.05);
+    private final LocalDateTime now = LocalDateTime.of(2026, 7, 13, 10, 0);
+
+    private LastKnownPosition position(String publisherId, LocalDateTime timestamp, double lat, double lon) {
+        return new LastKnownPosition(publisherId, timestamp, lat, lon, null);
+    }
+
+    @Test
+    void testFindWithin_OnlyReturnsPositionsInsideBox() {
+        grid.update(position("TRUCK-01", now, 40.71, -74.00));
+        grid.update(position("TRUCK-02", now, 40.75, -73.98));
+        grid.update(position("TRUCK-03", now, 42.36, -71.06));
+
+        List<LastKnownPosition> result = grid.findWithin(40.70, -74.01, 40.72, -73.99, 100);
+
+        assertEquals(1, result.size());
+        assertEquals("TRUCK-01", result.get(0).publisherId());
+    }
+
+    @Test
+    void testFindNear_FiltersByDistanceAndSortsNearestFirst() {
+        grid.update(position("TRUCK-01", now, 40.7128, -74.0060)); // the query point
+        grid.update(position("TRUCK-02", now, 40.7580, -73.9855)); // ~5.3 km away
+        grid.update(position("TRUCK-03", now, 40.6413, -73.7781)); // ~21 km away
+
+        List<NearbyPosition> result = grid.findNear(40.7128, -74.0060, 10.0, 100);
+
+        assertEquals(2, result.size());
+        assertEquals("TRUCK-01", result.get(0).position().publisherId());
+        assertEquals("TRUCK-02", result.get(1).position().publisherId());
+        assertEquals(5.3, result.get(1).distanceKm(), 0.2);
+    }
+
+    @Test
+    void testUpdate_MovesPublisherBetweenCells_AndIgnoresStalePositions() {
+        grid.update(position("TRUCK-01", now, 40.71, -74.00));
+        grid.update(position("TRUCK-01", now.plusMinutes(5), 42.36, -71.06));
+        grid.update(position("TRUCK-01", now.minusMinutes(5), 40.71, -74.00)); // late, older fix
+
+        assertEquals(1, grid.size());
+        assertTrue(grid.findNear(40.71, -74.00, 5.0, 100).isEmpty());
+        assertEquals(1, grid.findNear(42.36, -71.06, 5.0, 100).size());
+    }
+
+    @Test
+    void testFindWithin_BoxAcrossAntimeridian() {
+        grid.update(position("SHIP-01", now, 10.0, 179.9));
+        grid.update(position("SHIP-02", now, 10.0, -179.9));
+        grid.update(position("SHIP-03", now, 10.0, 0.0));
+
+        List<LastKnownPosition> result = grid.findWithin(9.0, 179.0, 11.0, -179.0, 100);
+
+        assertEquals(2, result.size());
+        assertEquals(2, grid.findNear(10.0, 180.0, 20.0, 100).size());
+    }
+
+    @Test
+    void testFind_RespectsLimit() {
+        for (int i = 0; i < 10; i++) {
+            grid.update(position("TRUCK-" + i, now, 40.71 + i * 0.001, -74.00));
+        }
+
+        assertEquals(3, grid.findWithin(40.0, -75.0, 41.0, -73.0, 3).size());
+        List<NearbyPosition> nearest = grid.findNear(40.71, -74.00, 50.0, 3);
+        assertEquals(3, nearest.size());
+        assertEquals("TRUCK-0", nearest.get(0).position().publisherId());
+    }
+}
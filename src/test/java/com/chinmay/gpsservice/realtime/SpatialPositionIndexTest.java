@@ -0,0 +1,39 @@
+package com.chinmay.gpsservice.realtime;
+
+import com.chinmay.gpsservice.config.IngestTopology;
+import com.chinmay.gpsservice.entity.GpsRecord;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SpatialPositionIndexTest {
+
+    private final LastKnownPositionStore positionStore = mock(LastKnownPositionStore.class);
+    private final GpsRecord record = new GpsRecord(null, "TRUCK-01", 40.0, -74.0, 0.0, LocalDateTime.of(2026, 7, 13, 10, 0));
+
+    @Test
+    void testFindNear_SingleNodeIndexesSavedPoints() {
+        SpatialPositionIndex index = new SpatialPositionIndex(positionStore, new IngestTopology(true, false), 0.05);
+
+        index.onRecordsSaved(List.of(record));
+
+        assertTrue(index.isAvailable());
+        assertEquals(1, index.findNear(40.0, -74.0, 1.0, 10).size());
+    }
+
+    @Test
+    void testWarmUp_ShardedIndexStaysUnavailable() {
+        SpatialPositionIndex index = new SpatialPositionIndex(positionStore, new IngestTopology(true, true), 0.05);
+
+        index.warmUp();
+        index.onRecordsSaved(List.of(record));
+
+        assertFalse(index.isAvailable());
+        assertTrue(index.findNear(40.0, -74.0, 1.0, 10).isEmpty());
+        verifyNoInteractions(positionStore);
+    }
+}
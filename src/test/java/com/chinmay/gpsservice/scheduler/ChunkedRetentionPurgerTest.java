@@ -0,0 +1,95 @@
+package com.chinmay.gpsservice.scheduler;
+
+import com.chinmay.gpsservice.entity.PurgeCheckpoint;
+import com.chinmay.gpsservice.repository.PurgeCheckpointRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChunkedRetentionPurgerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private PurgeCheckpointRepository checkpointRepository;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private ChunkedRetentionPurger purger;
+
+    private final LocalDateTime cutoff = LocalDateTime.of(2026, 7, 1, 0, 0);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(purger, "chunkSize", 3);
+        ReflectionTestUtils.setField(purger, "pauseMs", 0L);
+        ReflectionTestUtils.setField(purger, "maxRowsPerSecond", 0L);
+        when(checkpointRepository.save(any(PurgeCheckpoint.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void testPurgeOlderThan_DeletesChunkByChunkUntilNothingExpired() {
+        when(checkpointRepository.findById(PurgeCheckpoint.GPS_RECORDS)).thenReturn(Optional.empty());
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(0L), eq(cutoff), eq(3))).thenReturn(List.of(1L, 2L, 5L));
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(5L), eq(cutoff), eq(3))).thenReturn(List.of(8L));
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(8L), eq(cutoff), eq(3))).thenReturn(Collections.emptyList());
+        when(jdbcTemplate.update(anyString(), eq(1L), eq(5L), eq(cutoff))).thenReturn(3);
+        when(jdbcTemplate.update(anyString(), eq(8L), eq(8L), eq(cutoff))).thenReturn(1);
+
+        PurgeProgress result = purger.purgeOlderThan(cutoff);
+
+        assertFalse(result.running());
+        assertEquals(2, result.chunksCompleted());
+        assertEquals(4, result.rowsDeleted());
+        assertEquals(8L, result.lastPurgedId());
+        assertNotNull(result.finishedAt());
+    }
+
+    @Test
+    void testPurgeOlderThan_InterruptedRun_ResumesAfterCheckpoint() {
+        PurgeCheckpoint interrupted = new PurgeCheckpoint(PurgeCheckpoint.GPS_RECORDS);
+        interrupted.setRunning(true);
+        interrupted.setLastPurgedId(100L);
+        interrupted.setRowsDeleted(40L);
+        interrupted.setStartedAt(LocalDateTime.now().minusHours(1));
+        when(checkpointRepository.findById(PurgeCheckpoint.GPS_RECORDS)).thenReturn(Optional.of(interrupted));
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(100L), eq(cutoff), eq(3))).thenReturn(List.of(101L, 102L));
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(102L), eq(cutoff), eq(3))).thenReturn(Collections.emptyList());
+        when(jdbcTemplate.update(anyString(), eq(101L), eq(102L), eq(cutoff))).thenReturn(2);
+
+        PurgeProgress result = purger.purgeOlderThan(cutoff);
+
+        assertEquals(42, result.rowsDeleted(), "Rows from the interrupted run must be carried over");
+        assertEquals(2.0, meterRegistry.counter("gps.retention.purge.rows").count(), "Only rows deleted by this run are counted");
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(Long.class), eq(0L), any(), anyInt());
+        assertFalse(interrupted.isRunning());
+    }
+}
@@ -0,0 +1,57 @@
+package com.chinmay.gpsservice.scheduler.partition;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionPlannerTest {
+
+    private final LocalDate today = LocalDate.of(2026, 10, 17); // a Saturday
+
+    @Test
+    void testInitialLayout_Daily_HistoryCurrentFutureAndCatchAll() {
+        PartitionPlanner planner = new PartitionPlanner(PartitionInterval.DAILY, 2);
+
+        List<TimePartition> layout = planner.initialLayout(today);
+
+        assertEquals(List.of(
+                new TimePartition("p_history", LocalDate.of(2026, 10, 17)),
+                new TimePartition("p20261017", LocalDate.of(2026, 10, 18)),
+                new TimePartition("p20261018", LocalDate.of(2026, 10, 19)),
+                new TimePartition("p20261019", LocalDate.of(2026, 10, 20)),
+                TimePartition.catchAll()), layout);
+    }
+
+    @Test
+    void testPlan_DropsOnlyFullyExpiredPartitionsAndExtendsHorizon() {
+        PartitionPlanner planner = new PartitionPlanner(PartitionInterval.DAILY, 2);
+        List<TimePartition> existing = List.of(
+                new TimePartition("p_history", LocalDate.of(2026, 10, 15)),
+                new TimePartition("p20261015", LocalDate.of(2026, 10, 16)),
+                new TimePartition("p20261016", LocalDate.of(2026, 10, 17)),
+                new TimePartition("p20261017", LocalDate.of(2026, 10, 18)),
+                TimePartition.catchAll());
+
+        // Cutoff in the middle of the 16th: the 16th partition still holds live rows
+        PartitionPlan plan = planner.plan(existing, today, LocalDate.of(2026, 10, 16).atTime(12, 0));
+
+        assertEquals(List.of("p_history", "p20261015"), plan.toDrop().stream().map(TimePartition::name).toList());
+        assertEquals(List.of("p20261018", "p20261019"), plan.toCreate().stream().map(TimePartition::name).toList());
+    }
+
+    @Test
+    void testPlan_HorizonAlreadyCovered_NothingToCreate() {
+        PartitionPlanner planner = new PartitionPlanner(PartitionInterval.WEEKLY, 1);
+        List<TimePartition> existing = List.of(
+                new TimePartition("p20261012", LocalDate.of(2026, 10, 19)),
+                new TimePartition("p20261019", LocalDate.of(2026, 10, 26)),
+                TimePartition.catchAll());
+
+        PartitionPlan plan = planner.plan(existing, today, LocalDate.of(2026, 9, 1).atStartOfDay());
+
+        assertTrue(plan.isEmpty());
+    }
+}
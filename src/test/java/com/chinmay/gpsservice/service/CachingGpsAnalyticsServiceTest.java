@@ -0,0 +1,100 @@
+package com.chinmay.gpsservice.service;
+
+import com.chinmay.gpsservice.config.IngestTopology;
+import com.chinmay.gpsservice.entity.GpsRecord;
+import com.chinmay.gpsservice.service.AnalyticsService.CachingGpsAnalyticsService;
+import com.chinmay.gpsservice.service.AnalyticsService.GpsAnalyticsServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CachingGpsAnalyticsServiceTest {
+
+    @Mock
+    private GpsAnalyticsServiceImpl delegate;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CachingGpsAnalyticsService cachingService;
+    private final LocalDateTime from = LocalDateTime.of(2026, 7, 13, 8, 0);
+    private final LocalDateTime to = from.plusHours(2);
+
+    @BeforeEach
+    void setUp() {
+        cachingService = new CachingGpsAnalyticsService(delegate, new IngestTopology(true, false), meterRegistry, 1, 10);
+    }
+
+    private static GpsRecord record(String publisherId, LocalDateTime timestamp) {
+        return new GpsRecord(null, publisherId, 1.0, 2.0, 0.0, timestamp);
+    }
+
+    @Test
+    void testCalculateTotalDistance_RepeatedWindowIsServedFromCache() {
+        when(delegate.calculateTotalDistance("TRUCK-01", from, to)).thenReturn(12.5);
+
+        assertEquals(12.5, cachingService.calculateTotalDistance("TRUCK-01", from, to));
+        assertEquals(12.5, cachingService.calculateTotalDistance("TRUCK-01", from, to));
+
+        verify(delegate, times(1)).calculateTotalDistance("TRUCK-01", from, to);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "gps.analytics").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void testOnRecordsSaved_DropsOnlyWindowsContainingTheNewPoints() {
+        LocalDateTime laterTo = to.plusHours(2);
+        when(delegate.calculateTotalDistance("TRUCK-01", from, to)).thenReturn(12.5, 13.0);
+        when(delegate.calculateTotalDistance("TRUCK-01", to.plusMinutes(1), laterTo)).thenReturn(4.0);
+        when(delegate.calculateTotalDistance("TRUCK-02", from, to)).thenReturn(7.0);
+        cachingService.calculateTotalDistance("TRUCK-01", from, to);
+        cachingService.calculateTotalDistance("TRUCK-01", to.plusMinutes(1), laterTo);
+        cachingService.calculateTotalDistance("TRUCK-02", from, to);
+
+        // One point of TRUCK-01 inside [from, to] (at its upper bound), one before any window
+        cachingService.onRecordsSaved(List.of(record("TRUCK-01", to), record("TRUCK-01", from.minusDays(1))));
+
+        assertEquals(13.0, cachingService.calculateTotalDistance("TRUCK-01", from, to));
+        assertEquals(4.0, cachingService.calculateTotalDistance("TRUCK-01", to.plusMinutes(1), laterTo));
+        assertEquals(7.0, cachingService.calculateTotalDistance("TRUCK-02", from, to));
+        verify(delegate, times(2)).calculateTotalDistance("TRUCK-01", from, to);
+        verify(delegate, times(1)).calculateTotalDistance("TRUCK-01", to.plusMinutes(1), laterTo);
+        verify(delegate, times(1)).calculateTotalDistance("TRUCK-02", from, to);
+        assertEquals(1.0, meterRegistry.get("gps.analytics.cache.invalidations").counter().count());
+    }
+
+    @Test
+    void testCalculateTotalDistance_ResultRacingAnIngestIsNotCached() {
+        when(delegate.calculateTotalDistance("TRUCK-01", from, to)).thenAnswer(invocation -> {
+            // A point commits while the query is still reading
+            cachingService.onRecordsSaved(List.of(record("TRUCK-01", from.plusMinutes(5))));
+            return 12.5;
+        }).thenReturn(13.0);
+
+        assertEquals(12.5, cachingService.calculateTotalDistance("TRUCK-01", from, to));
+        assertEquals(13.0, cachingService.calculateTotalDistance("TRUCK-01", from, to));
+        assertEquals(13.0, cachingService.calculateTotalDistance("TRUCK-01", from, to));
+
+        verify(delegate, times(2)).calculateTotalDistance("TRUCK-01", from, to);
+    }
+
+    @Test
+    void testCalculateTotalDistance_OtherInstancesWrite_NothingIsCached() {
+        CachingGpsAnalyticsService sharded = new CachingGpsAnalyticsService(delegate, new IngestTopology(true, true), meterRegistry, 1, 10);
+        when(delegate.calculateTotalDistance("TRUCK-01", from, to)).thenReturn(12.5, 13.0);
+
+        assertEquals(12.5, sharded.calculateTotalDistance("TRUCK-01", from, to));
+        assertEquals(13.0, sharded.calculateTotalDistance("TRUCK-01", from, to)); // a point stored by another node
+        verify(delegate, times(2)).calculateTotalDistance("TRUCK-01", from, to);
+    }
+}
@@ -0,0 +1,105 @@
+package com.chinmay.gpsservice.service;
+
+import com.chinmay.gpsservice.entity.GpsDistanceBucket;
+import com.chinmay.gpsservice.entity.GpsRecord;
+import com.chinmay.gpsservice.repository.GpsDistanceBucketRepository;
+import com.chinmay.gpsservice.repository.GpsRecordRepository;
+import com.chinmay.gpsservice.service.AnalyticsService.DistanceBucketService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Competing consumers storing points of the same publisher at once, against the real buckets (H2)
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // every save commits on its own, like in production
+@Import({GpsServiceImpl.class, DistanceBucketService.class, DistanceBucketConcurrencyTest.Config.class})
+class DistanceBucketConcurrencyTest {
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        GpsIngestObserver noopObserver() {
+            return records -> { };
+        }
+    }
+
+    private static final int CONSUMERS = 4;
+    private static final int POINTS_PER_CONSUMER = 25;
+
+    @Autowired
+    private GpsService gpsService;
+
+    @Autowired
+    private DistanceBucketService distanceBucketService;
+
+    @Autowired
+    private GpsRecordRepository gpsRecordRepository;
+
+    @Autowired
+    private GpsDistanceBucketRepository bucketRepository;
+
+    @AfterEach
+    void tearDown() {
+        bucketRepository.deleteAll();
+        gpsRecordRepository.deleteAll();
+    }
+
+    @Test
+    void testConcurrentConsumersOfOnePublisher_AllPointsStoredAndBucketsConsistent() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2026, 7, 13, 8, 0);
+        ExecutorService consumers = Executors.newFixedThreadPool(CONSUMERS);
+        List<Future<?>> results = new ArrayList<>();
+        for (int c = 0; c < CONSUMERS; c++) {
+            int consumer = c;
+            results.add(consumers.submit(() -> {
+                for (int i = 0; i < POINTS_PER_CONSUMER; i++) {
+                    // Interleaved timestamps, so consumers both append to and repair the same buckets
+                    LocalDateTime timestamp = start.plusMinutes(i * 10L).plusSeconds(consumer);
+                    gpsService.saveGpsRecords(List.of(new GpsRecord(null, "TRUCK-01", 40.0 + i * 0.001, -74.0 + consumer * 0.001, 0.0, timestamp)));
+                }
+                return null;
+            }));
+        }
+        for (Future<?> result : results) {
+            result.get(60, TimeUnit.SECONDS); // fails the test if a conflict escaped the retries
+        }
+        consumers.shutdown();
+
+        assertEquals(CONSUMERS * POINTS_PER_CONSUMER, gpsRecordRepository.count());
+        List<String> incremental = bucketSummaries();
+        distanceBucketService.rebuild("TRUCK-01");
+        assertEquals(bucketSummaries(), incremental, "Buckets maintained under contention match a rebuild from raw points");
+    }
+
+    private List<String> bucketSummaries() {
+        return bucketRepository.findAll().stream()
+                .sorted(Comparator.comparing(GpsDistanceBucket::getBucketStart))
+                .map(bucket -> "%s points=%d internal=%.9f inbound=%.9f last=%s".formatted(bucket.getBucketStart(),
+                        bucket.getPointCount(), bucket.getInternalDistanceKm(), bucket.getInboundDistanceKm(), bucket.getLastTimestamp()))
+                .toList();
+    }
+}
@@ -0,0 +1,175 @@
+package com.chinmay.gpsservice.service;
+
+import com.chinmay.gpsservice.dto.RoutePoint;
+import com.chinmay.gpsservice.dto.TrackPoint;
+import com.chinmay.gpsservice.entity.GpsDistanceBucket;
+import com.chinmay.gpsservice.entity.GpsRecord;
+import com.chinmay.gpsservice.repository.GpsDistanceBucketLockRepository;
+import com.chinmay.gpsservice.repository.GpsDistanceBucketRepository;
+import com.chinmay.gpsservice.repository.GpsRecordRepository;
+import com.chinmay.gpsservice.service.AnalyticsService.DistanceBucketService;
+import com.chinmay.gpsservice.util.HaversineUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DistanceBucketServiceTest {
+
+    private static final String PUBLISHER = "TRUCK-01";
+    private static final LocalDateTime DAY = LocalDateTime.of(2026, 7, 13, 0, 0);
+
+    @Mock
+    private GpsDistanceBucketRepository bucketRepository;
+
+    @Mock
+    private GpsRecordRepository gpsRecordRepository;
+
+    @Mock
+    private GpsDistanceBucketLockRepository lockRepository;
+
+    @InjectMocks
+    private DistanceBucketService bucketService;
+
+    // One point every 20 minutes from 00:10 to 03:50, moving north-east
+    private final List<TrackPoint> route = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bucketService, "enabled", true);
+        ReflectionTestUtils.setField(bucketService, "bucketMinutes", 60);
+        for (int i = 0; i < 12; i++) {
+            route.add(new TrackPoint(DAY.plusMinutes(10 + 20L * i), 40.0 + i * 0.01, -74.0 + i * 0.02));
+        }
+    }
+
+    @Test
+    void testRecordPoints_InOrderPointInSameBucket_AddsInternalSegment() {
+        GpsDistanceBucket latest = new GpsDistanceBucket(PUBLISHER, DAY);
+        latest.setPointCount(1);
+        latest.setFirstTimestamp(DAY.plusMinutes(10));
+        latest.setLastTimestamp(DAY.plusMinutes(10));
+        latest.setLastLatitude(40.0);
+        latest.setLastLongitude(-74.0);
+        when(bucketRepository.findFirstByPublisherIdOrderByBucketStartDesc(PUBLISHER)).thenReturn(Optional.of(latest));
+        when(bucketRepository.save(any(GpsDistanceBucket.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        bucketService.recordPoints(new ArrayList<>(List.of(record(DAY.plusMinutes(30), 40.01, -73.98))));
+
+        assertEquals(2, latest.getPointCount());
+        assertEquals(HaversineUtil.calculateDistance(40.0, -74.0, 40.01, -73.98), latest.getInternalDistanceKm(), 1e-9);
+        assertEquals(DAY.plusMinutes(30), latest.getLastTimestamp());
+        verify(gpsRecordRepository, never()).findFirstByPublisherIdAndTimestampGreaterThanOrderByTimestampAsc(any(), any());
+    }
+
+    @Test
+    void testRecordPoints_InOrderPointInNextBucket_OpensBucketWithInboundSegment() {
+        GpsDistanceBucket latest = new GpsDistanceBucket(PUBLISHER, DAY);
+        latest.setPointCount(1);
+        latest.setLastTimestamp(DAY.plusMinutes(50));
+        latest.setLastLatitude(40.0);
+        latest.setLastLongitude(-74.0);
+        when(bucketRepository.findFirstByPublisherIdOrderByBucketStartDesc(PUBLISHER)).thenReturn(Optional.of(latest));
+        when(bucketRepository.save(any(GpsDistanceBucket.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        bucketService.recordPoints(new ArrayList<>(List.of(record(DAY.plusMinutes(70), 40.01, -73.98))));
+
+        ArgumentCaptor<GpsDistanceBucket> captor = ArgumentCaptor.forClass(GpsDistanceBucket.class);
+        verify(bucketRepository).save(captor.capture());
+        GpsDistanceBucket opened = captor.getValue();
+        assertEquals(DAY.plusHours(1), opened.getBucketStart());
+        assertEquals(0.0, opened.getInternalDistanceKm());
+        assertEquals(HaversineUtil.calculateDistance(40.0, -74.0, 40.01, -73.98), opened.getInboundDistanceKm(), 1e-9);
+        assertEquals(DAY.plusMinutes(50), opened.getInboundFromTimestamp());
+    }
+
+    @Test
+    void testCalculateDistance_CombinesWholeBucketsAndEdges_MatchesRawSum() {
+        LocalDateTime from = DAY.plusMinutes(30);
+        LocalDateTime to = DAY.plusHours(3).plusMinutes(30);
+
+        // Whole buckets are 01:00 and 02:00; 00:30-01:00 and 03:00-03:30 are edges
+        when(bucketRepository.findBucketsInRange(PUBLISHER, DAY.plusHours(1), DAY.plusHours(3)))
+                .thenReturn(List.of(bucketFor(DAY.plusHours(1)), bucketFor(DAY.plusHours(2))));
+        when(gpsRecordRepository.streamTrackPoints(PUBLISHER, from, DAY.plusHours(1)))
+                .thenReturn(route.stream().filter(p -> !p.timestamp().isBefore(from) && p.timestamp().isBefore(DAY.plusHours(1))));
+        LocalDateTime lastSpanPoint = DAY.plusHours(2).plusMinutes(50);
+        when(gpsRecordRepository.streamRoutePoints(PUBLISHER, lastSpanPoint, to))
+                .thenReturn(route.stream()
+                        .filter(p -> !p.timestamp().isBefore(lastSpanPoint) && !p.timestamp().isAfter(to))
+                        .map(p -> new RoutePoint(p.latitude(), p.longitude())));
+
+        Optional<Double> distance = bucketService.calculateDistance(PUBLISHER, from, to);
+
+        assertTrue(distance.isPresent());
+        assertEquals(rawDistance(from, to), distance.get(), 1e-9, "Bucketed answer must equal the raw point-by-point sum");
+    }
+
+    @Test
+    void testCalculateDistance_NoWholeBucketInRange_ReturnsEmpty() {
+        Optional<Double> distance = bucketService.calculateDistance(PUBLISHER, DAY.plusMinutes(10), DAY.plusMinutes(50));
+
+        assertTrue(distance.isEmpty());
+        verifyNoInteractions(bucketRepository, gpsRecordRepository);
+    }
+
+    private GpsDistanceBucket bucketFor(LocalDateTime bucketStart) {
+        GpsDistanceBucket bucket = new GpsDistanceBucket(PUBLISHER, bucketStart);
+        TrackPoint prev = null;
+        for (TrackPoint point : route) {
+            boolean inBucket = !point.timestamp().isBefore(bucketStart) && point.timestamp().isBefore(bucketStart.plusHours(1));
+            if (inBucket) {
+                double segment = prev == null ? 0.0
+                        : HaversineUtil.calculateDistance(prev.latitude(), prev.longitude(), point.latitude(), point.longitude());
+                if (bucket.getPointCount() == 0) {
+                    bucket.setInboundDistanceKm(segment);
+                    bucket.setInboundFromTimestamp(prev == null ? null : prev.timestamp());
+                } else {
+                    bucket.setInternalDistanceKm(bucket.getInternalDistanceKm() + segment);
+                }
+                bucket.setPointCount(bucket.getPointCount() + 1);
+                bucket.setLastTimestamp(point.timestamp());
+            }
+            prev = point;
+        }
+        return bucket;
+    }
+
+    private double rawDistance(LocalDateTime from, LocalDateTime to) {
+        double total = 0.0;
+        TrackPoint prev = null;
+        for (TrackPoint point : route) {
+            if (point.timestamp().isBefore(from) || point.timestamp().isAfter(to)) {
+                continue;
+            }
+            if (prev != null) {
+                total += HaversineUtil.calculateDistance(prev.latitude(), prev.longitude(), point.latitude(), point.longitude());
+            }
+            prev = point;
+        }
+        return total;
+    }
+
+    private GpsRecord record(LocalDateTime timestamp, double latitude, double longitude) {
+        GpsRecord record = new GpsRecord();
+        record.setPublisherId(PUBLISHER);
+        record.setTimestamp(timestamp);
+        record.setLatitude(latitude);
+        record.setLongitude(longitude);
+        return record;
+    }
+}
@@ -0,0 +1,67 @@
+package com.chinmay.gpsservice.service;
+
+import com.chinmay.gpsservice.dto.FleetDistance;
+import com.chinmay.gpsservice.entity.GpsRecord;
+import com.chinmay.gpsservice.repository.GpsRecordRepository;
+import com.chinmay.gpsservice.service.AnalyticsService.FleetDistanceReportService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The batch keyset runs real queries (H2), so a missed or repeated publisher at a batch boundary would show
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // the report opens a transaction per batch
+class FleetDistanceReportServiceRepositoryTest {
+
+    @Autowired
+    private GpsRecordRepository gpsRecordRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private FleetDistanceReportService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+        gpsRecordRepository.deleteAll();
+    }
+
+    @Test
+    void testStreamFleetDistances_BatchesCoverEveryPublisherOnce() {
+        LocalDateTime from = LocalDateTime.of(2026, 7, 13, 0, 0);
+        List<GpsRecord> records = new ArrayList<>();
+        for (String publisherId : new String[]{"TRUCK-01", "TRUCK-02", "TRUCK-03", "TRUCK-04", "TRUCK-05"}) {
+            for (int i = 0; i < 3; i++) {
+                records.add(new GpsRecord(null, publisherId, 40.0 + 0.01 * i, -74.0, 0.0, from.plusMinutes(i)));
+            }
+        }
+        records.add(new GpsRecord(null, "TRUCK-06", 40.0, -74.0, 0.0, from.minusDays(1))); // outside the window
+        gpsRecordRepository.saveAll(records);
+        service = new FleetDistanceReportService(gpsRecordRepository, transactionManager, new SimpleMeterRegistry(), 2, 65536, 2);
+
+        List<FleetDistance> report = new ArrayList<>();
+        long publishers = service.streamFleetDistances(List.of(), from, from.plusDays(1), report::add);
+
+        assertEquals(5, publishers);
+        assertEquals(List.of("TRUCK-01", "TRUCK-02", "TRUCK-03", "TRUCK-04", "TRUCK-05"),
+                report.stream().map(FleetDistance::publisherId).toList());
+        for (FleetDistance distance : report) {
+            assertEquals(3, distance.points());
+            assertEquals(2.22, distance.totalDistanceKm(), 0.01); // two 0.01° steps north
+        }
+    }
+}
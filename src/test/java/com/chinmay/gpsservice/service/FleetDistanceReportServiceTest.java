@@ -0,0 +1,150 @@
+package com.chinmay.gpsservice.service;
+
+import com.chinmay.gpsservice.dto.FleetDistance;
+import com.chinmay.gpsservice.dto.PublisherRoutePoint;
+import com.chinmay.gpsservice.repository.GpsRecordRepository;
+import com.chinmay.gpsservice.service.AnalyticsService.FleetDistanceReportService;
+import com.chinmay.gpsservice.util.RouteDistanceAccumulator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.invocation.Invocation;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FleetDistanceReportServiceTest {
+
+    @Mock
+    private GpsRecordRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private FleetDistanceReportService service;
+    private final LocalDateTime from = LocalDateTime.of(2026, 7, 13, 0, 0);
+    private final LocalDateTime to = from.plusDays(1);
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    private FleetDistanceReportService service(int chunkPoints, int batchPublishers) {
+        service = new FleetDistanceReportService(repository, transactionManager, new SimpleMeterRegistry(), 2,
+                chunkPoints, batchPublishers);
+        return service;
+    }
+
+    // Answers the batch queries from an in-memory list, like the database would
+    private void stubFleet(List<PublisherRoutePoint> points) {
+        when(repository.findFleetPublisherIds(anyString(), eq(from), eq(to), any(Limit.class))).thenAnswer(invocation -> {
+            String after = invocation.getArgument(0);
+            Limit limit = invocation.getArgument(3);
+            return points.stream().map(PublisherRoutePoint::publisherId).distinct()
+                    .filter(id -> id.compareTo(after) > 0).sorted().limit(limit.max()).toList();
+        });
+        when(repository.streamFleetRoutePointsFor(anyCollection(), eq(from), eq(to))).thenAnswer(invocation -> {
+            Collection<String> ids = invocation.getArgument(0);
+            return points.stream().filter(point -> ids.contains(point.publisherId()));
+        });
+    }
+
+    // Random walks for the given publishers and lengths, grouped by publisher as the query returns them
+    private static List<PublisherRoutePoint> routes(Map<String, Integer> lengths) {
+        Random random = new Random(7);
+        List<PublisherRoutePoint> points = new ArrayList<>();
+        lengths.forEach((publisherId, length) -> {
+            double lat = 40.0, lon = -74.0;
+            for (int i = 0; i < length; i++) {
+                lat += random.nextDouble(-0.001, 0.001);
+                lon += random.nextDouble(-0.001, 0.001);
+                points.add(new PublisherRoutePoint(publisherId, lat, lon));
+            }
+        });
+        return points;
+    }
+
+    private static double expectedDistance(List<PublisherRoutePoint> points, String publisherId) {
+        RouteDistanceAccumulator accumulator = new RouteDistanceAccumulator();
+        points.stream().filter(point -> point.publisherId().equals(publisherId))
+                .forEach(point -> accumulator.add(point.latitude(), point.longitude()));
+        return accumulator.getTotalDistanceKm();
+    }
+
+    @Test
+    void testStreamFleetDistances_MatchesSequentialSumsInPublisherOrder() {
+        Map<String, Integer> lengths = new LinkedHashMap<>();
+        lengths.put("TRUCK-01", 1);
+        lengths.put("TRUCK-02", 25);   // spans several chunks
+        lengths.put("TRUCK-03", 10);   // exactly one full chunk
+        lengths.put("TRUCK-04", 20000); // split on the pool
+        List<PublisherRoutePoint> points = routes(lengths);
+        stubFleet(points);
+
+        List<FleetDistance> report = new ArrayList<>();
+        long publishers = service(10, 3).streamFleetDistances(List.of(), from, to, report::add);
+
+        assertEquals(4, publishers);
+        assertEquals(List.of("TRUCK-01", "TRUCK-02", "TRUCK-03", "TRUCK-04"),
+                report.stream().map(FleetDistance::publisherId).toList());
+        for (FleetDistance distance : report) {
+            assertEquals(lengths.get(distance.publisherId()), (int) distance.points());
+            assertEquals(expectedDistance(points, distance.publisherId()), distance.totalDistanceKm(), 1e-9);
+        }
+        assertEquals(0.0, report.get(0).totalDistanceKm());
+        verify(transactionManager, times(2)).commit(any()); // a batch of 3, then one of 1
+    }
+
+    @Test
+    void testStreamFleetDistances_WritesEachBatchAfterItsTransactionEnds() {
+        Map<String, Integer> lengths = new LinkedHashMap<>();
+        for (int i = 1; i <= 5; i++) {
+            lengths.put("TRUCK-0" + i, 50);
+        }
+        stubFleet(routes(lengths));
+
+        List<FleetDistance> report = new ArrayList<>();
+        service(65536, 2).streamFleetDistances(List.of(), from, to, distance -> {
+            Collection<Invocation> invocations = mockingDetails(transactionManager).getInvocations();
+            long begun = invocations.stream().filter(call -> call.getMethod().getName().equals("getTransaction")).count();
+            long ended = invocations.stream().filter(call -> call.getMethod().getName().equals("commit")).count();
+            assertEquals(begun, ended, "A client write must not happen inside a transaction");
+            report.add(distance);
+        });
+
+        assertEquals(List.of("TRUCK-01", "TRUCK-02", "TRUCK-03", "TRUCK-04", "TRUCK-05"),
+                report.stream().map(FleetDistance::publisherId).toList());
+        verify(transactionManager, times(3)).getTransaction(any());
+    }
+
+    @Test
+    void testStreamFleetDistances_PublisherListUsesFilteredQuery() {
+        List<PublisherRoutePoint> points = routes(Map.of("TRUCK-02", 100));
+        when(repository.streamFleetRoutePointsFor(List.of("TRUCK-02", "TRUCK-09"), from, to)).thenReturn(points.stream());
+
+        List<FleetDistance> report = new ArrayList<>();
+        service(65536, 500).streamFleetDistances(List.of("TRUCK-09", "TRUCK-02"), from, to, report::add);
+
+        assertEquals(1, report.size(), "Publishers without points are not reported");
+        assertEquals(expectedDistance(points, "TRUCK-02"), report.get(0).totalDistanceKm(), 1e-9);
+        verify(repository, never()).findFleetPublisherIds(any(), any(), any(), any());
+    }
+}
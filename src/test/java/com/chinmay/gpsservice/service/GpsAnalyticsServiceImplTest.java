@@ -1,21 +1,30 @@
 package com.chinmay.gpsservice.service;
 
-import com.chinmay.gpsservice.entity.GpsRecord;
+import com.chinmay.gpsservice.dto.RoutePoint;
+import com.chinmay.gpsservice.dto.SimplifiedTrackResponse;
+import com.chinmay.gpsservice.dto.TrackPoint;
+import com.chinmay.gpsservice.hotstore.HotTrackStore;
 import com.chinmay.gpsservice.repository.GpsRecordRepository;
+import com.chinmay.gpsservice.service.AnalyticsService.DistanceBucketService;
 import com.chinmay.gpsservice.service.AnalyticsService.GpsAnalyticsServiceImpl;
 import com.chinmay.gpsservice.util.HaversineUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDateTime;
-import java.util.Arrays;
-import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,25 +33,33 @@ class GpsAnalyticsServiceImplTest {
     @Mock
     private GpsRecordRepository repository;
 
-    @InjectMocks
+    @Mock
+    private DistanceBucketService distanceBucketService;
+
+    @Mock
+    private HotTrackStore hotTrackStore;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     private GpsAnalyticsServiceImpl analyticsService;
 
-    private GpsRecord point1;
-    private GpsRecord point2;
+    private RoutePoint point1;
+    private RoutePoint point2;
 
     @BeforeEach // this annotation is used to say that use these sample points before each unit test function
     void setUp() {
+        analyticsService = new GpsAnalyticsServiceImpl(repository, distanceBucketService, hotTrackStore,
+                transactionManager, meterRegistry, null, 1);
+
         // Point A: New York
-        point1 = new GpsRecord();
-        point1.setLatitude(40.6413);
-        point1.setLongitude(-73.7781);
-        point1.setTimestamp(LocalDateTime.now().minusHours(2));
+        point1 = new RoutePoint(40.6413, -73.7781);
 
         // Point B: London
-        point2 = new GpsRecord();
-        point2.setLatitude(51.4700);
-        point2.setLongitude(-0.4543);
-        point2.setTimestamp(LocalDateTime.now().minusHours(1));
+        point2 = new RoutePoint(51.4700, -0.4543);
     }
 
     @Test
@@ -53,8 +70,8 @@ class GpsAnalyticsServiceImplTest {
         String publisherId = "TRUCK-01";
 
         // Mock the database to return our two points
-        when(repository.findByPublisherIdAndTimestampBetweenOrderByTimestampAsc(publisherId, from, to))
-                .thenReturn(Arrays.asList(point1, point2));
+        when(repository.streamRoutePoints(publisherId, from, to))
+                .thenReturn(Stream.of(point1, point2));
 
         double distance = analyticsService.calculateTotalDistance(publisherId, from, to);
 
@@ -69,8 +86,8 @@ class GpsAnalyticsServiceImplTest {
         String publisherId = "TRUCK-01";
 
         // Mock the database to return ONLY ONE point
-        when(repository.findByPublisherIdAndTimestampBetweenOrderByTimestampAsc(publisherId, from, to))
-                .thenReturn(Collections.singletonList(point1));
+        when(repository.streamRoutePoints(publisherId, from, to))
+                .thenReturn(Stream.of(point1));
 
         double distance = analyticsService.calculateTotalDistance(publisherId, from, to);
 
@@ -78,6 +95,46 @@ class GpsAnalyticsServiceImplTest {
         assertEquals(0.0, distance, "Distance should be 0 if there is only 1 point");
     }
 
+    @Test
+    void testCalculateTotalDistance_RangeInHotStore_SkipsDatabase() {
+        LocalDateTime from = LocalDateTime.now().minusHours(3);
+        LocalDateTime to = LocalDateTime.now();
+        when(hotTrackStore.calculateDistance("TRUCK-01", from, to)).thenReturn(Optional.of(12.5));
+
+        double distance = analyticsService.calculateTotalDistance("TRUCK-01", from, to);
+
+        assertEquals(12.5, distance);
+        verifyNoInteractions(repository, distanceBucketService, transactionManager);
+    }
+
+    @Test
+    void testGetSimplifiedTrack_OverTheConcurrencyLimit_IsRejected() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2026, 7, 13, 0, 0);
+        LocalDateTime to = from.plusDays(1);
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.streamTrackPoints("TRUCK-01", from, to)).thenAnswer(invocation -> {
+            reading.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return Stream.of(new TrackPoint(from, 40.0, -74.0), new TrackPoint(from.plusMinutes(1), 40.01, -74.0));
+        });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<SimplifiedTrackResponse> first = executor.submit(() -> analyticsService.getSimplifiedTrack("TRUCK-01", from, to, 0, 100));
+            assertTrue(reading.await(10, TimeUnit.SECONDS));
+
+            assertThrows(RejectedExecutionException.class, () -> analyticsService.getSimplifiedTrack("TRUCK-01", from, to, 0, 100));
+
+            release.countDown();
+            assertEquals(2, first.get(10, TimeUnit.SECONDS).points().size());
+            assertEquals(2, analyticsService.getSimplifiedTrack("TRUCK-01", from, to, 0, 100).points().size(),
+                    "the permit is returned once the first track is built");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test //
     void testReversibilityBetweenTwoPoints() {
 
@@ -0,0 +1,114 @@
+package com.chinmay.gpsservice.service;
+
+import com.chinmay.gpsservice.dto.BulkIngestResult;
+import com.chinmay.gpsservice.messaging.GpsMessagePublisher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpException;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GpsBulkIngestionServiceTest {
+
+    @Mock
+    private GpsMessagePublisher gpsMessagePublisher;
+
+    private GpsBulkIngestionService bulkIngestionService;
+
+    @BeforeEach
+    void setUp() {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        bulkIngestionService = new GpsBulkIngestionService(gpsMessagePublisher, new ObjectMapper(), validator, 10, 2, 1000);
+    }
+
+    private static String item(String publisherId, double latitude) {
+        return "{\"publisherId\":\"" + publisherId + "\",\"gpsData\":{\"latitude\":" + latitude
+                + ",\"longitude\":-74.0,\"timeStamp\":\"2026-07-13T10:15:30\"}}";
+    }
+
+    private BulkIngestResult ingest(String body) {
+        return bulkIngestionService.ingest(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), null);
+    }
+
+    @Test
+    void testIngest_JsonArray_PublishesEveryValidItem() throws Exception {
+        when(gpsMessagePublisher.publishConfirmed(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        BulkIngestResult result = ingest("[" + item("TRUCK-01", 40.0) + "," + item("TRUCK-01", 40.1) + "," + item("TRUCK-02", 40.2) + "]");
+
+        assertEquals(3, result.received());
+        assertEquals(3, result.accepted());
+        assertTrue(result.errors().isEmpty());
+        verify(gpsMessagePublisher, times(3)).publishConfirmed(any(), any());
+    }
+
+    @Test
+    void testIngest_Ndjson_InvalidItemsRejectedIndividually() throws Exception {
+        when(gpsMessagePublisher.publishConfirmed(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        BulkIngestResult result = ingest(item("TRUCK-01", 40.0) + "\n"
+                + item("TRUCK-01", 95.0) + "\n"              // latitude out of range
+                + "{\"publisherId\":\"TRUCK-01\"}\n"          // no gpsData
+                + item("TRUCK-01", 40.1) + "\n");
+
+        assertEquals(4, result.received());
+        assertEquals(2, result.accepted());
+        assertEquals(2, result.rejected());
+        assertEquals(1, result.errors().get(0).index());
+        assertTrue(result.errors().get(0).error().contains("latitude"));
+        assertEquals(2, result.errors().get(1).index());
+    }
+
+    @Test
+    void testIngest_BrokerNack_ReportedAsFailed() throws Exception {
+        when(gpsMessagePublisher.publishConfirmed(argThat(input -> input != null && "TRUCK-01".equals(input.getPublisherId())), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        when(gpsMessagePublisher.publishConfirmed(argThat(input -> input != null && "TRUCK-02".equals(input.getPublisherId())), any()))
+                .thenReturn(CompletableFuture.failedFuture(new AmqpException("Broker rejected the message: full")));
+
+        BulkIngestResult result = ingest("[" + item("TRUCK-01", 40.0) + "," + item("TRUCK-02", 40.1) + "]");
+
+        assertEquals(1, result.accepted());
+        assertEquals(1, result.failed());
+        assertEquals("TRUCK-02", result.errors().get(0).publisherId());
+    }
+
+    @Test
+    void testIngest_MalformedBody_PublishesItemsBeforeTheErrorAndAborts() throws Exception {
+        when(gpsMessagePublisher.publishConfirmed(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        BulkIngestResult result = ingest("[" + item("TRUCK-01", 40.0) + ", {\"publisherId\": ");
+
+        assertEquals(1, result.accepted());
+        assertNotNull(result.abortedReason());
+    }
+
+    @Test
+    void testIngest_TooManyItems_StopsAtLimit() throws Exception {
+        when(gpsMessagePublisher.publishConfirmed(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 12; i++) {
+            body.append(item("TRUCK-01", 40.0 + i * 0.001)).append('\n');
+        }
+
+        BulkIngestResult result = ingest(body.toString());
+
+        assertEquals(10, result.received());
+        assertEquals(10, result.accepted());
+        assertNotNull(result.abortedReason());
+    }
+}
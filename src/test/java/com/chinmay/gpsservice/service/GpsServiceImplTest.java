@@ -2,17 +2,28 @@ package com.chinmay.gpsservice.service;
 
 import com.chinmay.gpsservice.dto.ExtendedGpsInput;
 import com.chinmay.gpsservice.dto.GpsData;
+import com.chinmay.gpsservice.dto.GpsRecordPage;
 import com.chinmay.gpsservice.entity.GpsRecord;
 import com.chinmay.gpsservice.repository.GpsRecordRepository;
+import com.chinmay.gpsservice.service.AnalyticsService.DistanceBucketService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.InvalidDataAccessResourceUsageException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -26,6 +37,18 @@ class GpsServiceImplTest {
     @Mock
     private GpsRecordRepository gpsRecordRepository;
 
+    @Mock
+    private DistanceBucketService distanceBucketService;
+
+    @Mock
+    private GpsIngestObserver ingestObserver;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private List<GpsIngestObserver> ingestObservers = new ArrayList<>();
+
     @InjectMocks
     private GpsServiceImpl gpsService;
 
@@ -34,6 +57,8 @@ class GpsServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        ingestObservers.add(ingestObserver);
+
         validGpsData = GpsData.builder()
                 .latitude(40.7128f)
                 .longitude(-74.0060f)
@@ -68,6 +93,9 @@ class GpsServiceImplTest {
         assertEquals(40.7128, capturedRecord.getLatitude(), 0.001);
         assertEquals(-74.0060, capturedRecord.getLongitude(), 0.001);
         assertEquals(LocalDateTime.of(2026, 7, 13, 10, 0, 0), capturedRecord.getTimestamp());
+
+        // Outside a transaction the observers are notified immediately
+        verify(ingestObserver, times(1)).onRecordsSaved(List.of(mockSavedRecord));
     }
 
     @Test
@@ -107,4 +135,108 @@ class GpsServiceImplTest {
         assertEquals(50, deletedCount);
         verify(gpsRecordRepository, times(1)).deleteRecordsOlderThan(cutoff);
     }
+
+    @Test
+    void testSaveGpsRecords_ShouldBatchInsertAllRecords() {
+        GpsRecord first = gpsService.mapToGpsRecord(validGpsInput);
+        GpsRecord second = gpsService.mapToGpsRecord(validGpsInput);
+        List<GpsRecord> batch = List.of(first, second);
+        when(gpsRecordRepository.batchInsert(batch)).thenReturn(2);
+
+        int savedCount = gpsService.saveGpsRecords(batch);
+
+        assertEquals(2, savedCount);
+        verify(gpsRecordRepository, times(1)).batchInsert(batch);
+        verify(gpsRecordRepository, never()).save(any(GpsRecord.class));
+    }
+
+    @Test
+    void testSaveGpsRecords_BucketConflict_RetriesTheWholeTransaction() {
+        List<GpsRecord> batch = List.of(gpsService.mapToGpsRecord(validGpsInput));
+        when(gpsRecordRepository.batchInsert(batch)).thenReturn(1);
+        doThrow(new ObjectOptimisticLockingFailureException("GpsDistanceBucket", 1L))
+                .doNothing()
+                .when(distanceBucketService).recordPoints(batch);
+
+        assertEquals(1, gpsService.saveGpsRecords(batch));
+
+        verify(gpsRecordRepository, times(2)).batchInsert(batch);
+        verify(transactionManager, times(1)).rollback(any());
+        verify(ingestObserver, times(1)).onRecordsSaved(batch);
+    }
+
+    @Test
+    void testSaveGpsRecords_BadRecord_IsNotRetried() {
+        List<GpsRecord> batch = List.of(gpsService.mapToGpsRecord(validGpsInput));
+        when(gpsRecordRepository.batchInsert(batch)).thenThrow(new DataIntegrityViolationException("Value too long for column PUBLISHER_ID"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> gpsService.saveGpsRecords(batch));
+
+        verify(gpsRecordRepository, times(1)).batchInsert(batch);
+    }
+
+    @Test
+    void testSaveGpsRecords_DuplicateBucketKey_IsRetried() {
+        List<GpsRecord> batch = List.of(gpsService.mapToGpsRecord(validGpsInput));
+        when(gpsRecordRepository.batchInsert(batch)).thenReturn(1);
+        ConstraintViolationException duplicate = new ConstraintViolationException("Duplicate entry",
+                new SQLException("Duplicate entry"), "gps_distance_buckets.uk_bucket_publisher_start");
+        doThrow(new DataIntegrityViolationException("could not execute statement", duplicate))
+                .doNothing()
+                .when(distanceBucketService).recordPoints(batch);
+
+        gpsService.saveGpsRecords(batch);
+
+        verify(distanceBucketService, times(2)).recordPoints(batch);
+    }
+
+    @Test
+    void testSaveGpsRecords_FailureMentioningTheLockTable_IsNotRetried() {
+        List<GpsRecord> batch = List.of(gpsService.mapToGpsRecord(validGpsInput));
+        when(gpsRecordRepository.batchInsert(batch)).thenReturn(1);
+        doThrow(new InvalidDataAccessResourceUsageException("Table 'gps.gps_distance_bucket_locks' doesn't exist"))
+                .when(distanceBucketService).recordPoints(batch);
+
+        assertThrows(InvalidDataAccessResourceUsageException.class, () -> gpsService.saveGpsRecords(batch));
+
+        verify(distanceBucketService, times(1)).recordPoints(batch);
+    }
+
+    @Test
+    void testIsBucketConflictKey_MySqlAndH2Names() {
+        assertTrue(GpsServiceImpl.isBucketConflictKey("gps_distance_buckets.uk_bucket_publisher_start"));
+        assertTrue(GpsServiceImpl.isBucketConflictKey("gps_distance_bucket_locks.PRIMARY"));
+        assertTrue(GpsServiceImpl.isBucketConflictKey("\"PUBLIC.UK_BUCKET_PUBLISHER_START_INDEX_3 ON PUBLIC.GPS_DISTANCE_BUCKETS(PUBLISHER_ID NULLS FIRST, BUCKET_START NULLS FIRST) VALUES ( /* key:1 */ 'A', TIMESTAMP '2026-01-01 00:00:00')\""));
+        assertTrue(GpsServiceImpl.isBucketConflictKey("\"PUBLIC.PRIMARY_KEY_E ON PUBLIC.GPS_DISTANCE_BUCKET_LOCKS(PUBLISHER_ID) VALUES ( /* 1 */ 'A' )\""));
+        assertFalse(GpsServiceImpl.isBucketConflictKey("gps_records.PRIMARY"));
+        assertFalse(GpsServiceImpl.isBucketConflictKey(null));
+    }
+
+    @Test
+    void testGetGpsDataPageByPublisherId_FullPage_ReturnsCursorOfLastRecord() {
+        GpsRecord first = new GpsRecord(7L, "TRUCK-01", 40.0, -74.0, null, LocalDateTime.of(2026, 7, 13, 10, 0));
+        GpsRecord second = new GpsRecord(9L, "TRUCK-01", 40.1, -74.1, null, LocalDateTime.of(2026, 7, 13, 10, 1));
+        when(gpsRecordRepository.findByPublisherIdOrderByTimestampAscIdAsc("TRUCK-01", Limit.of(2)))
+                .thenReturn(List.of(first, second));
+
+        GpsRecordPage page = gpsService.getGpsDataPageByPublisherId("TRUCK-01", null, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertEquals("2026-07-13T10:01_9", page.getNextCursor());
+
+        // The cursor must resume strictly after (timestamp, id) of that record
+        when(gpsRecordRepository.findPublisherPageAfter("TRUCK-01", LocalDateTime.of(2026, 7, 13, 10, 1), 9L, Limit.of(2)))
+                .thenReturn(Collections.emptyList());
+
+        GpsRecordPage nextPage = gpsService.getGpsDataPageByPublisherId("TRUCK-01", page.getNextCursor(), 2);
+
+        assertTrue(nextPage.getItems().isEmpty());
+        assertNull(nextPage.getNextCursor());
+    }
+
+    @Test
+    void testGetGpsDataPage_MalformedCursor_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> gpsService.getGpsDataPage("not-a-number", 10));
+        verifyNoInteractions(gpsRecordRepository);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,86 @@
+package com.chinmay.gpsservice.service;
+
+import com.chinmay.gpsservice.entity.GpsRecord;
+import com.chinmay.gpsservice.repository.GpsRecordRepository;
+import com.chinmay.gpsservice.service.AnalyticsService.DistanceBucketService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The mocked-service tests cannot see what a rolled-back flush leaves on the entities; this one uses the real stack (H2)
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // the writer thread commits on its own
+@Import({GpsServiceImpl.class, DistanceBucketService.class, GpsWriteBehindWriterRepositoryTest.Config.class})
+class GpsWriteBehindWriterRepositoryTest {
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        GpsIngestObserver noopObserver() {
+            return records -> { };
+        }
+    }
+
+    @Autowired
+    private GpsService gpsService;
+
+    @Autowired
+    private GpsRecordRepository gpsRecordRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private GpsWriteBehindWriter writer;
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null) {
+            writer.stop();
+        }
+        gpsRecordRepository.deleteAll();
+    }
+
+    @Test
+    void testFlush_RejectedRecordFailsAloneAndTheRestAreStored() throws InterruptedException {
+        writer = new GpsWriteBehindWriter(gpsService, meterRegistry, 256, 3, 60_000, 1000, 5000);
+        LocalDateTime now = LocalDateTime.of(2026, 7, 13, 8, 0);
+        CountDownLatch acked = new CountDownLatch(3);
+        Map<String, String> outcomes = new ConcurrentHashMap<>();
+        String tooLongPublisherId = "X".repeat(101); // violates the column length, so the whole flush rolls back
+
+        for (String publisherId : new String[]{"TRUCK-01", tooLongPublisherId, "TRUCK-02"}) {
+            writer.submit(new GpsRecord(null, publisherId, 1.0, 2.0, 0.0, now), failure -> {
+                outcomes.put(publisherId, failure == null ? "stored" : "failed");
+                acked.countDown();
+            });
+        }
+        writer.start();
+
+        assertTrue(acked.await(10, TimeUnit.SECONDS));
+        assertEquals("stored", outcomes.get("TRUCK-01"));
+        assertEquals("failed", outcomes.get(tooLongPublisherId));
+        assertEquals("stored", outcomes.get("TRUCK-02"));
+        assertEquals(2, gpsRecordRepository.count());
+    }
+}
@@ -0,0 +1,121 @@
+package com.chinmay.gpsservice.service;
+
+import com.chinmay.gpsservice.entity.GpsRecord;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GpsWriteBehindWriterTest {
+
+    @Mock
+    private GpsService gpsService;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LocalDateTime now = LocalDateTime.of(2026, 7, 13, 8, 0);
+    private GpsWriteBehindWriter writer;
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null) {
+            writer.stop();
+        }
+    }
+
+    private GpsWriteBehindWriter writer(int flushSize, long maxDelayMs) {
+        writer = new GpsWriteBehindWriter(gpsService, meterRegistry, 256, flushSize, maxDelayMs, 1000, 5000);
+        return writer;
+    }
+
+    private static GpsRecord record(String publisherId, LocalDateTime timestamp, double latitude) {
+        return new GpsRecord(null, publisherId, latitude, 2.0, 0.0, timestamp);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlush_CoalescesDuplicatePingsAndAcksEveryDelivery() throws InterruptedException {
+        writer(4, 60_000);
+        CountDownLatch acked = new CountDownLatch(4);
+        ConcurrentHashMap<Integer, Exception> failures = new ConcurrentHashMap<>();
+        // Queued before start(), as happens when listener containers start first
+        writer.submit(record("TRUCK-01", now, 1.0), failure -> acked.countDown());
+        writer.submit(record("TRUCK-01", now, 1.5), failure -> acked.countDown()); // duplicate ping, newer copy
+        writer.submit(record("TRUCK-02", now, 3.0), failure -> acked.countDown());
+        writer.submit(record("TRUCK-01", now.plusSeconds(1), 4.0), failure -> {
+            if (failure != null) {
+                failures.put(4, failure);
+            }
+            acked.countDown();
+        });
+        verifyNoInteractions(gpsService);
+
+        writer.start();
+
+        assertTrue(acked.await(5, TimeUnit.SECONDS));
+        ArgumentCaptor<List<GpsRecord>> saved = ArgumentCaptor.forClass(List.class);
+        verify(gpsService).saveGpsRecords(saved.capture());
+        assertEquals(List.of(1.5, 3.0, 4.0), saved.getValue().stream().map(GpsRecord::getLatitude).toList());
+        assertTrue(failures.isEmpty());
+        assertEquals(1.0, meterRegistry.get("gps.writebehind.coalesced").counter().count());
+    }
+
+    @Test
+    void testFlush_FailedBatchIsRetriedPerRecord() throws InterruptedException {
+        when(gpsService.saveGpsRecords(anyList())).thenAnswer(invocation -> {
+            List<GpsRecord> records = invocation.getArgument(0);
+            if (records.stream().anyMatch(record -> "BAD".equals(record.getPublisherId()))) {
+                throw new IllegalStateException("constraint violation");
+            }
+            return records.size();
+        });
+        writer(2, 60_000).start();
+        CountDownLatch acked = new CountDownLatch(2);
+        ConcurrentHashMap<String, String> outcomes = new ConcurrentHashMap<>();
+
+        writer.submit(record("TRUCK-01", now, 1.0), failure -> {
+            outcomes.put("TRUCK-01", failure == null ? "stored" : "failed");
+            acked.countDown();
+        });
+        writer.submit(record("BAD", now, 1.0), failure -> {
+            outcomes.put("BAD", failure == null ? "stored" : "failed");
+            acked.countDown();
+        });
+
+        assertTrue(acked.await(5, TimeUnit.SECONDS));
+        assertEquals("stored", outcomes.get("TRUCK-01"));
+        assertEquals("failed", outcomes.get("BAD"));
+        verify(gpsService).saveGpsRecords(argThat(records -> records.size() == 1 && records.get(0).getPublisherId().equals("TRUCK-01")));
+    }
+
+    @Test
+    void testStop_DrainsBufferBeforeTheDelayAndRejectsNewRecords() {
+        writer(100, 60_000).start();
+        CountDownLatch acked = new CountDownLatch(3);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(writer.submit(record("TRUCK-01", now.plusSeconds(i), 1.0), failure -> acked.countDown()));
+        }
+
+        writer.stop();
+
+        assertEquals(0, acked.getCount(), "Flushed and acked during stop, without waiting for the size or time threshold");
+        assertFalse(writer.isRunning());
+        assertFalse(writer.submit(record("TRUCK-01", now.plusSeconds(9), 1.0), failure -> fail("Not queued")));
+        verify(gpsService, times(1)).saveGpsRecords(anyList());
+    }
+}
@@ -0,0 +1,100 @@
+package com.chinmay.gpsservice.service;
+
+import com.chinmay.gpsservice.config.RabbitMQConfig;
+import com.chinmay.gpsservice.service.IngestionModeRouter.Route;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+
+import java.net.ConnectException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IngestionModeRouterTest {
+
+    @Mock
+    private AmqpAdmin amqpAdmin;
+
+    private IngestionModeRouter router;
+
+    @BeforeEach
+    void setUp() {
+        router = new IngestionModeRouter(amqpAdmin, IngestionMode.ADAPTIVE, 100, 2, false, 4);
+    }
+
+    @Test
+    void testRoute_FixedModes() {
+        assertEquals(Route.DIRECT, router.route(IngestionMode.SYNC));
+        assertEquals(Route.QUEUED, router.route(IngestionMode.ASYNC));
+        assertEquals(IngestionMode.SYNC, router.resolveMode(IngestionMode.SYNC));
+        assertEquals(IngestionMode.ADAPTIVE, router.resolveMode(null));
+    }
+
+    @Test
+    void testAdaptive_ShortQueue_WritesDirectly() {
+        when(amqpAdmin.getQueueInfo(RabbitMQConfig.GPS_DATA_QUEUE_NAME))
+                .thenReturn(new QueueInformation(RabbitMQConfig.GPS_DATA_QUEUE_NAME, 10, 1));
+        router.probeBroker();
+
+        assertEquals(Route.DIRECT, router.route(IngestionMode.ADAPTIVE));
+        assertEquals(1, router.getRouteCount(IngestionMode.ADAPTIVE, Route.DIRECT));
+    }
+
+    @Test
+    void testAdaptive_DeepQueue_Queues() {
+        when(amqpAdmin.getQueueInfo(RabbitMQConfig.GPS_DATA_QUEUE_NAME))
+                .thenReturn(new QueueInformation(RabbitMQConfig.GPS_DATA_QUEUE_NAME, 500, 1));
+        router.probeBroker();
+
+        assertEquals(500, router.getQueueDepth());
+        assertEquals(Route.QUEUED, router.route(IngestionMode.ADAPTIVE));
+    }
+
+    @Test
+    void testAdaptive_BusyDatabase_Queues() {
+        router.directWriteStarted();
+        router.directWriteStarted();
+        assertEquals(Route.QUEUED, router.route(IngestionMode.ADAPTIVE));
+
+        router.directWriteFinished();
+        assertEquals(Route.DIRECT, router.route(IngestionMode.ADAPTIVE));
+    }
+
+    @Test
+    void testAdaptive_BrokerDown_WritesDirectlyUntilProbeSucceeds() {
+        when(amqpAdmin.getQueueInfo(RabbitMQConfig.GPS_DATA_QUEUE_NAME))
+                .thenThrow(new AmqpConnectException(new ConnectException("refused")))
+                .thenReturn(new QueueInformation(RabbitMQConfig.GPS_DATA_QUEUE_NAME, 500, 1));
+        router.probeBroker();
+
+        assertFalse(router.isBrokerAvailable());
+        assertEquals(Route.DIRECT, router.route(IngestionMode.ADAPTIVE)); // queue depth is unknown, but there is no broker
+
+        router.probeBroker();
+        assertTrue(router.isBrokerAvailable());
+        assertEquals(Route.QUEUED, router.route(IngestionMode.ADAPTIVE));
+    }
+
+    @Test
+    void testReportBrokerFailure_SwitchesAdaptiveToDirect() {
+        router.reportBrokerFailure();
+
+        assertFalse(router.isBrokerAvailable());
+        assertEquals(1, router.getBrokerFailures());
+        assertEquals(Route.DIRECT, router.route(IngestionMode.ADAPTIVE));
+    }
+
+    @Test
+    void testSetDefaultMode() {
+        router.setDefaultMode(IngestionMode.SYNC);
+
+        assertEquals(IngestionMode.SYNC, router.resolveMode(null));
+    }
+}
@@ -0,0 +1,141 @@
+package com.chinmay.gpsservice.service;
+
+import com.chinmay.gpsservice.dto.Stop;
+import com.chinmay.gpsservice.dto.Trip;
+import com.chinmay.gpsservice.hotstore.HotTrackStore;
+import com.chinmay.gpsservice.service.AnalyticsService.TripSegmenter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TripSegmenterTest {
+
+    // 100 m stop radius, 5 min minimum stop, idle below 3 km/h, glitches above 250 km/h, trips end after 30 min of silence
+    private static final TripSegmenter.Settings SETTINGS = new TripSegmenter.Settings(0.1, 300_000, 3, 250, 1_800_000);
+    // 0.001 degrees of longitude on the equator is ~111 m; one step every 10 s is ~40 km/h
+    private static final double STEP = 0.001;
+
+    private final List<Trip> trips = new ArrayList<>();
+    private final List<Stop> stops = new ArrayList<>();
+    private TripSegmenter segmenter;
+
+    @BeforeEach
+    void setUp() {
+        segmenter = new TripSegmenter(SETTINGS, collector());
+    }
+
+    // Drives east one step every 10 s, from (seconds, step) to (seconds + 10 * steps, step + steps)
+    private void drive(long seconds, int step, int steps) {
+        for (int i = 0; i <= steps; i++) {
+            segmenter.add((seconds + 10L * i) * 1000, 0.0, (step + i) * STEP);
+        }
+    }
+
+    // Reports a fix every minute at the same place, ending at 'until'
+    private void park(long seconds, long until, int step) {
+        for (long t = seconds; t <= until; t += 60) {
+            segmenter.add(t * 1000, 0.0, step * STEP);
+        }
+    }
+
+    @Test
+    void testLongDwell_SplitsTripsAroundStop() {
+        drive(0, 0, 10);
+        park(160, 700, 10);
+        drive(710, 11, 9);
+
+        assertEquals(1, trips.size());
+        Trip first = trips.get(0);
+        assertEquals(HotTrackStore.fromEpochMillis(0), first.start());
+        assertEquals(100, first.durationSeconds(), "The trip ends on arrival, not when the vehicle leaves");
+        assertEquals(1.11, first.distanceKm(), 0.01);
+        assertEquals(40, first.averageSpeedKmh(), 0.1);
+        assertEquals(11, first.points());
+        assertFalse(first.open());
+
+        assertEquals(1, stops.size());
+        assertEquals(600, stops.get(0).durationSeconds());
+        assertEquals(10 * STEP, stops.get(0).longitude(), 1e-9);
+
+        List<Trip> open = new ArrayList<>();
+        segmenter.reportOpen(new TripSegmenter.Listener() {
+            @Override
+            public void onTrip(Trip trip) {
+                open.add(trip);
+            }
+
+            @Override
+            public void onStop(Stop stop) {
+                fail("Vehicle is moving");
+            }
+        });
+        assertEquals(1, open.size());
+        assertTrue(open.get(0).open());
+        assertEquals(100, open.get(0).durationSeconds(), "The next trip starts at the last parked fix");
+        assertEquals(1.11, open.get(0).distanceKm(), 0.01);
+    }
+
+    @Test
+    void testShortHalt_StaysInTripAsIdleTime() {
+        drive(0, 0, 10);
+        park(160, 220, 10);
+        drive(230, 11, 9);
+        segmenter.reportOpen(collector());
+
+        assertTrue(stops.isEmpty());
+        assertEquals(1, trips.size());
+        Trip trip = trips.get(0);
+        assertTrue(trip.open());
+        assertEquals(320, trip.durationSeconds());
+        assertEquals(120, trip.idleSeconds());
+        assertEquals(200, trip.movingSeconds());
+        assertEquals(2.22, trip.distanceKm(), 0.01);
+    }
+
+    @Test
+    void testGlitchesAndOutOfOrderPoints_AreSkipped() {
+        segmenter.add(0, 0.0, 0.0);
+        segmenter.add(10_000, 0.0, STEP);
+
+        assertFalse(segmenter.add(20_000, 0.0, 1.0), "~111 km in 10 s is a glitch");
+        assertFalse(segmenter.add(5_000, 0.0, 0.0), "Older than the last accepted point");
+        assertTrue(segmenter.add(20_000, 0.0, 2 * STEP));
+        segmenter.reportOpen(collector());
+
+        assertEquals(1, trips.size());
+        assertEquals(0.222, trips.get(0).distanceKm(), 0.001);
+        assertEquals(40, trips.get(0).maxSpeedKmh(), 0.1);
+    }
+
+    @Test
+    void testLongGap_EndsTripWithoutStop() {
+        drive(0, 0, 10);
+        drive(3700, 50, 10); // an hour of silence, reappearing 4 km further on
+
+        assertEquals(1, trips.size());
+        assertEquals(1.11, trips.get(0).distanceKm(), 0.01, "No straight line is drawn across the gap");
+        assertTrue(stops.isEmpty());
+
+        segmenter.reportOpen(collector());
+        assertEquals(2, trips.size());
+        assertEquals(HotTrackStore.fromEpochMillis(3_700_000), trips.get(1).start());
+    }
+
+    private TripSegmenter.Listener collector() {
+        return new TripSegmenter.Listener() {
+            @Override
+            public void onTrip(Trip trip) {
+                trips.add(trip);
+            }
+
+            @Override
+            public void onStop(Stop stop) {
+                stops.add(stop);
+            }
+        };
+    }
+}
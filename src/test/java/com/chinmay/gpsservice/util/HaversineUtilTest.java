@@ -30,4 +30,46 @@ class HaversineUtilTest {
 
         assertEquals(0.0, distance, "Distance to the exact same point should be 0");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSegmentDistances_MatchesScalarHaversine() {
+        double[] lats = {40.6413, 51.4700, 48.8566, 40.6413};
+        double[] lons = {-73.7781, -0.4543, 2.3522, -73.7781};
+        double[] segments = new double[3];
+
+        double total = HaversineUtil.segmentDistances(lats, lons, 4, segments, DistanceMode.HAVERSINE);
+
+        double expectedTotal = 0.0;
+        for (int i = 0; i < 3; i++) {
+            double expected = HaversineUtil.calculateDistance(lats[i], lons[i], lats[i + 1], lons[i + 1]);
+            assertEquals(expected, segments[i], 1e-9);
+            expectedTotal += expected;
+        }
+        assertEquals(expectedTotal, total, 1e-9);
+        assertEquals(expectedTotal, HaversineUtil.totalDistance(lats, lons, 4, DistanceMode.HAVERSINE), 1e-9);
+    }
+
+    @Test
+    void testTotalDistance_EquirectangularIsCloseForShortSegments() {
+        // ~200 m steps, including a hop across the antimeridian
+        double[] lats = {40.7128, 40.7146, 40.7160, -16.5000, -16.5010};
+        double[] lons = {-74.0060, -74.0040, -74.0020, 179.9995, -179.9990};
+
+        double exact = HaversineUtil.totalDistance(lats, lons, 3, DistanceMode.HAVERSINE);
+        double approx = HaversineUtil.totalDistance(lats, lons, 3, DistanceMode.EQUIRECTANGULAR);
+        assertEquals(exact, approx, exact * 1e-4);
+
+        double exactWrap = HaversineUtil.totalDistance(new double[]{lats[3], lats[4]}, new double[]{lons[3], lons[4]}, 2, DistanceMode.HAVERSINE);
+        double approxWrap = HaversineUtil.totalDistance(new double[]{lats[3], lats[4]}, new double[]{lons[3], lons[4]}, 2, DistanceMode.EQUIRECTANGULAR);
+        assertEquals(exactWrap, approxWrap, exactWrap * 1e-4);
+    }
+
+    @Test
+    void testTotalDistance_FewerThanTwoPoints_ShouldBeZero() {
+        double[] lats = {40.6413, 51.4700};
+        double[] lons = {-73.7781, -0.4543};
+
+        assertEquals(0.0, HaversineUtil.totalDistance(lats, lons, 1, DistanceMode.HAVERSINE));
+        assertEquals(0.0, HaversineUtil.totalDistance(lats, lons, 0, DistanceMode.EQUIRECTANGULAR));
+    }
+}
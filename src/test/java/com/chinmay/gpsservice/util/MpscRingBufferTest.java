@@ -0,0 +1,76 @@
+package com.chinmay.gpsservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MpscRingBufferTest {
+
+    @Test
+    void testOfferPoll_FifoAndFullBuffer() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(3);
+        assertEquals(4, buffer.capacity());
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4), "Full");
+        assertEquals(0, buffer.poll());
+        assertTrue(buffer.offer(4), "A polled slot is reused");
+
+        List<Integer> drained = new ArrayList<>();
+        Integer element;
+        while ((element = buffer.poll()) != null) {
+            drained.add(element);
+        }
+        assertEquals(List.of(1, 2, 3, 4), drained);
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    void testConcurrentProducers_EveryElementArrivesOnceInPerProducerOrder() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 20_000;
+        MpscRingBuffer<long[]> buffer = new MpscRingBuffer<>(64);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (long i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(new long[]{producer, i})) {
+                        Thread.yield();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        start.countDown();
+        long[] next = new long[producers];
+        int received = 0;
+        while (received < producers * perProducer) {
+            long[] element = buffer.poll();
+            if (element == null) {
+                Thread.yield();
+                continue;
+            }
+            assertEquals(next[(int) element[0]]++, element[1], "Out of order for producer " + element[0]);
+            received++;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(buffer.poll());
+    }
+}
@@ -0,0 +1,31 @@
+package com.chinmay.gpsservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RouteDistanceAccumulatorTest {
+
+    @Test
+    void testAdd_SumsConsecutiveSegments() {
+        RouteDistanceAccumulator accumulator = new RouteDistanceAccumulator();
+
+        // New York -> London -> New York
+        accumulator.add(40.6413, -73.7781);
+        accumulator.add(51.4700, -0.4543);
+        accumulator.add(40.6413, -73.7781);
+
+        double oneWay = HaversineUtil.calculateDistance(40.6413, -73.7781, 51.4700, -0.4543);
+        assertEquals(3, accumulator.getPointCount());
+        assertEquals(2 * oneWay, accumulator.getTotalDistanceKm(), 0.001, "Round trip should be twice the one-way distance");
+    }
+
+    @Test
+    void testAdd_SinglePoint_ShouldBeZero() {
+        RouteDistanceAccumulator accumulator = new RouteDistanceAccumulator();
+        accumulator.add(40.6413, -73.7781);
+
+        assertEquals(1, accumulator.getPointCount());
+        assertEquals(0.0, accumulator.getTotalDistanceKm(), "A single point has no distance");
+    }
+}
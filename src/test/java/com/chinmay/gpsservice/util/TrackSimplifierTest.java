@@ -0,0 +1,172 @@
+package com.chinmay.gpsservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrackSimplifierTest {
+
+    // Up a straight ramp to a peak and straight back down: only the ends and the peak matter
+    private static double[][] peak(int count, double peakLatitude) {
+        double[] latitudes = new double[count];
+        double[] longitudes = new double[count];
+        int middle = count / 2;
+        for (int i = 0; i < count; i++) {
+            latitudes[i] = i <= middle ? peakLatitude * i / middle : peakLatitude * (count - 1 - i) / (count - 1 - middle);
+            longitudes[i] = 0.001 * i;
+        }
+        return new double[][]{latitudes, longitudes};
+    }
+
+    @Test
+    void testSelect_Tolerance_KeepsOnlyTheShapePoints() {
+        double[][] track = peak(101, 0.01);
+        double[] significance = TrackSimplifier.significance(track[0], track[1], 101);
+
+        int[] kept = TrackSimplifier.select(significance, 101, 0.1, Integer.MAX_VALUE);
+
+        assertArrayEquals(new int[]{0, 50, 100}, kept);
+        assertEquals(0.0, TrackSimplifier.maxError(track[0], track[1], 101, kept), 1e-6);
+    }
+
+    @Test
+    void testSelect_Budget_KeepsMostSignificantAndReportsError() {
+        double[][] track = peak(101, 0.01);
+        double[] significance = TrackSimplifier.significance(track[0], track[1], 101);
+
+        int[] kept = TrackSimplifier.select(significance, 101, 0, 2);
+
+        assertArrayEquals(new int[]{0, 100}, kept);
+        assertEquals(1.11, TrackSimplifier.maxError(track[0], track[1], 101, kept), 0.01, "The dropped peak is ~1.11 km off the chord");
+    }
+
+    @Test
+    void testSelect_BudgetTieKeepsTheParentBeforeItsChild() {
+        // Point 2 splits the whole track; point 1, nearer the first chord, is further from the chord 0-2 it then
+        // splits, so its significance is capped at its parent's. A budget of 3 cuts at that tie.
+        double[] latitudes = {0, -0.09, 0.1, 0};
+        double[] longitudes = {0, 0.5, 1.0, 1.0};
+        double[] significance = TrackSimplifier.significance(latitudes, longitudes, 4);
+
+        int[] kept = TrackSimplifier.select(significance, 4, 0, 3);
+
+        assertArrayEquals(new int[]{0, 2, 3}, kept, "the parent must win the tie, not the earlier child");
+        assertEquals(TrackSimplifier.distanceToSegmentKm(latitudes[1], longitudes[1], 0, 0, 0.1, 1.0),
+                TrackSimplifier.maxError(latitudes, longitudes, 4, kept), 1e-9);
+        assertTrue(TrackSimplifier.maxError(latitudes, longitudes, 4, kept) > significance[1],
+                "the reported error is the measured distance, not the capped significance");
+    }
+
+    @Test
+    void testSignificance_MatchesRecursiveDouglasPeucker() {
+        Random random = new Random(42);
+        int count = 2000;
+        double[] latitudes = new double[count];
+        double[] longitudes = new double[count];
+        for (int i = 1; i < count; i++) {
+            latitudes[i] = latitudes[i - 1] + random.nextDouble(-0.001, 0.001);
+            longitudes[i] = longitudes[i - 1] + random.nextDouble(-0.001, 0.001);
+        }
+        double[] significance = TrackSimplifier.significance(latitudes, longitudes, count);
+
+        for (double toleranceKm : new double[]{0.01, 0.05, 0.2}) {
+            boolean[] expected = new boolean[count];
+            expected[0] = true;
+            expected[count - 1] = true;
+            douglasPeucker(latitudes, longitudes, 0, count - 1, toleranceKm, expected);
+
+            int[] kept = TrackSimplifier.select(significance, count, toleranceKm, Integer.MAX_VALUE);
+            List<Integer> expectedIndices = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                if (expected[i]) {
+                    expectedIndices.add(i);
+                }
+            }
+            assertArrayEquals(expectedIndices.stream().mapToInt(Integer::intValue).toArray(), kept, "tolerance " + toleranceKm);
+        }
+    }
+
+    @Test
+    void testSelect_BudgetLevelsAreNested() {
+        Random random = new Random(7);
+        int count = 500;
+        double[] latitudes = new double[count];
+        double[] longitudes = new double[count];
+        for (int i = 1; i < count; i++) {
+            latitudes[i] = latitudes[i - 1] + random.nextDouble(-0.001, 0.001);
+            longitudes[i] = longitudes[i - 1] + random.nextDouble(-0.001, 0.001);
+        }
+        double[] significance = TrackSimplifier.significance(latitudes, longitudes, count);
+
+        int[] coarse = TrackSimplifier.select(significance, count, 0, 20);
+        int[] fine = TrackSimplifier.select(significance, count, 0, 80);
+
+        assertEquals(20, coarse.length);
+        assertEquals(80, fine.length);
+        for (int index : coarse) {
+            assertTrue(java.util.Arrays.binarySearch(fine, index) >= 0, "point " + index + " vanished when zooming in");
+        }
+    }
+
+    @Test
+    void testTrackBuffer_DropsJitterButKeepsTheLastPoint() {
+        TrackBuffer buffer = new TrackBuffer(0.005, 100);
+        buffer.add(1, 10.0, 10.0);
+        buffer.add(2, 10.00001, 10.0); // ~1 m: dropped
+        buffer.add(3, 10.001, 10.0);   // ~110 m: kept
+        buffer.add(4, 10.00101, 10.0); // ~1 m: dropped, but it is the last point
+        buffer.finish();
+
+        assertEquals(3, buffer.size());
+        assertEquals(4, buffer.getSeen());
+        assertEquals(4, buffer.getTimestamps()[2]);
+        assertFalse(buffer.isTruncated());
+    }
+
+    @Test
+    void testTrackBuffer_StopsAtMaxPoints() {
+        TrackBuffer buffer = new TrackBuffer(0, 3);
+        for (int i = 0; i < 5; i++) {
+            buffer.add(i, 0.01 * i, 0);
+        }
+        buffer.finish();
+
+        assertEquals(3, buffer.size());
+        assertEquals(5, buffer.getSeen());
+        assertTrue(buffer.isTruncated());
+    }
+
+    @Test
+    void testTrackBuffer_FinishDoesNotExceedMaxPoints() {
+        TrackBuffer buffer = new TrackBuffer(0.005, 2);
+        buffer.add(1, 10.0, 10.0);
+        buffer.add(2, 10.001, 10.0);   // ~110 m: kept, the buffer is full
+        buffer.add(3, 10.00101, 10.0); // ~1 m: pending
+        buffer.finish();
+
+        assertEquals(2, buffer.size());
+        assertTrue(buffer.isTruncated());
+    }
+
+    private static void douglasPeucker(double[] latitudes, double[] longitudes, int start, int end, double toleranceKm, boolean[] kept) {
+        int split = -1;
+        double maxDistance = -1;
+        for (int i = start + 1; i < end; i++) {
+            double distance = TrackSimplifier.distanceToSegmentKm(latitudes[i], longitudes[i],
+                    latitudes[start], longitudes[start], latitudes[end], longitudes[end]);
+            if (distance > maxDistance) {
+                maxDistance = distance;
+                split = i;
+            }
+        }
+        if (split >= 0 && maxDistance > toleranceKm) {
+            kept[split] = true;
+            douglasPeucker(latitudes, longitudes, start, split, toleranceKm, kept);
+            douglasPeucker(latitudes, longitudes, split, end, toleranceKm, kept);
+        }
+    }
+}